@@ -0,0 +1,290 @@
+package dev.kkorolyov.sqlob.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a {@code dev.kkorolyov.sqlob.descriptor.Mapper} for each type declaring or annotated with a SQLOb annotation.
+ * A generated mapper holds the type's table name, persistable field and column names, and direct field access code.
+ * Private members are accessed through {@code VarHandle}s and {@code MethodHandle}s resolved once in the mapper's static initializer.
+ * Types which cannot be mapped by generated code (non-static inner classes, private classes, final persistable fields) are skipped with a warning,
+ * and fall back to reflective handling at runtime.
+ */
+public class MapperProcessor extends AbstractProcessor {
+	private static final String TABLE = "dev.kkorolyov.sqlob.annotation.Table";
+	private static final String COLUMN = "dev.kkorolyov.sqlob.annotation.Column";
+	private static final String TRANSIENT = "dev.kkorolyov.sqlob.annotation.Transient";
+
+	private static final String MAPPER = "dev.kkorolyov.sqlob.descriptor.Mapper";
+	private static final String SUFFIX = "_SqlobMapper";
+
+	private Elements elements;
+	private Types types;
+	private Filer filer;
+	private Messager messager;
+
+	@Override
+	public synchronized void init(ProcessingEnvironment processingEnv) {
+		super.init(processingEnv);
+
+		elements = processingEnv.getElementUtils();
+		types = processingEnv.getTypeUtils();
+		filer = processingEnv.getFiler();
+		messager = processingEnv.getMessager();
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return new HashSet<>(Arrays.asList(TABLE, COLUMN, TRANSIENT));
+	}
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<TypeElement> mappedTypes = new LinkedHashSet<>();
+
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.CLASS) mappedTypes.add((TypeElement) element);
+				else if (element.getKind() == ElementKind.FIELD) mappedTypes.add((TypeElement) element.getEnclosingElement());
+			}
+		}
+		for (TypeElement type : mappedTypes) {
+			getSkipReason(type).ifPresentOrElse(
+					reason -> messager.printMessage(Diagnostic.Kind.WARNING, "Not generating SQLOb mapper: " + reason, type),
+					() -> generate(type)
+			);
+		}
+		return false;
+	}
+
+	private Optional<String> getSkipReason(TypeElement type) {
+		if (type.getModifiers().contains(Modifier.ABSTRACT)) return Optional.of("abstract class");
+		if (getAnnotationValue(type, TABLE).filter(String::isEmpty).isPresent()) return Optional.of("empty Table name");
+
+		for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+			if (element.getModifiers().contains(Modifier.PRIVATE)) return Optional.of("private class");
+			if (((TypeElement) element).getNestingKind() == NestingKind.MEMBER && !element.getModifiers().contains(Modifier.STATIC)) return Optional.of("non-static inner class");
+			if (((TypeElement) element).getNestingKind() == NestingKind.LOCAL || ((TypeElement) element).getNestingKind() == NestingKind.ANONYMOUS) return Optional.of("local class");
+		}
+		for (VariableElement field : getPersistableFields(type)) {
+			if (field.getModifiers().contains(Modifier.FINAL)) return Optional.of("final persistable field " + field.getSimpleName());
+			if (getAnnotationValue(field, COLUMN).filter(String::isEmpty).isPresent()) return Optional.of("empty Column name on " + field.getSimpleName());
+		}
+		return Optional.empty();
+	}
+
+	private void generate(TypeElement type) {
+		String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+		String mapperSimpleName = getFlatName(type) + SUFFIX;
+		String mapperName = packageName.isEmpty() ? mapperSimpleName : packageName + "." + mapperSimpleName;
+
+		String typeName = types.erasure(type.asType()).toString();
+		List<VariableElement> fields = getPersistableFields(type);
+
+		try (PrintWriter out = new PrintWriter(filer.createSourceFile(mapperName, type).openWriter())) {
+			if (!packageName.isEmpty()) out.println("package " + packageName + ";");
+			out.println();
+			out.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+			out.println("@SuppressWarnings({\"rawtypes\", \"unchecked\"})");
+			out.println("public final class " + mapperSimpleName + " implements " + MAPPER + "<" + typeName + "> {");
+
+			out.println("\tprivate static final java.util.List<String> FIELD_NAMES = java.util.List.of(" + quoteAll(fields.stream().map(field -> field.getSimpleName().toString())) + ");");
+			out.println("\tprivate static final java.util.List<String> COLUMN_NAMES = java.util.List.of(" + quoteAll(fields.stream().map(this::getColumnName)) + ");");
+
+			ExecutableElement constructor = getNoArgConstructor(type);
+			boolean privateConstructor = constructor != null && constructor.getModifiers().contains(Modifier.PRIVATE);
+			boolean privateFields = fields.stream().anyMatch(field -> field.getModifiers().contains(Modifier.PRIVATE));
+
+			if (privateConstructor || privateFields) {
+				if (privateConstructor) out.println("\tprivate static final java.lang.invoke.MethodHandle CONSTRUCTOR;");
+				for (VariableElement field : fields) {
+					if (field.getModifiers().contains(Modifier.PRIVATE)) out.println("\tprivate static final java.lang.invoke.VarHandle " + getHandleName(field) + ";");
+				}
+				out.println();
+				out.println("\tstatic {");
+				out.println("\t\ttry {");
+				out.println("\t\t\tjava.lang.invoke.MethodHandles.Lookup lookup = java.lang.invoke.MethodHandles.privateLookupIn(" + typeName + ".class, java.lang.invoke.MethodHandles.lookup());");
+				if (privateConstructor) out.println("\t\t\tCONSTRUCTOR = lookup.findConstructor(" + typeName + ".class, java.lang.invoke.MethodType.methodType(void.class));");
+				for (VariableElement field : fields) {
+					if (field.getModifiers().contains(Modifier.PRIVATE)) {
+						out.println("\t\t\t" + getHandleName(field) + " = lookup.findVarHandle(" + typeName + ".class, \"" + field.getSimpleName() + "\", " + getErasure(field) + ".class);");
+					}
+				}
+				out.println("\t\t} catch (ReflectiveOperationException e) {");
+				out.println("\t\t\tthrow new ExceptionInInitializerError(e);");
+				out.println("\t\t}");
+				out.println("\t}");
+			}
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic Class<" + typeName + "> getType() {");
+			out.println("\t\treturn " + typeName + ".class;");
+			out.println("\t}");
+			out.println("\t@Override");
+			out.println("\tpublic String getName() {");
+			out.println("\t\treturn \"" + escape(getTableName(type)) + "\";");
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic java.util.List<String> getFieldNames() {");
+			out.println("\t\treturn FIELD_NAMES;");
+			out.println("\t}");
+			out.println("\t@Override");
+			out.println("\tpublic java.util.List<String> getColumnNames() {");
+			out.println("\t\treturn COLUMN_NAMES;");
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic " + typeName + " newInstance() {");
+			if (constructor == null) {
+				out.println("\t\tthrow new IllegalArgumentException(\"class " + typeName + " does not provide a no-arg constructor\");");
+			} else if (privateConstructor) {
+				out.println("\t\ttry {");
+				out.println("\t\t\treturn (" + typeName + ") CONSTRUCTOR.invoke();");
+				out.println("\t\t} catch (RuntimeException | Error e) {");
+				out.println("\t\t\tthrow e;");
+				out.println("\t\t} catch (Throwable e) {");
+				out.println("\t\t\tthrow new RuntimeException(e);");
+				out.println("\t\t}");
+			} else {
+				out.println("\t\treturn new " + typeName + "();");
+			}
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic Object get(" + typeName + " instance, int field) {");
+			out.println("\t\tswitch (field) {");
+			for (int i = 0; i < fields.size(); i++) {
+				VariableElement field = fields.get(i);
+				String read = field.getModifiers().contains(Modifier.PRIVATE)
+						? "(" + getErasure(field) + ") " + getHandleName(field) + ".get(instance)"
+						: "instance." + field.getSimpleName();
+				out.println("\t\t\tcase " + i + ": return " + read + ";");
+			}
+			out.println("\t\t\tdefault: throw new IndexOutOfBoundsException(\"No persistable field at index \" + field);");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println("\t@Override");
+			out.println("\tpublic void set(" + typeName + " instance, int field, Object value) {");
+			out.println("\t\tswitch (field) {");
+			for (int i = 0; i < fields.size(); i++) {
+				VariableElement field = fields.get(i);
+				String value = getCast(field) + "value";
+				String write = field.getModifiers().contains(Modifier.PRIVATE)
+						? getHandleName(field) + ".set(instance, " + value + ")"
+						: "instance." + field.getSimpleName() + " = " + value;
+				out.println("\t\t\tcase " + i + ": " + write + "; break;");
+			}
+			out.println("\t\t\tdefault: throw new IndexOutOfBoundsException(\"No persistable field at index \" + field);");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println("}");
+		} catch (IOException e) {
+			messager.printMessage(Diagnostic.Kind.ERROR, "Unable to generate SQLOb mapper: " + e, type);
+		}
+	}
+
+	private List<VariableElement> getPersistableFields(TypeElement type) {
+		return ElementFilter.fieldsIn(type.getEnclosedElements()).stream()
+				.filter(field -> !field.getModifiers().contains(Modifier.STATIC))
+				.filter(field -> !field.getModifiers().contains(Modifier.TRANSIENT))
+				.filter(field -> !getAnnotation(field, TRANSIENT).isPresent())
+				.collect(Collectors.toList());
+	}
+	private ExecutableElement getNoArgConstructor(TypeElement type) {
+		return ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+				.filter(constructor -> constructor.getParameters().isEmpty())
+				.findFirst()
+				.orElse(null);
+	}
+
+	private String getTableName(TypeElement type) {
+		return getAnnotationValue(type, TABLE)
+				.orElse(type.getSimpleName().toString());
+	}
+	private String getColumnName(VariableElement field) {
+		return getAnnotationValue(field, COLUMN)
+				.orElse(field.getSimpleName().toString());
+	}
+
+	private Optional<String> getAnnotationValue(Element element, String annotation) {
+		return getAnnotation(element, annotation)
+				.flatMap(mirror -> mirror.getElementValues().entrySet().stream()
+						.filter(entry -> entry.getKey().getSimpleName().contentEquals("value"))
+						.map(entry -> entry.getValue())
+						.map(AnnotationValue::getValue)
+						.map(String::valueOf)
+						.findFirst());
+	}
+	private Optional<? extends AnnotationMirror> getAnnotation(Element element, String annotation) {
+		return element.getAnnotationMirrors().stream()
+				.filter(mirror -> ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation))
+				.findFirst();
+	}
+
+	private String getFlatName(TypeElement type) {
+		List<String> names = new ArrayList<>();
+		for (Element element = type; !(element instanceof PackageElement); element = element.getEnclosingElement()) {
+			names.add(0, element.getSimpleName().toString());
+		}
+		return String.join("_", names);
+	}
+	private String getHandleName(VariableElement field) {
+		return "FIELD_" + field.getSimpleName();
+	}
+	private String getErasure(VariableElement field) {
+		return types.erasure(field.asType()).toString();
+	}
+	private String getCast(VariableElement field) {
+		TypeMirror type = field.asType();
+
+		return type.getKind().isPrimitive()
+				? "(" + type + ") (" + types.boxedClass(types.getPrimitiveType(type.getKind())).getQualifiedName() + ") "
+				: type.getKind() == TypeKind.TYPEVAR || type.getKind() == TypeKind.DECLARED || type.getKind() == TypeKind.ARRAY
+				? "(" + getErasure(field) + ") "
+				: "";
+	}
+
+	private static String quoteAll(java.util.stream.Stream<String> strings) {
+		return strings
+				.map(string -> "\"" + escape(string) + "\"")
+				.collect(Collectors.joining(", "));
+	}
+	private static String escape(String string) {
+		return string.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+}
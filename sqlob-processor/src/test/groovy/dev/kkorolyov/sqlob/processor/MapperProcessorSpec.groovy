@@ -0,0 +1,177 @@
+package dev.kkorolyov.sqlob.processor
+
+import dev.kkorolyov.sqlob.descriptor.Mapper
+
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.tools.Diagnostic
+import javax.tools.DiagnosticCollector
+import javax.tools.JavaCompiler
+import javax.tools.JavaFileObject
+import javax.tools.StandardJavaFileManager
+import javax.tools.ToolProvider
+
+class MapperProcessorSpec extends Specification {
+	static final Map<String, String> SOURCES = [
+			"sample/Sample.java"     : """
+package sample;
+
+import dev.kkorolyov.sqlob.annotation.Column;
+import dev.kkorolyov.sqlob.annotation.Table;
+import dev.kkorolyov.sqlob.annotation.Transient;
+
+@Table("samples")
+public class Sample {
+	private String text;
+	@Column("count_col")
+	private int count;
+	long visible;
+	@Transient
+	private String ignored;
+	private static String shared;
+
+	private Sample() {}
+
+	public static class Nested {
+		@Column("nested_value")
+		private double value;
+	}
+	public class Inner {
+		@Column("inner_value")
+		String value;
+	}
+}
+""",
+			"sample/FinalSample.java": """
+package sample;
+
+import dev.kkorolyov.sqlob.annotation.Column;
+
+public class FinalSample {
+	@Column("value")
+	private final String value = "";
+}
+"""
+	]
+
+	@Shared
+	ClassLoader loader
+	@Shared
+	List<Diagnostic<? extends JavaFileObject>> diagnostics
+
+	def setupSpec() {
+		File root = File.createTempDir()
+		File src = new File(root, "src")
+		File out = new File(root, "out")
+		out.mkdirs()
+
+		List<File> files = SOURCES.collect { path, source ->
+			File file = new File(src, path)
+			file.parentFile.mkdirs()
+			file.text = source
+			file
+		}
+
+		JavaCompiler compiler = ToolProvider.systemJavaCompiler
+		DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>()
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(collector, null, null)
+
+		JavaCompiler.CompilationTask task = compiler.getTask(
+				null,
+				fileManager,
+				collector,
+				["-d", out.path, "-classpath", System.getProperty("java.class.path")],
+				null,
+				fileManager.getJavaFileObjectsFromFiles(files)
+		)
+		task.processors = [new MapperProcessor()]
+		assert task.call(): collector.diagnostics
+
+		fileManager.close()
+		diagnostics = collector.diagnostics
+		loader = new URLClassLoader([out.toURI().toURL()] as URL[], getClass().classLoader)
+	}
+
+	def "generates table, field, and column names"() {
+		Mapper<?> mapper = getMapper("sample.Sample")
+
+		expect:
+		mapper.type == loader.loadClass("sample.Sample")
+		mapper.name == "samples"
+		mapper.fieldNames == ["text", "count", "visible"]
+		mapper.columnNames == ["text", "count_col", "visible"]
+	}
+	def "instantiates through private constructor"() {
+		Mapper<?> mapper = getMapper("sample.Sample")
+
+		expect:
+		mapper.newInstance().class == loader.loadClass("sample.Sample")
+	}
+	def "round-trips private and package-private fields"() {
+		Mapper<Object> mapper = getMapper("sample.Sample")
+		Object instance = mapper.newInstance()
+
+		when:
+		mapper.set(instance, 0, "text")
+		mapper.set(instance, 1, 4)
+		mapper.set(instance, 2, 8L)
+
+		then:
+		mapper.get(instance, 0) == "text"
+		mapper.get(instance, 1) == 4
+		mapper.get(instance, 2) == 8L
+		getFieldValue(instance, "text") == "text"
+		getFieldValue(instance, "count") == 4
+		getFieldValue(instance, "visible") == 8L
+	}
+	def "rejects out-of-range field index"() {
+		Mapper<Object> mapper = getMapper("sample.Sample")
+
+		when:
+		mapper.get(mapper.newInstance(), 3)
+
+		then:
+		thrown IndexOutOfBoundsException
+	}
+
+	def "maps nested static classes"() {
+		Mapper<Object> mapper = getMapper("sample.Sample_Nested")
+		Object instance = mapper.newInstance()
+
+		when:
+		mapper.set(instance, 0, 1.5d)
+
+		then:
+		mapper.type == loader.loadClass('sample.Sample$Nested')
+		mapper.columnNames == ["nested_value"]
+		mapper.get(instance, 0) == 1.5d
+		getFieldValue(instance, "value") == 1.5d
+	}
+
+	@Unroll
+	def "skips #name with warning"() {
+		when:
+		loader.loadClass("sample." + mapperName + Mapper.SUFFIX)
+
+		then:
+		thrown ClassNotFoundException
+		diagnostics.any { it.kind == Diagnostic.Kind.WARNING && it.getMessage(null).contains(reason) }
+
+		where:
+		name                     | mapperName     | reason
+		"non-static inner class" | "Sample_Inner" | "non-static inner class"
+		"final field"            | "FinalSample"  | "final persistable field value"
+	}
+
+	private Mapper<Object> getMapper(String typeName) {
+		return loader.loadClass(typeName + Mapper.SUFFIX).getDeclaredConstructor().newInstance() as Mapper<Object>
+	}
+	private static Object getFieldValue(Object instance, String fieldName) {
+		return instance.class.getDeclaredField(fieldName).with {
+			accessible = true
+			get(instance)
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package dev.kkorolyov.sqlob;
+
+import java.util.Objects;
+
+/**
+ * Thresholds at which buffered statement batches are flushed to the database.
+ * Bounds the number of rows, and the estimated size of their values, held in memory by a single batched write.
+ */
+public final class BatchPolicy {
+	/** Flushes every 1000 rows or 4 MiB of values, whichever comes first */
+	public static final BatchPolicy DEFAULT = new BatchPolicy(1000, 4L * 1024 * 1024);
+	/** Never flushes before all rows of a request are buffered */
+	public static final BatchPolicy UNBOUNDED = new BatchPolicy(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+	private final int maxRows;
+	private final long maxBytes;
+
+	/**
+	 * Constructs a new batch policy.
+	 * @param maxRows maximum number of rows per batch
+	 * @param maxBytes maximum estimated size of values per batch in bytes
+	 * @throws IllegalArgumentException if {@code maxRows < 1} or {@code maxBytes < 1}
+	 */
+	public BatchPolicy(int maxRows, long maxBytes) {
+		if (maxRows < 1) throw new IllegalArgumentException("maxRows must be >= 1: " + maxRows);
+		if (maxBytes < 1) throw new IllegalArgumentException("maxBytes must be >= 1: " + maxBytes);
+
+		this.maxRows = maxRows;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * @param rows number of buffered rows
+	 * @param bytes estimated size of buffered values in bytes
+	 * @return whether a batch of {@code rows} rows totalling {@code bytes} bytes should be flushed
+	 */
+	public boolean isFull(int rows, long bytes) {
+		return rows >= maxRows || bytes >= maxBytes;
+	}
+
+	/** @return maximum number of rows per batch */
+	public int getMaxRows() {
+		return maxRows;
+	}
+	/** @return maximum estimated size of values per batch in bytes */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		BatchPolicy that = (BatchPolicy) o;
+		return maxRows == that.maxRows &&
+				maxBytes == that.maxBytes;
+	}
+	@Override
+	public int hashCode() {
+		return Objects.hash(maxRows, maxBytes);
+	}
+
+	@Override
+	public String toString() {
+		return "BatchPolicy{" +
+				"maxRows=" + maxRows +
+				", maxBytes=" + maxBytes +
+				'}';
+	}
+}
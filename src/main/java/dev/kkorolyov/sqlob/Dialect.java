@@ -0,0 +1,148 @@
+package dev.kkorolyov.sqlob;
+
+import java.util.Objects;
+
+/**
+ * A SQL database dialect, identified by the database's product name.
+ * Resolved once per {@link Session} and provided to each {@link ExecutionContext}.
+ */
+public final class Dialect {
+	/** SQLite dialect; limited to 999 bind parameters per statement, as in SQLite versions before 3.32.0 */
+	public static final Dialect SQLITE = new Dialect("SQLite", 999, Upsert.ON_CONFLICT, Limit.LIMIT, 0);
+	/** PostgreSQL dialect; streams rows through a server-side cursor when not in auto-commit mode */
+	public static final Dialect POSTGRESQL = new Dialect("PostgreSQL", 32767, Upsert.ON_CONFLICT, Limit.LIMIT, 1000);
+	/** MySQL dialect; streams rows through a server-side cursor if the connection enables {@code useCursorFetch} */
+	public static final Dialect MYSQL = new Dialect("MySQL", 65535, Upsert.ON_DUPLICATE_KEY, Limit.LIMIT, 1000);
+
+	private final String name;
+	private final int maxParameters;
+	private final Upsert upsert;
+	private final Limit limit;
+	private final int fetchSize;
+
+	/**
+	 * @param name database product name
+	 * @return dialect matching {@code name}
+	 * @see java.sql.DatabaseMetaData#getDatabaseProductName()
+	 */
+	public static Dialect of(String name) {
+		for (Dialect dialect : new Dialect[]{SQLITE, POSTGRESQL, MYSQL}) {
+			if (dialect.name.equals(name)) return dialect;
+		}
+		return new Dialect(name, 0, Upsert.NONE, Limit.FETCH_FIRST, 0);
+	}
+	/**
+	 * Like {@link #of(String)}, but also accounts for version-specific limits and syntax.
+	 * @param version database product version
+	 * @see java.sql.DatabaseMetaData#getDatabaseProductVersion()
+	 */
+	public static Dialect of(String name, String version) {
+		Dialect dialect = of(name);
+		int[] majorMinor = parseVersion(version);
+
+		if (dialect == SQLITE && majorMinor != null) {
+			if (compare(majorMinor, 3, 32) >= 0) dialect = new Dialect(name, 32766, Upsert.ON_CONFLICT, SQLITE.limit, SQLITE.fetchSize);
+			else if (compare(majorMinor, 3, 24) < 0) dialect = new Dialect(name, 999, Upsert.REPLACE, SQLITE.limit, SQLITE.fetchSize);
+		}
+		return dialect;
+	}
+	private static int[] parseVersion(String version) {
+		if (version == null) return null;
+
+		String[] parts = version.split("\\.");
+		try {
+			return new int[]{
+					Integer.parseInt(parts[0].trim()),
+					parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 0
+			};
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+	private static int compare(int[] majorMinor, int major, int minor) {
+		return majorMinor[0] != major
+				? Integer.compare(majorMinor[0], major)
+				: Integer.compare(majorMinor[1], minor);
+	}
+
+	private Dialect(String name, int maxParameters, Upsert upsert, Limit limit, int fetchSize) {
+		this.name = name;
+		this.maxParameters = maxParameters;
+		this.upsert = upsert;
+		this.limit = limit;
+		this.fetchSize = fetchSize;
+	}
+
+	/** @return database product name */
+	public String getName() {
+		return name;
+	}
+	/** @return maximum number of bind parameters in a single statement, or {@code 0} if unknown */
+	public int getMaxParameters() {
+		return maxParameters;
+	}
+	/** @return native syntax for inserting or updating rows on key conflict */
+	public Upsert getUpsert() {
+		return upsert;
+	}
+	/** @return syntax for limiting the number of selected rows */
+	public Limit getLimit() {
+		return limit;
+	}
+	/** @return number of rows to fetch per round trip when streaming query results, or {@code 0} to use the driver's default */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		Dialect dialect = (Dialect) o;
+		return maxParameters == dialect.maxParameters &&
+				fetchSize == dialect.fetchSize &&
+				Objects.equals(name, dialect.name) &&
+				upsert == dialect.upsert &&
+				limit == dialect.limit;
+	}
+	@Override
+	public int hashCode() {
+		return Objects.hash(name, maxParameters, upsert, limit, fetchSize);
+	}
+
+	@Override
+	public String toString() {
+		return "Dialect{" +
+				"name='" + name + '\'' +
+				", maxParameters=" + maxParameters +
+				", upsert=" + upsert +
+				", limit=" + limit +
+				", fetchSize=" + fetchSize +
+				'}';
+	}
+
+	/**
+	 * Native syntax for inserting rows which updates existing rows with conflicting keys.
+	 */
+	public enum Upsert {
+		/** No known native upsert syntax */
+		NONE,
+		/** {@code INSERT ... ON CONFLICT(key) DO UPDATE SET column=excluded.column} */
+		ON_CONFLICT,
+		/** {@code INSERT ... ON DUPLICATE KEY UPDATE column=VALUES(column)} */
+		ON_DUPLICATE_KEY,
+		/** {@code INSERT OR REPLACE ...}; replaces conflicting rows by deleting and re-inserting them */
+		REPLACE
+	}
+
+	/**
+	 * Syntax for limiting the number of selected rows.
+	 */
+	public enum Limit {
+		/** {@code SELECT ... LIMIT n} */
+		LIMIT,
+		/** Standard {@code SELECT ... FETCH FIRST n ROWS ONLY} */
+		FETCH_FIRST
+	}
+}
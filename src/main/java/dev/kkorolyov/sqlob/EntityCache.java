@@ -0,0 +1,285 @@
+package dev.kkorolyov.sqlob;
+
+import dev.kkorolyov.sqlob.annotation.Cacheable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache of the states of records selected by ID, keyed by type and record key, and shareable by any number of {@link Session}s.
+ * Caches only types annotated {@link Cacheable} or {@link #configure(Class, int, long, TimeUnit) configured} explicitly, each in a separate region with its own size and time-to-live.
+ * When a region is full, evicts its least-recently used record.
+ * Caches states rather than objects, so that each loading session receives its own instances.
+ * Concurrent loads of the same record are combined, so that a burst of requests for an uncached record executes a single select.
+ * Thread-safe.
+ */
+public final class EntityCache {
+	private static final Region NONE = new Region(0, 0);
+
+	private final LongSupplier ticker;
+	private final Map<Class<?>, Region> regions = new ConcurrentHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/** Constructs a new entity cache. */
+	public EntityCache() {
+		this(System::nanoTime);
+	}
+	/**
+	 * Constructs a new entity cache.
+	 * @param ticker provides the current time in nanoseconds
+	 */
+	EntityCache(LongSupplier ticker) {
+		this.ticker = ticker;
+	}
+
+	/**
+	 * Caches records of a type, overriding any {@link Cacheable} annotation.
+	 * Discards all records of the type already cached.
+	 * @param type cached type
+	 * @param maxSize maximum number of cached records of {@code type}
+	 * @param ttl time a cached record remains valid after being cached; {@code 0} for no expiry
+	 * @param unit unit of {@code ttl}
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if {@code maxSize < 1} or {@code ttl < 0}
+	 */
+	public EntityCache configure(Class<?> type, int maxSize, long ttl, TimeUnit unit) {
+		regions.put(type, newRegion(maxSize, ttl, unit));
+		return this;
+	}
+	private static Region newRegion(int maxSize, long ttl, TimeUnit unit) {
+		if (maxSize < 1) throw new IllegalArgumentException("maxSize must be >= 1: " + maxSize);
+		if (ttl < 0) throw new IllegalArgumentException("ttl must be >= 0: " + ttl);
+
+		return new Region(maxSize, unit.toNanos(ttl));
+	}
+
+	private Region getRegion(Class<?> type) {
+		return regions.computeIfAbsent(type, k -> {
+			Cacheable cacheable = k.getAnnotation(Cacheable.class);
+			return cacheable != null ? newRegion(cacheable.maxSize(), cacheable.ttl(), cacheable.unit()) : NONE;
+		});
+	}
+	/**
+	 * @param type type to check
+	 * @return whether records of {@code type} are cached
+	 */
+	public boolean isCached(Class<?> type) {
+		return getRegion(type) != NONE;
+	}
+
+	/**
+	 * Gets the states of records of a type, loading all those not cached.
+	 * Records being loaded by a concurrent call are awaited rather than loaded again.
+	 * If a concurrent load fails, its records are loaded by {@code loader} instead.
+	 * @param type type of records
+	 * @param keys keys of records
+	 * @param loader loads the states of records of {@code type} with the given keys, omitting those of missing records
+	 * @return states of all existing records of {@code type} with {@code keys}, by key
+	 * @throws RuntimeException if thrown by {@code loader}
+	 */
+	public Map<UUID, Object[]> get(Class<?> type, Collection<UUID> keys, Function<Collection<UUID>, Map<UUID, Object[]>> loader) {
+		Region region = getRegion(type);
+		if (region == NONE) return loader.apply(keys);
+
+		Map<UUID, Object[]> states = new HashMap<>();
+		Map<UUID, CompletableFuture<Object[]>> claimed = new LinkedHashMap<>();
+		Map<UUID, CompletableFuture<Object[]>> awaited = new LinkedHashMap<>();
+
+		long now = ticker.getAsLong();
+		for (UUID key : keys) {
+			Object[] state = region.get(key, now);
+
+			if (state != null) {
+				hits.incrementAndGet();
+				states.put(key, state);
+			} else {
+				misses.incrementAndGet();
+
+				CompletableFuture<Object[]> load = new CompletableFuture<>();
+				CompletableFuture<Object[]> pending = region.loading.putIfAbsent(key, load);
+
+				if (pending == null) claimed.put(key, load);
+				else awaited.put(key, pending);
+			}
+		}
+		if (!claimed.isEmpty()) states.putAll(load(region, claimed, loader));
+
+		List<UUID> failed = new ArrayList<>();
+		awaited.forEach((key, pending) -> {
+			try {
+				Object[] state = pending.join();
+				if (state != null) states.put(key, state);
+			} catch (CompletionException e) {
+				failed.add(key);
+			}
+		});
+		if (!failed.isEmpty()) states.putAll(loader.apply(failed));
+
+		return states;
+	}
+	private Map<UUID, Object[]> load(Region region, Map<UUID, CompletableFuture<Object[]>> claimed, Function<Collection<UUID>, Map<UUID, Object[]>> loader) {
+		long generation = region.getGeneration();  // Records invalidated while loading may be loaded stale
+		Map<UUID, Object[]> states;
+		try {
+			states = loader.apply(new ArrayList<>(claimed.keySet()));
+		} catch (RuntimeException e) {
+			claimed.forEach((key, load) -> {
+				region.loading.remove(key, load);
+				load.completeExceptionally(e);
+			});
+			throw e;
+		}
+		long now = ticker.getAsLong();
+		claimed.forEach((key, load) -> {
+			Object[] state = states.get(key);
+			if (state != null) region.put(key, state, now, generation);
+
+			region.loading.remove(key, load);
+			load.complete(state);
+		});
+		return states;
+	}
+
+	/**
+	 * Discards the cached record of a type with a key, if any.
+	 * @param type type of record
+	 * @param key key of record
+	 */
+	public void invalidate(Class<?> type, UUID key) {
+		Region region = regions.get(type);
+		if (region != null) region.remove(key);
+	}
+	/**
+	 * Discards all cached records of a type.
+	 * @param type type of records
+	 */
+	public void invalidate(Class<?> type) {
+		Region region = regions.get(type);
+		if (region != null) region.clear();
+	}
+	/** Discards all cached records. */
+	public void clear() {
+		for (Region region : regions.values()) {
+			region.clear();
+		}
+	}
+
+	/** @return number of currently cached records, including expired records not yet discarded */
+	public int size() {
+		int size = 0;
+		for (Region region : regions.values()) {
+			size += region.size();
+		}
+		return size;
+	}
+
+	/** @return number of record requests served by a cached record */
+	public long getHits() {
+		return hits.get();
+	}
+	/** @return number of record requests not served by a cached record */
+	public long getMisses() {
+		return misses.get();
+	}
+	/** @return number of records evicted from this cache to stay within region sizes */
+	public long getEvictions() {
+		long evictions = 0;
+		for (Region region : regions.values()) {
+			evictions += region.getEvictions();
+		}
+		return evictions;
+	}
+
+	@Override
+	public String toString() {
+		return "EntityCache{" +
+				"size=" + size() +
+				", hits=" + hits +
+				", misses=" + misses +
+				", evictions=" + getEvictions() +
+				'}';
+	}
+
+	/** Cached records of a single type */
+	private static final class Region {
+		private final int maxSize;
+		private final long ttl;
+		private final Map<UUID, Entry> entries = new LinkedHashMap<>(16, .75f, true);
+		private final Map<UUID, CompletableFuture<Object[]>> loading = new ConcurrentHashMap<>();
+		private long generation;
+		private long evictions;
+
+		Region(int maxSize, long ttl) {
+			this.maxSize = maxSize;
+			this.ttl = ttl;
+		}
+
+		synchronized Object[] get(UUID key, long now) {
+			Entry entry = entries.get(key);
+			if (entry == null) return null;
+
+			if (ttl > 0 && now - entry.cachedAt >= ttl) {
+				entries.remove(key);
+				return null;
+			}
+			return entry.state;
+		}
+		/**
+		 * Caches a record, unless any record was invalidated since {@code generation}.
+		 */
+		synchronized void put(UUID key, Object[] state, long now, long generation) {
+			if (generation != this.generation) return;
+
+			entries.put(key, new Entry(state, now));
+
+			for (Iterator<Entry> it = entries.values().iterator(); entries.size() > maxSize; ) {
+				it.next();
+				it.remove();
+				evictions++;
+			}
+		}
+
+		synchronized void remove(UUID key) {
+			entries.remove(key);
+			generation++;
+		}
+		synchronized void clear() {
+			entries.clear();
+			generation++;
+		}
+
+		synchronized long getGeneration() {
+			return generation;
+		}
+		synchronized int size() {
+			return entries.size();
+		}
+		synchronized long getEvictions() {
+			return evictions;
+		}
+	}
+	private static final class Entry {
+		private final Object[] state;
+		private final long cachedAt;
+
+		Entry(Object[] state, long cachedAt) {
+			this.state = state;
+			this.cachedAt = cachedAt;
+		}
+	}
+}
@@ -8,6 +8,10 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
 
 import static dev.kkorolyov.sqlob.util.UncheckedSqlException.wrapSqlException;
 
@@ -16,41 +20,112 @@ import static dev.kkorolyov.sqlob.util.UncheckedSqlException.wrapSqlException;
  */
 public class ExecutionContext implements AutoCloseable {
 	private final Connection connection;
+	private final Dialect dialect;
+	private final StatementCache statementCache;
+	private final BatchPolicy batchPolicy;
+	private final Session session;
+	private final Collection<Statement> statements = new ArrayList<>();
+	private DatabaseMetaData metaData;
 	private boolean closed;
 
 	/**
 	 * Constructs a new request context.
 	 * @param connection available connection
+	 * @param dialect dialect of {@code connection}'s database
+	 * @param statementCache cache of {@code connection}'s prepared statements
+	 * @param batchPolicy default thresholds for flushing batched writes
+	 * @param session session executing requests in this context, or {@code null} if none
 	 */
-	ExecutionContext(Connection connection) {
+	ExecutionContext(Connection connection, Dialect dialect, StatementCache statementCache, BatchPolicy batchPolicy, Session session) {
 		this.connection = connection;
+		this.dialect = dialect;
+		this.statementCache = statementCache;
+		this.batchPolicy = batchPolicy;
+		this.session = session;
 	}
 
 	/**
 	 * Generates and returns a statement.
+	 * The statement is open until released or this context is closed.
 	 * @return new statement
+	 * @see #release(Statement)
 	 */
 	public Statement generateStatement() {
 		verifyNotClosed();
 
-		return wrapSqlException((ThrowingSupplier<Statement, SQLException>) connection::createStatement);
+		Statement statement = wrapSqlException((ThrowingSupplier<Statement, SQLException>) connection::createStatement);
+		statements.add(statement);
+
+		return statement;
 	}
 	/**
-	 * Generates and returns a prepared statement.
+	 * Generates and returns a prepared statement, reusing a cached statement with the same SQL if available.
+	 * The statement is leased to the caller until released or this context is closed, and should not be closed by the caller.
 	 * @param sql statement SQL
 	 * @return statement prepared with {@code sql}
+	 * @see #release(Statement)
 	 */
 	public PreparedStatement generateStatement(String sql) {
 		verifyNotClosed();
 
-		return wrapSqlException(() -> connection.prepareStatement(sql));
+		PreparedStatement statement = wrapSqlException(() -> statementCache.prepare(connection, sql));
+		statements.add(statement);
+
+		return statement;
+	}
+	/**
+	 * Releases a statement generated by this context once it is no longer used.
+	 * Cached statements are returned to the cache, while all other statements are closed.
+	 * @param statement statement to release
+	 */
+	public void release(Statement statement) {
+		if (statements.remove(statement)) wrapSqlException(() -> statementCache.release(statement));
 	}
 
-	/** @return database metadata */
+	/** @return database metadata, retrieved once per context */
 	public DatabaseMetaData getMetadata() {
-		verifyNotClosed();
+		if (closed) throw new IllegalStateException("Context is closed");
 
-		return wrapSqlException(connection::getMetaData);
+		if (metaData == null) metaData = wrapSqlException(connection::getMetaData);
+		return metaData;
+	}
+	/** @return database dialect, resolved once per session */
+	public Dialect getDialect() {
+		return dialect;
+	}
+	/** @return default thresholds for flushing batched writes, set per session */
+	public BatchPolicy getBatchPolicy() {
+		return batchPolicy;
+	}
+	/** @return session executing requests in this context, which outlives this context, if any */
+	public Optional<Session> getSession() {
+		return Optional.ofNullable(session);
+	}
+	/** @return identity map of the session executing requests in this context, or {@code null} if none */
+	public IdentityMap getIdentityMap() {
+		return session != null ? session.getIdentityMap() : null;
+	}
+	/**
+	 * @param type type of records
+	 * @return entity cache of the session executing requests in this context to read and cache records of {@code type} in, or {@code null} if none
+	 */
+	public EntityCache getEntityCache(Class<?> type) {
+		return session != null ? session.getEntityCache(type) : null;
+	}
+	/**
+	 * Invalidates records written in this context in the executing session's entity cache, if any.
+	 * @param type type of written records
+	 * @param keys keys of written records
+	 */
+	public void invalidate(Class<?> type, Collection<UUID> keys) {
+		if (session != null) session.invalidate(type, keys);
+	}
+	/**
+	 * Invalidates all records of a type written in this context in the executing session's entity cache, if any.
+	 * @param type written type
+	 */
+	public void invalidate(Class<?> type) {
+		if (session != null) session.invalidate(type);
 	}
 
 	private void verifyNotClosed() {
@@ -58,8 +133,16 @@ public class ExecutionContext implements AutoCloseable {
 		if (closed) throw new IllegalStateException("Context is closed");
 	}
 
+	/**
+	 * Closes this context and releases all statements it generated which have not yet been released.
+	 */
 	@Override
 	public void close() {
 		closed = true;
+
+		wrapSqlException(() -> {
+			for (Statement statement : statements) statementCache.release(statement);
+		});
+		statements.clear();
 	}
 }
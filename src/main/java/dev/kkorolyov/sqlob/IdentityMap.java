@@ -0,0 +1,91 @@
+package dev.kkorolyov.sqlob;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks the keys of objects loaded or persisted within a {@link Session}.
+ * Each tracked object is the single instance representing its record, so repeat loads of the record resolve to the same instance, and writes of the instance to its known key.
+ * Objects are tracked by identity, not equality.
+ */
+public final class IdentityMap {
+	private final Map<Object, UUID> keys = new IdentityHashMap<>();
+	private final Map<Class<?>, Map<UUID, Object>> objects = new HashMap<>();
+
+	/**
+	 * @param instance instance to get key of
+	 * @return key of {@code instance}, or {@code null} if not tracked
+	 */
+	public UUID getKey(Object instance) {
+		return keys.get(instance);
+	}
+	/**
+	 * @param type type of tracked object
+	 * @param key key of tracked object
+	 * @param <T> tracked object type
+	 * @return object of {@code type} tracked with {@code key}, or {@code null} if none
+	 */
+	public <T> T get(Class<T> type, UUID key) {
+		Map<UUID, Object> typeObjects = objects.get(type);
+		return typeObjects != null ? (T) typeObjects.get(key) : null;
+	}
+
+	/**
+	 * Tracks an object, replacing any object of the same type tracked with the same key, and any key the object was tracked with.
+	 * @param key key of {@code instance}'s record
+	 * @param instance instance to track
+	 */
+	public void put(UUID key, Object instance) {
+		UUID oldKey = keys.put(instance, key);
+		Map<UUID, Object> typeObjects = objects.computeIfAbsent(instance.getClass(), k -> new HashMap<>());
+
+		if (oldKey != null && !oldKey.equals(key)) typeObjects.remove(oldKey);
+
+		Object oldInstance = typeObjects.put(key, instance);
+		if (oldInstance != null && oldInstance != instance) keys.remove(oldInstance);
+	}
+
+	/**
+	 * Stops tracking the object of a type with a key.
+	 * @param type type of tracked object
+	 * @param key key of tracked object
+	 */
+	public void remove(Class<?> type, UUID key) {
+		Map<UUID, Object> typeObjects = objects.get(type);
+		if (typeObjects == null) return;
+
+		Object instance = typeObjects.remove(key);
+		if (instance != null) keys.remove(instance);
+	}
+	/**
+	 * Stops tracking all objects of a type, such as when an unknown subset of their records was changed.
+	 * @param type type of tracked objects
+	 */
+	public void remove(Class<?> type) {
+		Map<UUID, Object> typeObjects = objects.remove(type);
+		if (typeObjects == null) return;
+
+		for (Object instance : typeObjects.values()) {
+			keys.remove(instance);
+		}
+	}
+	/** Stops tracking all objects */
+	public void clear() {
+		keys.clear();
+		objects.clear();
+	}
+
+	/** @return number of tracked objects */
+	public int size() {
+		return keys.size();
+	}
+
+	@Override
+	public String toString() {
+		return "IdentityMap{" +
+				"size=" + size() +
+				'}';
+	}
+}
@@ -0,0 +1,103 @@
+package dev.kkorolyov.sqlob;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Holds a reference to a persisted object which may not yet be loaded.
+ * A persistable field of type {@code Ref<T>} is persisted as a reference to a record of {@code T}, like a field of type {@code T}.
+ * Unlike such a field, it may be left unloaded by a {@link dev.kkorolyov.sqlob.request.FetchPlan}, in which case the referenced object is loaded through the owning session on first access, which must precede the session being closed.
+ * @param <T> referenced type
+ */
+public final class Ref<T> {
+	private final UUID key;
+	private volatile Supplier<T> loader;  // null once loaded
+	private T value;
+
+	/**
+	 * @param value referenced object
+	 * @param <T> referenced type
+	 * @return loaded reference to {@code value}, which is persisted when its referencing object is
+	 */
+	public static <T> Ref<T> of(T value) {
+		return new Ref<>(null, value, null);
+	}
+	/**
+	 * @param key key of referenced record
+	 * @param value referenced object
+	 * @param <T> referenced type
+	 * @return loaded reference to a persisted {@code value}
+	 */
+	public static <T> Ref<T> loaded(UUID key, T value) {
+		return new Ref<>(key, value, null);
+	}
+	/**
+	 * @param key key of referenced record
+	 * @param loader loads the referenced object; invoked at most once
+	 * @param <T> referenced type
+	 * @return reference to a persisted object, loaded on first access
+	 */
+	public static <T> Ref<T> lazy(UUID key, Supplier<T> loader) {
+		return new Ref<>(key, null, Objects.requireNonNull(loader));
+	}
+
+	private Ref(UUID key, T value, Supplier<T> loader) {
+		this.key = key;
+		this.value = value;
+		this.loader = loader;
+	}
+
+	/**
+	 * Returns the referenced object, loading it if not yet loaded.
+	 * @return referenced object, or {@code null} if the referenced record no longer exists
+	 * @throws IllegalStateException if loading requires a session which has since been closed, or if there is no session
+	 * @throws dev.kkorolyov.sqlob.util.UncheckedSqlException if a SQL issue occurs loading the referenced object
+	 */
+	public T get() {
+		if (loader != null) {
+			synchronized (this) {
+				Supplier<T> loader = this.loader;
+				if (loader != null) {
+					value = loader.get();
+					this.loader = null;
+				}
+			}
+		}
+		return value;
+	}
+
+	/** @return key of the referenced record, if persisted */
+	public Optional<UUID> getKey() {
+		return Optional.ofNullable(key);
+	}
+	/** @return whether the referenced object is loaded */
+	public boolean isLoaded() {
+		return loader == null;
+	}
+
+	/** References are equal if they reference the same persisted record, or if neither is persisted and they reference equal objects. */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		Ref<?> other = (Ref<?>) o;
+		return key != null || other.key != null
+				? Objects.equals(key, other.key)
+				: Objects.equals(value, other.value);
+	}
+	@Override
+	public int hashCode() {
+		return key != null ? key.hashCode() : Objects.hashCode(value);
+	}
+
+	@Override
+	public String toString() {
+		return "Ref{" +
+				"key=" + key +
+				", value=" + (isLoaded() ? value : "<unloaded>") +
+				'}';
+	}
+}
@@ -2,38 +2,88 @@ package dev.kkorolyov.sqlob;
 
 import dev.kkorolyov.simplefuncs.function.ThrowingRunnable;
 import dev.kkorolyov.sqlob.logging.Logger;
+import dev.kkorolyov.sqlob.request.AggregateRequest;
 import dev.kkorolyov.sqlob.request.CreateRequest;
 import dev.kkorolyov.sqlob.request.Request;
+import dev.kkorolyov.sqlob.request.SelectRequest;
+import dev.kkorolyov.sqlob.result.Record;
 import dev.kkorolyov.sqlob.result.Result;
 import dev.kkorolyov.sqlob.util.UncheckedSqlException;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import static dev.kkorolyov.sqlob.util.UncheckedSqlException.wrapSqlException;
 
 /**
  * Executes {@link Request}s using the current {@link Connection} of the associated {@link DataSource}.
+ * Objects loaded and persisted through a session are tracked in an {@link IdentityMap} until the session is closed or rolled back,
+ * so that repeat loads of a record return the same instance, and writes and deletes of tracked instances match by their known keys.
+ * Sessions may share an {@link EntityCache} of records selected by ID.
+ * Records written by a session are invalidated in its entity cache both when written and when its transaction ends, and are neither read from nor cached by the session in the meantime.
  */
 public class Session implements AutoCloseable {
 	private static final Logger LOG = Logger.getLogger(Session.class.getName());
+	private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
 
 	private final DataSource dataSource;
+	private final StatementCache statementCache;
+	private final BatchPolicy batchPolicy;
+	private final IdentityMap identityMap = new IdentityMap();
+	private final EntityCache entityCache;
+	private final Map<Class<?>, Set<UUID>> invalidated = new HashMap<>();  // null keys if all records of type
 	private Connection connection;
+	private Dialect dialect;
 
 	private int bufferCounter = 0;
+	private int generation = 0;
 
 	private final Set<Class<?>> prepared = new HashSet<>();
 
+	/**
+	 * Constructs a new session with the default statement cache size.
+	 * @see #Session(DataSource, int)
+	 */
+	public Session(DataSource dataSource) {
+		this(dataSource, DEFAULT_STATEMENT_CACHE_SIZE);
+	}
+	/**
+	 * Constructs a new session with the default batch policy.
+	 * @see #Session(DataSource, int, BatchPolicy)
+	 */
+	public Session(DataSource dataSource, int statementCacheSize) {
+		this(dataSource, statementCacheSize, BatchPolicy.DEFAULT);
+	}
+	/**
+	 * Constructs a new session without an entity cache.
+	 * @see #Session(DataSource, int, BatchPolicy, EntityCache)
+	 */
+	public Session(DataSource dataSource, int statementCacheSize, BatchPolicy batchPolicy) {
+		this(dataSource, statementCacheSize, batchPolicy, null);
+	}
 	/**
 	 * Constructs a new session.
 	 * @param dataSource datasource to SQL database
+	 * @param statementCacheSize maximum number of prepared statements to retain for reuse on the current connection; {@code 0} disables statement caching
+	 * @param batchPolicy thresholds for flushing batched writes of requests which do not specify their own
+	 * @param entityCache cache of records selected by ID, which may be shared with other sessions of the same datasource; {@code null} for none
+	 * @throws IllegalArgumentException if {@code statementCacheSize < 0}
 	 */
-	public Session(DataSource dataSource) {
+	public Session(DataSource dataSource, int statementCacheSize, BatchPolicy batchPolicy, EntityCache entityCache) {
 		this.dataSource = dataSource;
+		statementCache = new StatementCache(statementCacheSize);
+		this.batchPolicy = batchPolicy;
+		this.entityCache = entityCache;
 	}
 
 	/**
@@ -56,10 +106,7 @@ public class Session implements AutoCloseable {
 	 */
 	public <T> Result<T> execute(Request<T> request) {
 		try (ExecutionContext context = startTransaction()) {
-			if (!prepared.contains(request.getType())) {
-				create(request.getType()).execute(context);
-				prepared.add(request.getType());
-			}
+			prepare(request.getType(), context);
 			Result<T> result = request.execute(context);
 
 			endTransaction();
@@ -67,6 +114,60 @@ public class Session implements AutoCloseable {
 			return result;
 		}
 	}
+	/**
+	 * Executes a select request lazily using an available connection.
+	 * Records are fetched and decoded as the returned stream is consumed.
+	 * Streamed objects are not tracked by this session's {@link IdentityMap}, though already tracked objects are streamed as their tracked instances.
+	 * The stream must be closed, preferably using try-with-resources, to release its result set; it must be closed before this session is closed.
+	 * <pre>
+	 *   try (Stream&lt;Record&lt;UUID, Foo&gt;&gt; records = session.stream(new SelectRequest&lt;&gt;(Foo.class, where))) {
+	 *     records.forEach(...);
+	 *   }
+	 * </pre>
+	 * @param request select request to execute
+	 * @param <T> request target type
+	 * @return ordered stream over selected records
+	 * @throws UncheckedSqlException if a SQL issue occurs
+	 * @see SelectRequest#stream(ExecutionContext)
+	 */
+	public <T> Stream<Record<UUID, T>> stream(SelectRequest<T> request) {
+		ExecutionContext context = startTransaction();
+		try {
+			prepare(request.getType(), context);
+
+			return request.stream(context)
+					.onClose(() -> {
+						context.close();
+						endTransaction();
+					});
+		} catch (RuntimeException e) {
+			context.close();
+			throw e;
+		}
+	}
+	/**
+	 * Evaluates an aggregate request using an available connection.
+	 * @param request aggregate request to execute
+	 * @return a row of grouping values followed by aggregate values for each group
+	 * @throws UncheckedSqlException if a SQL issue occurs
+	 * @see AggregateRequest#aggregate(ExecutionContext)
+	 */
+	public List<Object[]> aggregate(AggregateRequest<?> request) {
+		try (ExecutionContext context = startTransaction()) {
+			prepare(request.getType(), context);
+			List<Object[]> rows = request.aggregate(context);
+
+			endTransaction();
+
+			return rows;
+		}
+	}
+	private void prepare(Class<?> c, ExecutionContext context) {
+		if (!prepared.contains(c)) {
+			create(c).execute(context);
+			prepared.add(c);
+		}
+	}
 	private ExecutionContext startTransaction() {
 		if (connection == null) {
 			connection = wrapSqlException(() -> {
@@ -75,17 +176,81 @@ public class Session implements AutoCloseable {
 				return conn;
 			});
 		}
-		return new ExecutionContext(connection);
+		if (dialect == null) {  // Same for all connections of a datasource
+			dialect = wrapSqlException(() -> {
+				DatabaseMetaData metaData = connection.getMetaData();
+				return Dialect.of(metaData.getDatabaseProductName(), metaData.getDatabaseProductVersion());
+			});
+		}
+
+		return new ExecutionContext(connection, dialect, statementCache, batchPolicy, this);
 	}
 	private void endTransaction() {
 		bufferCounter++;
 	}
 
+	/** @return identity map tracking objects loaded and persisted by this session until it is closed or rolled back */
+	IdentityMap getIdentityMap() {
+		return identityMap;
+	}
+
+	/**
+	 * @param type type of records
+	 * @return entity cache to read and cache records of {@code type} in, or {@code null} if none, or if this session has written records of {@code type} in its current transaction
+	 */
+	EntityCache getEntityCache(Class<?> type) {
+		return entityCache != null && entityCache.isCached(type) && !invalidated.containsKey(type) ? entityCache : null;
+	}
+	/**
+	 * Invalidates written records in this session's entity cache, and again when the current transaction ends.
+	 * @param type type of written records
+	 * @param keys keys of written records
+	 */
+	void invalidate(Class<?> type, Collection<UUID> keys) {
+		if (entityCache == null || !entityCache.isCached(type)) return;
+
+		for (UUID key : keys) {
+			entityCache.invalidate(type, key);
+		}
+		if (!invalidated.containsKey(type)) invalidated.put(type, new HashSet<>());
+
+		Set<UUID> typeKeys = invalidated.get(type);
+		if (typeKeys != null) typeKeys.addAll(keys);
+	}
+	/**
+	 * Invalidates all records of a written type in this session's entity cache, and again when the current transaction ends.
+	 * @param type written type
+	 */
+	void invalidate(Class<?> type) {
+		if (entityCache == null || !entityCache.isCached(type)) return;
+
+		entityCache.invalidate(type);
+		invalidated.put(type, null);
+	}
+	/** Invalidates records written in the current transaction, which other sessions may have cached before it ended */
+	private void endCacheTransaction() {
+		if (entityCache != null) {
+			invalidated.forEach((type, keys) -> {
+				if (keys == null) {
+					entityCache.invalidate(type);
+				} else {
+					for (UUID key : keys) {
+						entityCache.invalidate(type, key);
+					}
+				}
+			});
+		}
+		invalidated.clear();
+	}
+
 	/**
 	 * Rolls back the current transaction.
 	 * @throws UncheckedSqlException if a SQL issue occurs
 	 */
 	public void rollback() {
+		identityMap.clear();  // Tracked objects may no longer match their records
+		endCacheTransaction();
+
 		if (connection != null) {
 			wrapSqlException((ThrowingRunnable<SQLException>) connection::rollback);
 
@@ -96,22 +261,42 @@ public class Session implements AutoCloseable {
 	}
 
 	/**
-	 * Commits buffered transactions and resets the buffer counter.
+	 * Commits buffered transactions, resets the buffer counter, and stops tracking all loaded and persisted objects.
 	 * @throws UncheckedSqlException if a SQL issue occurs
 	 */
 	@Override
 	public void close() {
+		generation++;
+		identityMap.clear();
+
 		if (connection != null) {
 			wrapSqlException(() -> {
 				connection.commit();
+				statementCache.clear();
 				connection.close();
 				connection = null;
 
 				LOG.info("Committed {} transactions", bufferCounter);
+				LOG.debug("Statement cache: {}", statementCache);
 
 				bufferCounter = 0;
 			});
 		}
+		endCacheTransaction();
+	}
+
+	/**
+	 * Returns the number of times this session has been closed.
+	 * State handed out by a session before it is closed, such as lazy references, is bound to the generation it was created in and is no longer valid after.
+	 * @return current generation of this session
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/** @return cache of prepared statements on the current connection; retains hit and miss counts across connections */
+	public StatementCache getStatementCache() {
+		return statementCache;
 	}
 
 	@Override
@@ -119,7 +304,12 @@ public class Session implements AutoCloseable {
 		return "Session{" +
 				"dataSource=" + dataSource +
 				", connection=" + connection +
+				", dialect=" + dialect +
+				", statementCache=" + statementCache +
+				", batchPolicy=" + batchPolicy +
+				", entityCache=" + entityCache +
 				", bufferCounter=" + bufferCounter +
+				", generation=" + generation +
 				", prepared=" + prepared +
 				'}';
 	}
@@ -0,0 +1,150 @@
+package dev.kkorolyov.sqlob;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of prepared statements of a single connection, keyed by SQL.
+ * Cached statements are leased to one user at a time; a statement requested while its cached instance is leased is prepared anew and closed on release.
+ * When full, evicts and closes the least-recently used statement.
+ * Not thread-safe.
+ */
+public final class StatementCache {
+	private final int capacity;
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, .75f, true);
+	private final Map<Statement, Entry> leased = new IdentityHashMap<>();
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Constructs a new statement cache.
+	 * @param capacity maximum number of cached statements; {@code 0} disables caching
+	 * @throws IllegalArgumentException if {@code capacity < 0}
+	 */
+	public StatementCache(int capacity) {
+		if (capacity < 0) throw new IllegalArgumentException("Capacity must be >= 0: " + capacity);
+
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Leases a prepared statement.
+	 * @param connection connection to prepare statement on if not cached
+	 * @param sql statement SQL
+	 * @return statement prepared with {@code sql}, leased until {@link #release(Statement)}
+	 * @throws SQLException if a SQL issue occurs
+	 */
+	PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+		Entry entry = entries.get(sql);
+
+		if (entry != null && entry.leased) {  // In use, e.g. by a request nested in the request using it
+			misses++;
+			return connection.prepareStatement(sql);
+		}
+		if (entry != null) {
+			hits++;
+		} else {
+			misses++;
+			entry = new Entry(connection.prepareStatement(sql));
+			entries.put(sql, entry);
+		}
+		entry.leased = true;
+		leased.put(entry.statement, entry);
+
+		evict();
+
+		return entry.statement;
+	}
+	/**
+	 * Releases a statement leased from this cache.
+	 * Closes the statement if it is not retained in this cache.
+	 * @param statement leased statement
+	 * @throws SQLException if a SQL issue occurs
+	 */
+	void release(Statement statement) throws SQLException {
+		Entry entry = leased.remove(statement);
+
+		if (entry == null || entry.evicted) {
+			statement.close();
+		} else {
+			entry.leased = false;
+			entry.statement.clearParameters();
+			entry.statement.clearBatch();
+		}
+	}
+
+	/**
+	 * Evicts and closes all cached statements.
+	 * Leased statements are closed on release.
+	 * @throws SQLException if a SQL issue occurs
+	 */
+	void clear() throws SQLException {
+		for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+			discard(it.next());
+			it.remove();
+		}
+	}
+
+	private void evict() throws SQLException {
+		for (Iterator<Entry> it = entries.values().iterator(); entries.size() > capacity; ) {
+			discard(it.next());
+			it.remove();
+			evictions++;
+		}
+	}
+	private void discard(Entry entry) throws SQLException {
+		if (entry.leased) entry.evicted = true;
+		else entry.statement.close();
+	}
+
+	/** @return maximum number of cached statements */
+	public int getCapacity() {
+		return capacity;
+	}
+	/** @return number of currently cached statements */
+	public int size() {
+		return entries.size();
+	}
+
+	/** @return number of statement requests served by a cached statement */
+	public long getHits() {
+		return hits;
+	}
+	/** @return number of statement requests which prepared a new statement */
+	public long getMisses() {
+		return misses;
+	}
+	/** @return number of statements evicted from this cache */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	@Override
+	public String toString() {
+		return "StatementCache{" +
+				"capacity=" + capacity +
+				", size=" + entries.size() +
+				", hits=" + hits +
+				", misses=" + misses +
+				", evictions=" + evictions +
+				'}';
+	}
+
+	private static final class Entry {
+		private final PreparedStatement statement;
+		private boolean leased;
+		private boolean evicted;
+
+		Entry(PreparedStatement statement) {
+			this.statement = statement;
+		}
+	}
+}
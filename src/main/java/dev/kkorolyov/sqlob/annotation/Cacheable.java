@@ -0,0 +1,22 @@
+package dev.kkorolyov.sqlob.annotation;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marks a class as cached by any {@link dev.kkorolyov.sqlob.EntityCache} of the sessions it is loaded through.
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+public @interface Cacheable {
+	/** @return maximum number of cached records of the annotated class */
+	int maxSize() default 1024;
+	/** @return time a cached record of the annotated class remains valid after being cached, in {@link #unit()}s; {@code 0} for no expiry */
+	long ttl() default 0;
+	/** @return unit of {@link #ttl()} */
+	TimeUnit unit() default TimeUnit.SECONDS;
+}
@@ -1,5 +1,6 @@
 package dev.kkorolyov.sqlob.column;
 
+import dev.kkorolyov.sqlob.Dialect;
 import dev.kkorolyov.sqlob.ExecutionContext;
 import dev.kkorolyov.sqlob.result.ConfigurableRecord;
 import dev.kkorolyov.sqlob.result.Record;
@@ -20,6 +21,7 @@ public abstract class Column<T> {
 	// TODO Use struct.Column
 	private final String name;
 	private final SqlobType<T> sqlobType;
+	private volatile Binding<T> binding;
 
 	/**
 	 * Constructs a new column.
@@ -37,7 +39,7 @@ public abstract class Column<T> {
 	 * @return resolved representation of {@code value} in the current context
 	 */
 	public Object resolve(Object value, ExecutionContext context) {
-		return getSqlobType().get(context.getMetadata(), (T) value);
+		return getSqlobType(context).get(context.getMetadata(), (T) value);
 	}
 
 	/**
@@ -51,19 +53,21 @@ public abstract class Column<T> {
 	 * Sets this column's associated value in a result set on a record.
 	 * @param record record to update
 	 * @param rs result set to get value from
+	 * @param column index of this column in {@code rs}, starting from {@code 1}
 	 * @param context context to work in
 	 * @return {@code record}
 	 */
-	public abstract <O> ConfigurableRecord<UUID, O> set(ConfigurableRecord<UUID, O> record, ResultSet rs, ExecutionContext context);
+	public abstract <O> ConfigurableRecord<UUID, O> set(ConfigurableRecord<UUID, O> record, ResultSet rs, int column, ExecutionContext context);
 
 	/**
 	 * @param rs result set to extract from
+	 * @param column index of this column in {@code rs}, starting from {@code 1}
 	 * @param context context to work in
 	 * @return object value extracted from the associated column in {@code rs}
 	 * @throws dev.kkorolyov.sqlob.util.UncheckedSqlException if a SQL issue occurs
 	 */
-	public T get(ResultSet rs, ExecutionContext context) {
-		return getSqlobType().get(context.getMetadata(), rs, getName());
+	public T get(ResultSet rs, int column, ExecutionContext context) {
+		return getSqlobType(context).get(context.getMetadata(), rs, column);
 	}
 
 	/**
@@ -71,7 +75,7 @@ public abstract class Column<T> {
 	 * @return SQL representation of this column within {@code context}
 	 */
 	public String getSql(ExecutionContext context) {
-		return getName() + " " + getSqlobType().getSqlType(context.getMetadata());
+		return getName() + " " + getSqlobType(context).getSqlType(context.getMetadata());
 	}
 
 	/**
@@ -90,6 +94,32 @@ public abstract class Column<T> {
 	public final SqlobType<T> getSqlobType() {
 		return sqlobType;
 	}
+	/**
+	 * Returns this column's SQLOb type bound to the dialect of a context.
+	 * The bound SQLOb type is resolved once and retained until this column is used with a different dialect.
+	 * @param context context to work in
+	 * @return column SQLOb type bound to {@code context}'s dialect
+	 * @see SqlobType#bind(String)
+	 */
+	public final SqlobType<T> getSqlobType(ExecutionContext context) {
+		Dialect dialect = context.getDialect();
+
+		Binding<T> binding = this.binding;
+		if (binding == null || !binding.dialect.equals(dialect)) {
+			this.binding = binding = new Binding<>(dialect, sqlobType.bind(dialect.getName()));
+		}
+		return binding.sqlobType;
+	}
+
+	private static final class Binding<T> {
+		private final Dialect dialect;
+		private final SqlobType<T> sqlobType;
+
+		Binding(Dialect dialect, SqlobType<T> sqlobType) {
+			this.dialect = dialect;
+			this.sqlobType = sqlobType;
+		}
+	}
 
 	@Override
 	public boolean equals(Object o) {
@@ -3,9 +3,10 @@ package dev.kkorolyov.sqlob.column;
 import dev.kkorolyov.sqlob.ExecutionContext;
 import dev.kkorolyov.sqlob.result.ConfigurableRecord;
 import dev.kkorolyov.sqlob.result.Record;
+import dev.kkorolyov.sqlob.type.PrimitiveSqlobType;
 import dev.kkorolyov.sqlob.type.SqlobType;
+import dev.kkorolyov.sqlob.util.FieldAccessor;
 import dev.kkorolyov.sqlob.util.PersistenceHelper;
-import dev.kkorolyov.sqlob.util.ReflectionHelper;
 
 import java.lang.reflect.Field;
 import java.sql.ResultSet;
@@ -17,6 +18,7 @@ import java.util.UUID;
  */
 public class FieldBackedColumn<T> extends Column<T> {
 	private final Field f;
+	private final FieldAccessor accessor;
 
 	/**
 	 * Constructs a new field-backed column.
@@ -24,17 +26,36 @@ public class FieldBackedColumn<T> extends Column<T> {
 	 * @param sqlobType column SQLOb type
 	 */
 	public FieldBackedColumn(Field f, SqlobType<T> sqlobType) {
-		super(PersistenceHelper.getName(f), sqlobType);
+		this(f, PersistenceHelper.getName(f), sqlobType);
+	}
+	/**
+	 * Constructs a new field-backed column with a known name.
+	 * @param f associated field
+	 * @param name column name
+	 * @param sqlobType column SQLOb type
+	 */
+	public FieldBackedColumn(Field f, String name, SqlobType<T> sqlobType) {
+		super(name, sqlobType);
 		this.f = f;
+		accessor = new FieldAccessor(f);
 	}
 
 	@Override
 	public Object get(Record<UUID, ?> record, ExecutionContext context) {
-		return getSqlobType().get(context.getMetadata(), (T) ReflectionHelper.getValue(record.getObject(), f));
+		return getSqlobType(context).get(context.getMetadata(), (T) accessor.get(record.getObject()));
 	}
+	/**
+	 * If the associated field is primitive and this column's SQLOb type is a matching {@link PrimitiveSqlobType}, transfers the result set value to the field without boxing.
+	 */
 	@Override
-	public <O> ConfigurableRecord<UUID, O> set(ConfigurableRecord<UUID, O> record, ResultSet rs, ExecutionContext context) {
-		ReflectionHelper.setValue(record.getObject(), getField(), get(rs, context));
+	public <O> ConfigurableRecord<UUID, O> set(ConfigurableRecord<UUID, O> record, ResultSet rs, int column, ExecutionContext context) {
+		SqlobType<T> sqlobType = getSqlobType(context);
+
+		if (sqlobType instanceof PrimitiveSqlobType && ((PrimitiveSqlobType<T>) sqlobType).getPrimitiveType() == f.getType()) {
+			((PrimitiveSqlobType<T>) sqlobType).transfer(context.getMetadata(), rs, column, accessor, record.getObject());
+		} else {
+			accessor.set(record.getObject(), sqlobType.get(context.getMetadata(), rs, column));
+		}
 
 		return record;
 	}
@@ -43,6 +64,10 @@ public class FieldBackedColumn<T> extends Column<T> {
 	public final Field getField() {
 		return f;
 	}
+	/** @return accessor of associated field */
+	public final FieldAccessor getAccessor() {
+		return accessor;
+	}
 	/** @return associated field's type */
 	public final Class<?> getType() {
 		return f.getType();
@@ -65,10 +65,10 @@ public abstract class KeyColumn extends Column<UUID> {
 
 	@Override
 	public Object get(Record<UUID, ?> record, ExecutionContext context) {
-		return getSqlobType().get(context.getMetadata(), record.getKey());
+		return getSqlobType(context).get(context.getMetadata(), record.getKey());
 	}
 	@Override
-	public <O> ConfigurableRecord<UUID, O> set(ConfigurableRecord<UUID, O> record, ResultSet rs, ExecutionContext context) {
-		return record.setKey(get(rs, context));
+	public <O> ConfigurableRecord<UUID, O> set(ConfigurableRecord<UUID, O> record, ResultSet rs, int column, ExecutionContext context) {
+		return record.setKey(get(rs, column, context));
 	}
 }
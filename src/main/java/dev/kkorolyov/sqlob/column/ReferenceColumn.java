@@ -0,0 +1,43 @@
+package dev.kkorolyov.sqlob.column;
+
+import dev.kkorolyov.sqlob.ExecutionContext;
+
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * A column persisting a reference to a record of another type by its key.
+ * Allows referenced objects to be loaded for many rows at once, or left unloaded, rather than loaded by a query per row.
+ */
+public interface ReferenceColumn {
+	/** @return referencing field */
+	Field getField();
+	/** @return referenced type */
+	Class<?> getReferencedType();
+
+	/**
+	 * @param rs result set to extract from
+	 * @param column index of this column in {@code rs}, starting from {@code 1}
+	 * @param context context to work in
+	 * @return key of the record referenced by the current row of {@code rs}, or {@code null} if none
+	 * @throws dev.kkorolyov.sqlob.util.UncheckedSqlException if a SQL issue occurs
+	 */
+	UUID getKey(ResultSet rs, int column, ExecutionContext context);
+
+	/**
+	 * Sets a loaded reference on an object.
+	 * @param instance referencing object
+	 * @param key key of the referenced record
+	 * @param referenced referenced object, or {@code null} if the referenced record does not exist
+	 */
+	void setLoaded(Object instance, UUID key, Object referenced);
+	/**
+	 * Sets an unloaded reference on an object, if the referencing field can hold one.
+	 * @param instance referencing object
+	 * @param key key of the referenced record
+	 * @param loader loads the referenced object on first access
+	 */
+	void setLazy(Object instance, UUID key, Supplier<?> loader);
+}
@@ -13,6 +13,16 @@ public interface ColumnHandler {
 	 * @return column associated with {@code f}
 	 */
 	FieldBackedColumn<?> get(Field f);
+	/**
+	 * Provisions a column with a name already known, such as from a generated {@link dev.kkorolyov.sqlob.descriptor.Mapper}.
+	 * Handlers which do not override this method name columns as {@link #get(Field)} does.
+	 * @param f field to wrap
+	 * @param name name of column
+	 * @return column associated with {@code f}
+	 */
+	default FieldBackedColumn<?> get(Field f, String name) {
+		return get(f);
+	}
 	/**
 	 * @param f field to test
 	 * @return whether this handler accepts field {@code f}
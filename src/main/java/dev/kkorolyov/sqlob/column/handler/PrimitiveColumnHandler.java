@@ -16,6 +16,10 @@ public class PrimitiveColumnHandler implements ColumnHandler {
 		return new FieldBackedColumn<>(f, SqlobTypeFactory.get(f.getType()));
 	}
 	@Override
+	public FieldBackedColumn<?> get(Field f, String name) {
+		return new FieldBackedColumn<>(f, name, SqlobTypeFactory.get(f.getType()));
+	}
+	@Override
 	public boolean accepts(Field f) {
 		return SqlobTypeFactory.poll(f.getType()).isPresent();
 	}
@@ -1,18 +1,24 @@
 package dev.kkorolyov.sqlob.column.handler;
 
 import dev.kkorolyov.sqlob.ExecutionContext;
+import dev.kkorolyov.sqlob.IdentityMap;
+import dev.kkorolyov.sqlob.Ref;
 import dev.kkorolyov.sqlob.column.FieldBackedColumn;
 import dev.kkorolyov.sqlob.column.KeyColumn;
+import dev.kkorolyov.sqlob.column.ReferenceColumn;
 import dev.kkorolyov.sqlob.column.handler.factory.ColumnHandlerFactory;
-import dev.kkorolyov.sqlob.request.CreateRequest;
+import dev.kkorolyov.sqlob.descriptor.TypeDescriptor;
+import dev.kkorolyov.sqlob.descriptor.factory.TypeDescriptorFactory;
 import dev.kkorolyov.sqlob.request.InsertRequest;
 import dev.kkorolyov.sqlob.request.SelectRequest;
+import dev.kkorolyov.sqlob.result.ConfigurableRecord;
 import dev.kkorolyov.sqlob.result.Record;
 import dev.kkorolyov.sqlob.struct.Table;
 import dev.kkorolyov.sqlob.util.PersistenceHelper;
-import dev.kkorolyov.sqlob.util.ReflectionHelper;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.sql.ResultSet;
 import java.util.ArrayDeque;
 import java.util.Collection;
@@ -20,17 +26,20 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Handles fields mapped to foreign-key columns.
  * Accepts all types not accepted by any other column handler.
+ * Fields of type {@link Ref} reference records of their type argument.
  */
 public class ReferencingColumnHandler implements ColumnHandler {
-	private final Map<String, Collection<CreateRequest<?>>> prerequisites = new HashMap<>();
+	private final Map<Class<?>, Collection<TypeDescriptor<?>>> prerequisites = new ConcurrentHashMap<>();
 
 	SelectRequest<?> select(Object value) {
-		return new SelectRequest<>(value);
+		return new SelectRequest<>(value).keysOnly();
 	}
 	<T> SelectRequest<T> select(Class<T> c, UUID id) {
 		return new SelectRequest<>(c, id);
@@ -39,10 +48,17 @@ public class ReferencingColumnHandler implements ColumnHandler {
 	InsertRequest<?> insert(Object instance) {
 		return new InsertRequest<>(instance);
 	}
+	InsertRequest<?> insert(UUID id, Object instance) {
+		return new InsertRequest<>(id, instance);
+	}
 
 	@Override
 	public FieldBackedColumn<?> get(Field f) {
-		return new ReferencingColumn(f);
+		return new ReferencingColumn(f, PersistenceHelper.getName(f));
+	}
+	@Override
+	public FieldBackedColumn<?> get(Field f, String name) {
+		return new ReferencingColumn(f, name);
 	}
 	@Override
 	public boolean accepts(Field f) {
@@ -51,34 +67,53 @@ public class ReferencingColumnHandler implements ColumnHandler {
 				.noneMatch(columnHandler -> columnHandler.accepts(f));
 	}
 
-	private Collection<CreateRequest<?>> buildPrerequisites(Class<?> c) {
-		Map<Class<?>, CreateRequest<?>> requests = new HashMap<>();
-		Queue<CreateRequest<?>> requestQueue = new ArrayDeque<>();
+	private Collection<TypeDescriptor<?>> buildPrerequisites(Class<?> c) {
+		Map<Class<?>, TypeDescriptor<?>> descriptors = new HashMap<>();
+		Queue<Class<?>> typeQueue = new ArrayDeque<>();
 
-		for (CreateRequest<?> request = new CreateRequest<>(c); request != null; request = requestQueue.poll()) {
-			Class<?> requestType = request.getType();
-			requests.put(requestType, request);
+		for (Class<?> type = c; type != null; type = typeQueue.poll()) {
+			TypeDescriptor<?> descriptor = TypeDescriptorFactory.get(type);
+			descriptors.put(type, descriptor);
 
-			request.streamColumns(ReferencingColumn.class)
-					.map(ReferencingColumn::getType)
-					.filter(referencedType -> !requests.containsKey(referencedType))
-					.map(CreateRequest::new)
-					.forEach(requestQueue::add);
+			descriptor.streamColumns(ReferencingColumn.class)
+					.map(ReferencingColumn::getReferencedType)
+					.filter(referencedType -> !descriptors.containsKey(referencedType))
+					.forEach(typeQueue::add);
 		}
-		return requests.values();
+		return descriptors.values();
 	}
 
-	private class ReferencingColumn extends FieldBackedColumn<Object> {
+	private class ReferencingColumn extends FieldBackedColumn<Object> implements ReferenceColumn {
+		private final boolean holdsRef;
+		private final Class<?> referencedType;
 		private final KeyColumn keyDelegate;
 
-		ReferencingColumn(Field f) {
+		ReferencingColumn(Field f, String name) {
 			// Relies on delegate
-			super(f, null);
-			this.keyDelegate = KeyColumn.foreign(PersistenceHelper.getName(f), PersistenceHelper.getName(f.getType()));
+			super(f, name, null);
+			holdsRef = Ref.class.equals(f.getType());
+			referencedType = holdsRef ? getRefType(f) : f.getType();
+			this.keyDelegate = KeyColumn.foreign(name, PersistenceHelper.getName(referencedType));
+		}
+		private Class<?> getRefType(Field f) {
+			Type type = f.getGenericType();
+			Type typeArgument = type instanceof ParameterizedType ? ((ParameterizedType) type).getActualTypeArguments()[0] : null;
+			if (!(typeArgument instanceof Class)) throw new IllegalArgumentException(f + " must declare a class as its referenced type");
+
+			return (Class<?>) typeArgument;
 		}
 
 		@Override
 		public Object resolve(Object value, ExecutionContext context) {
+			if (value instanceof Ref) {
+				Ref<?> ref = (Ref<?>) value;
+				if (ref.getKey().isPresent()) return ref.getKey().get();
+
+				value = ref.get();
+			}
+			UUID trackedKey = getTrackedKey(value, context);
+			if (trackedKey != null) return trackedKey;
+
 			return value != null
 					? select(value)
 					.execute(context)
@@ -86,22 +121,74 @@ public class ReferencingColumnHandler implements ColumnHandler {
 					: null;
 		}
 
+		/**
+		 * Persists the referenced object, unless referenced by an unloaded {@link Ref}, or tracked by the executing session, both of which are already persisted.
+		 * An object referenced by a loaded {@link Ref} with a key is persisted under that key.
+		 */
 		@Override
 		public Object get(Record<UUID, ?> record, ExecutionContext context) {
-			UUID referencedId = insert(ReflectionHelper.getValue(record.getObject(), getField()))
-					.execute(context)
-					.getKey()
-					.orElseThrow(() -> new IllegalStateException("This should never happen"));
+			Object value = getAccessor().get(record.getObject());
+
+			UUID referencedId;
+			if (value instanceof Ref && !((Ref<?>) value).isLoaded()) {
+				referencedId = ((Ref<?>) value).getKey()
+						.orElseThrow(() -> new IllegalStateException("This should never happen"));
+			} else {
+				Object referenced = value instanceof Ref ? ((Ref<?>) value).get() : value;
+				if (referenced == null) return null;
+
+				referencedId = getTrackedKey(referenced, context);
+				if (referencedId == null) {
+					UUID refKey = value instanceof Ref ? ((Ref<?>) value).getKey().orElse(null) : null;
+
+					referencedId = (refKey != null ? insert(refKey, referenced) : insert(referenced))
+							.execute(context)
+							.getKey()
+							.orElseThrow(() -> new IllegalStateException("This should never happen"));
+				}
+			}
+			return keyDelegate.getSqlobType(context).get(context.getMetadata(), referencedId);
+		}
 
-			return keyDelegate.getSqlobType().get(context.getMetadata(), referencedId);
+		private UUID getTrackedKey(Object value, ExecutionContext context) {
+			IdentityMap identities = value != null ? context.getIdentityMap() : null;
+			return identities != null ? identities.getKey(value) : null;
 		}
 
 		@Override
-		public Object get(ResultSet rs, ExecutionContext context) {
-			return select(getType(), keyDelegate.get(rs, context))
+		public Object get(ResultSet rs, int column, ExecutionContext context) {
+			UUID key = getKey(rs, column, context);
+			if (key == null) return null;
+
+			Object referenced = select(referencedType, key)
 					.execute(context)
 					.getObject()
 					.orElse(null);
+			return holdsRef ? Ref.loaded(key, referenced) : referenced;
+		}
+		@Override
+		public <O> ConfigurableRecord<UUID, O> set(ConfigurableRecord<UUID, O> record, ResultSet rs, int column, ExecutionContext context) {
+			getAccessor().set(record.getObject(), get(rs, column, context));
+
+			return record;
+		}
+
+		@Override
+		public Class<?> getReferencedType() {
+			return referencedType;
+		}
+		@Override
+		public UUID getKey(ResultSet rs, int column, ExecutionContext context) {
+			return keyDelegate.get(rs, column, context);
+		}
+
+		@Override
+		public void setLoaded(Object instance, UUID key, Object referenced) {
+			getAccessor().set(instance, holdsRef ? Ref.loaded(key, referenced) : referenced);
+		}
+		@Override
+		public void setLazy(Object instance, UUID key, Supplier<?> loader) {
+			if (holdsRef) getAccessor().set(instance, Ref.lazy(key, loader));
 		}
 
 		@Override
@@ -111,9 +198,9 @@ public class ReferencingColumnHandler implements ColumnHandler {
 
 		@Override
 		public Collection<Table> getPrerequisites(ExecutionContext context) {
-			return prerequisites.computeIfAbsent(getName(), k -> buildPrerequisites(getType()))
+			return prerequisites.computeIfAbsent(referencedType, ReferencingColumnHandler.this::buildPrerequisites)
 					.stream()
-					.map(request -> request.toTable(context))
+					.map(descriptor -> descriptor.toTable(context))
 					.collect(Collectors.toSet());
 		}
 	}
@@ -4,14 +4,21 @@ import dev.kkorolyov.simplefiles.Providers;
 import dev.kkorolyov.sqlob.column.handler.ColumnHandler;
 
 import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Provides for retrieval of {@link ColumnHandler}s by accepted field.
+ * Resolved column handlers are cached per field.
  */
 public final class ColumnHandlerFactory {
 	private static final Providers<ColumnHandler> COLUMN_HANDLERS = Providers.fromConfig(ColumnHandler.class);
+	private static volatile Index index;
 
 	private ColumnHandlerFactory() {}
 
@@ -21,11 +28,45 @@ public final class ColumnHandlerFactory {
 	 * @throws NoSuchElementException if no column handler accepts {@code f}
 	 */
 	public static ColumnHandler get(Field f) {
-		return COLUMN_HANDLERS.get(columnHandler -> columnHandler.accepts(f));
+		Index index = getIndex();
+
+		Optional<ColumnHandler> columnHandler = index.resolved.get(f);
+		if (columnHandler == null) {
+			columnHandler = index.columnHandlers.stream()
+					.filter(handler -> handler.accepts(f))
+					.findFirst();
+			// Handlers may resolve other fields while testing acceptance
+			Optional<ColumnHandler> existing = index.resolved.putIfAbsent(f, columnHandler);
+			if (existing != null) columnHandler = existing;
+		}
+		return columnHandler
+				.orElseThrow(() -> new NoSuchElementException("No column handler accepts: " + f));
 	}
 
 	/** @return stream over all column factories */
 	public static Stream<ColumnHandler> stream() {
-		return COLUMN_HANDLERS.stream();
+		return getIndex().columnHandlers.stream();
+	}
+
+	private static Index getIndex() {
+		Index index = ColumnHandlerFactory.index;
+		if (index == null || index.providers != COLUMN_HANDLERS) ColumnHandlerFactory.index = index = new Index(COLUMN_HANDLERS);  // Providers may be replaced
+
+		return index;
+	}
+
+	/**
+	 * Snapshot of all provided column handlers and their resolutions.
+	 */
+	private static final class Index {
+		private final Providers<ColumnHandler> providers;
+		private final List<ColumnHandler> columnHandlers;
+		private final Map<Field, Optional<ColumnHandler>> resolved = new ConcurrentHashMap<>();
+
+		Index(Providers<ColumnHandler> providers) {
+			this.providers = providers;
+			columnHandlers = providers.stream()
+					.collect(Collectors.toList());
+		}
 	}
 }
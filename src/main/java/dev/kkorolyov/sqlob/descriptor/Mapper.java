@@ -0,0 +1,44 @@
+package dev.kkorolyov.sqlob.descriptor;
+
+import java.util.List;
+
+/**
+ * Reflection-free persistence metadata and field access of a single persisted class.
+ * Implementations are generated at compile time by the optional {@code sqlob-processor} annotation processor;
+ * types without a generated mapper fall back to reflective {@link dev.kkorolyov.sqlob.util.PersistenceHelper} and {@link dev.kkorolyov.sqlob.util.ReflectionHelper} handling.
+ * @param <T> mapped type
+ * @see dev.kkorolyov.sqlob.descriptor.factory.MapperFactory
+ */
+public interface Mapper<T> {
+	/** Suffix appended to the flattened binary name of a mapped type to form the name of its generated mapper */
+	String SUFFIX = "_SqlobMapper";
+
+	/** @return mapped type */
+	Class<T> getType();
+	/** @return name of the table mapped to the mapped type */
+	String getName();
+
+	/** @return names of all persistable fields of the mapped type, in declaration order */
+	List<String> getFieldNames();
+	/** @return names of the columns mapped to each persistable field, in the same order as {@link #getFieldNames()} */
+	List<String> getColumnNames();
+
+	/**
+	 * @return new instance of the mapped type
+	 * @throws IllegalArgumentException if the mapped type has no no-arg constructor
+	 */
+	T newInstance();
+
+	/**
+	 * @param instance instance to extract from
+	 * @param field index of persistable field in {@link #getFieldNames()}
+	 * @return value of {@code field} on {@code instance}
+	 */
+	Object get(T instance, int field);
+	/**
+	 * @param instance instance to set field value on
+	 * @param field index of persistable field in {@link #getFieldNames()}
+	 * @param value value to set
+	 */
+	void set(T instance, int field, Object value);
+}
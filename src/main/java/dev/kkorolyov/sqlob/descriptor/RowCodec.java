@@ -0,0 +1,229 @@
+package dev.kkorolyov.sqlob.descriptor;
+
+import dev.kkorolyov.sqlob.ExecutionContext;
+import dev.kkorolyov.sqlob.column.Column;
+import dev.kkorolyov.sqlob.column.FieldBackedColumn;
+import dev.kkorolyov.sqlob.column.KeyColumn;
+import dev.kkorolyov.sqlob.column.ReferenceColumn;
+import dev.kkorolyov.sqlob.result.ConfigurableRecord;
+import dev.kkorolyov.sqlob.result.Record;
+import dev.kkorolyov.sqlob.util.Instantiator;
+
+import java.lang.reflect.Array;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Decodes result set rows into records by column position.
+ * Fixes the order of selected columns, so that each row is decoded by iterating over a plain array of columns.
+ * @param <T> decoded type
+ */
+public final class RowCodec<T> {
+	private final Class<T> type;
+	private final Column<?>[] columns;
+	private final List<String> columnNames;
+	private final boolean[] references;
+	private final boolean instantiating;
+	private final boolean assemblable;
+	private Instantiator<T> instantiator;
+
+	/**
+	 * @param type decoded type
+	 * @param key column of record keys
+	 * @param <T> decoded type
+	 * @return row codec decoding only keys of records, which have {@code null} objects
+	 */
+	public static <T> RowCodec<T> keys(Class<T> type, Column<?> key) {
+		return new RowCodec<>(type, Collections.singleton(key), false);
+	}
+
+	/**
+	 * Constructs a new row codec.
+	 * @param type decoded type
+	 * @param columns columns to select, in selection order
+	 */
+	public RowCodec(Class<T> type, Collection<Column<?>> columns) {
+		this(type, columns, true);
+	}
+	private RowCodec(Class<T> type, Collection<Column<?>> columns, boolean instantiating) {
+		this.type = type;
+		this.instantiating = instantiating;
+		this.columns = columns.toArray(new Column<?>[0]);
+		references = new boolean[this.columns.length];
+		for (int i = 0; i < references.length; i++) {
+			references[i] = this.columns[i] instanceof ReferenceColumn;
+		}
+		assemblable = instantiating && Arrays.stream(this.columns)
+				.allMatch(column -> column instanceof FieldBackedColumn || column instanceof KeyColumn);
+		columnNames = Collections.unmodifiableList(columns.stream()
+				.map(Column::getName)
+				.collect(Collectors.toList()));
+	}
+
+	/**
+	 * Decodes the current row of a result set.
+	 * Expects the result set's columns to be ordered as {@link #getColumnNames()}.
+	 * @param rs result set positioned at row to decode
+	 * @param context context to work in
+	 * @return record decoded from the current row of {@code rs}
+	 * @throws IllegalArgumentException if the decoded type has no no-arg constructor
+	 * @throws dev.kkorolyov.sqlob.util.UncheckedSqlException if a SQL issue occurs
+	 */
+	public Record<UUID, T> decode(ResultSet rs, ExecutionContext context) {
+		return decode(rs, context, null);
+	}
+	/**
+	 * Decodes the current row of a result set, deferring loading of referenced objects.
+	 * Values of {@link ReferenceColumn}s are not set, but passed to {@code references} for loading after all rows are decoded.
+	 * @param rs result set positioned at row to decode
+	 * @param context context to work in
+	 * @param references receives each non-{@code null} reference of the decoded object; if {@code null}, referenced objects are loaded immediately
+	 * @return record decoded from the current row of {@code rs}
+	 * @throws IllegalArgumentException if the decoded type has no no-arg constructor
+	 * @throws dev.kkorolyov.sqlob.util.UncheckedSqlException if a SQL issue occurs
+	 */
+	public Record<UUID, T> decode(ResultSet rs, ExecutionContext context, ReferenceSink references) {
+		ConfigurableRecord<UUID, T> record = new ConfigurableRecord<>();
+		if (instantiating) record.setObject(newInstance());
+
+		for (int i = 0; i < columns.length; i++) {
+			if (references != null && this.references[i] && instantiating) {
+				ReferenceColumn column = (ReferenceColumn) columns[i];
+				UUID key = column.getKey(rs, i + 1, context);
+
+				if (key != null) references.defer(column, record.getObject(), key);
+			} else {
+				columns[i].set(record, rs, i + 1, context);
+			}
+		}
+		return record;
+	}
+
+	/**
+	 * Decodes the current row of a result set into raw column values, without creating a record.
+	 * Expects the result set's columns to be ordered as {@link #getColumnNames()}.
+	 * @param rs result set positioned at row to decode
+	 * @param context context to work in
+	 * @return values of each column of the current row of {@code rs}, in column order
+	 * @throws dev.kkorolyov.sqlob.util.UncheckedSqlException if a SQL issue occurs
+	 */
+	public Object[] decodeValues(ResultSet rs, ExecutionContext context) {
+		Object[] values = new Object[columns.length];
+
+		for (int i = 0; i < columns.length; i++) {
+			values[i] = columns[i].get(rs, i + 1, context);
+		}
+		return values;
+	}
+
+	/**
+	 * Decodes the current row of a result set into a detached state, from which any number of independent records may be {@link #assemble(UUID, Object[], ReferenceSink) assembled}.
+	 * A state holds the key of each referenced record, rather than the referenced object.
+	 * Expects the result set's columns to be ordered as {@link #getColumnNames()}.
+	 * @param rs result set positioned at row to decode
+	 * @param context context to work in
+	 * @return record of the key and state decoded from the current row of {@code rs}
+	 * @throws IllegalStateException if this codec is not {@link #isAssemblable() assemblable}
+	 * @throws IllegalArgumentException if the decoded type has no no-arg constructor
+	 * @throws dev.kkorolyov.sqlob.util.UncheckedSqlException if a SQL issue occurs
+	 */
+	public Record<UUID, Object[]> decodeState(ResultSet rs, ExecutionContext context) {
+		verifyAssemblable();
+
+		ConfigurableRecord<UUID, T> record = new ConfigurableRecord<>();
+		record.setObject(newInstance());
+		Object[] state = new Object[columns.length];
+
+		for (int i = 0; i < columns.length; i++) {
+			if (references[i]) {
+				state[i] = ((ReferenceColumn) columns[i]).getKey(rs, i + 1, context);
+			} else {
+				columns[i].set(record, rs, i + 1, context);
+				state[i] = columns[i] instanceof FieldBackedColumn
+						? ((FieldBackedColumn<?>) columns[i]).getAccessor().get(record.getObject())
+						: record.getKey();
+			}
+		}
+		return new ConfigurableRecord<>(record.getKey(), state);
+	}
+	/**
+	 * Assembles a new record from a state decoded by {@link #decodeState(ResultSet, ExecutionContext)}.
+	 * Mutable values are copied, so that assembled records share no state.
+	 * @param key key of the assembled record
+	 * @param state state to assemble
+	 * @param references receives each non-{@code null} reference of the assembled object
+	 * @return record assembled from {@code state}
+	 * @throws IllegalStateException if this codec is not {@link #isAssemblable() assemblable}
+	 * @throws IllegalArgumentException if the decoded type has no no-arg constructor
+	 */
+	public Record<UUID, T> assemble(UUID key, Object[] state, ReferenceSink references) {
+		verifyAssemblable();
+
+		T instance = newInstance();
+
+		for (int i = 0; i < columns.length; i++) {
+			if (this.references[i]) {
+				if (state[i] != null) references.defer((ReferenceColumn) columns[i], instance, (UUID) state[i]);
+			} else if (columns[i] instanceof FieldBackedColumn) {
+				((FieldBackedColumn<?>) columns[i]).getAccessor().set(instance, copy(state[i]));
+			}
+		}
+		return new ConfigurableRecord<>(key, instance);
+	}
+	private static Object copy(Object value) {
+		if (value instanceof Date) return ((Date) value).clone();
+		if (value != null && value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+			System.arraycopy(value, 0, copy, 0, length);
+
+			return copy;
+		}
+		return value;
+	}
+
+	/** @return whether this codec decodes whole objects from columns it can decode into {@link #decodeState(ResultSet, ExecutionContext) states} */
+	public boolean isAssemblable() {
+		return assemblable;
+	}
+	private void verifyAssemblable() {
+		if (!assemblable) throw new IllegalStateException("Cannot decode states of " + type + " from columns " + columnNames);
+	}
+
+	private T newInstance() {
+		Instantiator<T> instantiator = this.instantiator;
+		if (instantiator == null) this.instantiator = instantiator = Instantiator.get(type);  // Racing is harmless
+
+		return instantiator.newInstance();
+	}
+
+	/** @return names of columns to select, in the order expected by {@link #decode(ResultSet, ExecutionContext)} */
+	public List<String> getColumnNames() {
+		return columnNames;
+	}
+
+	@Override
+	public String toString() {
+		return "RowCodec{" +
+				"type=" + type +
+				", columnNames=" + columnNames +
+				'}';
+	}
+
+	/** Receives references deferred while decoding rows */
+	@FunctionalInterface
+	public interface ReferenceSink {
+		/**
+		 * @param column column of the reference
+		 * @param instance decoded object holding the reference
+		 * @param key key of the referenced record
+		 */
+		void defer(ReferenceColumn column, Object instance, UUID key);
+	}
+}
@@ -0,0 +1,158 @@
+package dev.kkorolyov.sqlob.descriptor;
+
+import dev.kkorolyov.sqlob.ExecutionContext;
+import dev.kkorolyov.sqlob.column.Column;
+import dev.kkorolyov.sqlob.column.FieldBackedColumn;
+import dev.kkorolyov.sqlob.column.KeyColumn;
+import dev.kkorolyov.sqlob.column.handler.factory.ColumnHandlerFactory;
+import dev.kkorolyov.sqlob.descriptor.factory.MapperFactory;
+import dev.kkorolyov.sqlob.struct.Table;
+import dev.kkorolyov.sqlob.util.PersistenceHelper;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable persistence metadata of a single persisted class.
+ * Computed once per class and shared between all requests handling that class.
+ * @param <T> described type
+ * @see dev.kkorolyov.sqlob.descriptor.factory.TypeDescriptorFactory
+ */
+public final class TypeDescriptor<T> {
+	private final Class<T> type;
+	private final String name;
+	private final List<Column<?>> columns;
+	private final Map<String, Column<?>> columnsByName;
+	private final Map<String, String> columnNames;
+	private final RowCodec<T> codec;
+
+	/**
+	 * Constructs a new type descriptor with an ID column and additional columns generated from each persistable field in {@code type}.
+	 * Table name, persistable fields, and column names are retrieved from {@code type}'s generated {@link Mapper}, if any, else using {@link PersistenceHelper}.
+	 * @param type described type
+	 */
+	public TypeDescriptor(Class<T> type) {
+		this.type = type;
+
+		Mapper<T> mapper = MapperFactory.poll(type).orElse(null);
+		name = mapper != null
+				? mapper.getName()
+				: PersistenceHelper.getName(type);
+
+		List<Column<?>> columns = new ArrayList<>();
+		Map<String, Column<?>> columnsByName = new LinkedHashMap<>();
+		Map<String, String> columnNames = new LinkedHashMap<>();
+
+		columns.add(KeyColumn.ID);
+		columnsByName.put(KeyColumn.ID.getName(), KeyColumn.ID);
+		columnNames.put(KeyColumn.ID.getName(), KeyColumn.ID.getName());
+
+		Stream<FieldBackedColumn<?>> fieldColumns;
+		if (mapper != null) {
+			List<String> fieldNames = mapper.getFieldNames();
+			List<String> mappedColumnNames = mapper.getColumnNames();
+
+			fieldColumns = IntStream.range(0, fieldNames.size())
+					.mapToObj(i -> {
+						Field f = getDeclaredField(type, fieldNames.get(i));
+						return ColumnHandlerFactory.get(f).get(f, mappedColumnNames.get(i));
+					});
+		} else {
+			fieldColumns = PersistenceHelper.getPersistableFields(type)
+					.map(f -> ColumnHandlerFactory.get(f).get(f));
+		}
+		fieldColumns.forEach(column -> {
+			columns.add(column);
+			columnsByName.put(column.getName(), column);
+			columnNames.put(column.getField().getName(), column.getName());
+		});
+
+		this.columns = Collections.unmodifiableList(columns);
+		this.columnsByName = Collections.unmodifiableMap(columnsByName);
+		this.columnNames = Collections.unmodifiableMap(columnNames);
+		codec = new RowCodec<>(type, columns);
+	}
+
+	private static Field getDeclaredField(Class<?> type, String name) {
+		try {
+			return type.getDeclaredField(name);
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException("Generated mapper of " + type + " is stale; no such field: " + name, e);
+		}
+	}
+
+	/**
+	 * @param context context to work in
+	 * @return SQL table represented by this type within {@code context}
+	 */
+	public Table toTable(ExecutionContext context) {
+		return new Table(
+				name,
+				columns.stream()
+						.map(column -> new dev.kkorolyov.sqlob.struct.Column(column.getName(), column.getSql(context)))
+						.collect(Collectors.toList())
+		);
+	}
+
+	/** @return described type */
+	public Class<T> getType() {
+		return type;
+	}
+	/** @return table name of described type */
+	public String getName() {
+		return name;
+	}
+
+	/** @return all columns of described type, ID column first followed by persistable fields in declaration order */
+	public List<Column<?>> getColumns() {
+		return columns;
+	}
+	/** @return all columns of described type keyed by column name, in the same order as {@link #getColumns()} */
+	public Map<String, Column<?>> getColumnsByName() {
+		return columnsByName;
+	}
+	/**
+	 * @param c column superinterface or superclass to filter by
+	 * @param <C> interface type
+	 * @return stream over all columns of described type which subclass {@code c}
+	 */
+	public <C> Stream<C> streamColumns(Class<C> c) {
+		return columns.stream()
+				.filter(c::isInstance)
+				.map(c::cast);
+	}
+
+	/** @return codec decoding rows of all columns of described type */
+	public RowCodec<T> getCodec() {
+		return codec;
+	}
+
+	/**
+	 * @param fieldName name of persistable field, or name of the ID column
+	 * @return name of column mapped to {@code fieldName}, or {@code null} if no such persistable field
+	 */
+	public String getColumnName(String fieldName) {
+		return columnNames.get(fieldName);
+	}
+	/** @return names of all persistable fields and the ID column */
+	public Collection<String> getFieldNames() {
+		return columnNames.keySet();
+	}
+
+	@Override
+	public String toString() {
+		return "TypeDescriptor{" +
+				"type=" + type +
+				", name='" + name + '\'' +
+				", columns=" + columns +
+				'}';
+	}
+}
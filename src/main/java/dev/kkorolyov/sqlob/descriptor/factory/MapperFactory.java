@@ -0,0 +1,54 @@
+package dev.kkorolyov.sqlob.descriptor.factory;
+
+import dev.kkorolyov.sqlob.descriptor.Mapper;
+
+import java.util.Optional;
+
+/**
+ * Provides for retrieval of generated {@link Mapper}s by mapped type.
+ * The generated mapper of a type {@code a.b.Outer$Inner} is expected at {@code a.b.Outer_Inner_SqlobMapper}.
+ * Each type is looked up at most once.
+ */
+public final class MapperFactory {
+	private static final ClassValue<Optional<Mapper<?>>> MAPPERS = new ClassValue<Optional<Mapper<?>>>() {
+		@Override
+		protected Optional<Mapper<?>> computeValue(Class<?> type) {
+			return load(type);
+		}
+	};
+
+	private MapperFactory() {}
+
+	/**
+	 * @param type mapped type
+	 * @param <T> mapped type
+	 * @return optional containing generated mapper of {@code type}, if any
+	 */
+	public static <T> Optional<Mapper<T>> poll(Class<T> type) {
+		return MAPPERS.get(type)
+				.map(mapper -> (Mapper<T>) mapper);
+	}
+
+	private static Optional<Mapper<?>> load(Class<?> type) {
+		if (type.isPrimitive() || type.isArray()) return Optional.empty();
+
+		String name = type.getName();
+		String packageName = type.getPackageName();
+		String mapperName = (packageName.isEmpty() ? "" : packageName + ".")
+				+ name.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_')
+				+ Mapper.SUFFIX;
+
+		try {
+			Class<?> mapperType = Class.forName(mapperName, true, type.getClassLoader());
+			Mapper<?> mapper = (Mapper<?>) mapperType.getConstructor().newInstance();
+
+			return mapper.getType() == type
+					? Optional.of(mapper)
+					: Optional.empty();
+		} catch (ClassNotFoundException e) {
+			return Optional.empty();
+		} catch (ReflectiveOperationException | ClassCastException e) {
+			throw new IllegalStateException("Unable to load generated mapper " + mapperName + " of " + type, e);
+		}
+	}
+}
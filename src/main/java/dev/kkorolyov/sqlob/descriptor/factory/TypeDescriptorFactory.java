@@ -0,0 +1,36 @@
+package dev.kkorolyov.sqlob.descriptor.factory;
+
+import dev.kkorolyov.sqlob.descriptor.TypeDescriptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides for retrieval of {@link TypeDescriptor}s by described type.
+ * Descriptors are computed lazily on first retrieval and cached for all subsequent retrievals.
+ * Retrieval is thread-safe.
+ */
+public final class TypeDescriptorFactory {
+	private static final Map<Class<?>, TypeDescriptor<?>> DESCRIPTORS = new ConcurrentHashMap<>();
+
+	private TypeDescriptorFactory() {}
+
+	/**
+	 * @param type type to get descriptor for
+	 * @param <T> described type
+	 * @return descriptor of {@code type}
+	 * @throws java.util.NoSuchElementException if no column handler accepts some persistable field in {@code type}
+	 */
+	public static <T> TypeDescriptor<T> get(Class<T> type) {
+		TypeDescriptor<T> descriptor = (TypeDescriptor<T>) DESCRIPTORS.get(type);
+
+		if (descriptor == null) {
+			// Not computeIfAbsent - building a descriptor may retrieve other descriptors
+			descriptor = new TypeDescriptor<>(type);
+
+			TypeDescriptor<T> existing = (TypeDescriptor<T>) DESCRIPTORS.putIfAbsent(type, descriptor);
+			if (existing != null) descriptor = existing;
+		}
+		return descriptor;
+	}
+}
@@ -0,0 +1,147 @@
+package dev.kkorolyov.sqlob.request;
+
+import dev.kkorolyov.sqlob.ExecutionContext;
+import dev.kkorolyov.sqlob.column.Column;
+import dev.kkorolyov.sqlob.result.ConfigurableResult;
+import dev.kkorolyov.sqlob.result.Result;
+import dev.kkorolyov.sqlob.statement.SelectStatementBuilder;
+import dev.kkorolyov.sqlob.util.Aggregate;
+import dev.kkorolyov.sqlob.util.Where;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static dev.kkorolyov.sqlob.util.UncheckedSqlException.wrapSqlException;
+
+/**
+ * Request to evaluate aggregate functions over records of a class's table, optionally grouped by persistable fields.
+ * Aggregates are evaluated by the database, so only a single row per group is retrieved.
+ * Result contains number of retrieved groups; aggregated values are retrieved by {@link #aggregate(ExecutionContext)}.
+ */
+public class AggregateRequest<T> extends Request<T> {
+	private final Where where;
+	private final List<Aggregate> aggregates;
+	private final List<String> groups = new ArrayList<>();
+
+	/**
+	 * Constructs a new aggregate request.
+	 * @param where selection constraint
+	 * @param aggregates aggregates to evaluate, in retrieval order
+	 * @throws IllegalArgumentException if no aggregates are specified
+	 * @see Request#Request(Class)
+	 */
+	public AggregateRequest(Class<T> type, Where where, Aggregate... aggregates) {
+		super(type);
+
+		if (aggregates.length <= 0) throw new IllegalArgumentException("No aggregates specified");
+
+		this.where = where;
+		this.aggregates = Arrays.asList(aggregates);
+	}
+
+	/**
+	 * Constructs a new aggregate request with custom columns.
+	 * @see Request#Request(Class, String, Iterable)
+	 */
+	AggregateRequest(Class<T> type, String name, Where where, Iterable<Column<?>> columns, Aggregate... aggregates) {
+		super(type, name, columns);
+
+		if (aggregates.length <= 0) throw new IllegalArgumentException("No aggregates specified");
+
+		this.where = where;
+		this.aggregates = Arrays.asList(aggregates);
+	}
+
+	/**
+	 * Evaluates aggregates separately for each distinct combination of values of the given attributes.
+	 * @param attributes persistable field names to append to this request's grouping attributes
+	 * @return {@code this}
+	 */
+	public AggregateRequest<T> groupBy(String... attributes) {
+		groups.addAll(Arrays.asList(attributes));
+		return this;
+	}
+
+	@Override
+	protected Result<T> executeThrowing(ExecutionContext context) throws SQLException {
+		return new ConfigurableResult<T>().size(aggregateThrowing(context).size());
+	}
+
+	/**
+	 * Executes this request within the given context.
+	 * @param context execution context
+	 * @return a row for each group, containing the values of each grouping attribute in {@link #groupBy(String...) grouping} order, followed by the value of each aggregate in specified order;
+	 * a single row of aggregate values if not grouped
+	 * @throws IllegalArgumentException if an attribute is not a persistable field of this request's type
+	 * @throws dev.kkorolyov.sqlob.util.UncheckedSqlException if a SQL database issue occurs
+	 */
+	public List<Object[]> aggregate(ExecutionContext context) {
+		return wrapSqlException(() -> aggregateThrowing(context));
+	}
+	private List<Object[]> aggregateThrowing(ExecutionContext context) throws SQLException {
+		List<Column<?>> groupColumns = groups.stream()
+				.map(this::resolveName)
+				.map(this::getColumn)
+				.collect(Collectors.toList());
+		List<Aggregate> resolvedAggregates = aggregates.stream()
+				.map(aggregate -> aggregate.getAttribute() != null
+						? aggregate.withAttribute(resolveName(aggregate.getAttribute()))
+						: aggregate)
+				.collect(Collectors.toList());
+
+		PreparedStatement statement = selectBuilder(groupColumns, resolvedAggregates, context).build();
+
+		try (ResultSet rs = statement.executeQuery()) {
+			List<Object[]> rows = new ArrayList<>();
+
+			while (rs.next()) {
+				Object[] row = new Object[groupColumns.size() + resolvedAggregates.size()];
+
+				for (int i = 0; i < groupColumns.size(); i++) {
+					row[i] = groupColumns.get(i).get(rs, i + 1, context);
+				}
+				for (int i = 0; i < resolvedAggregates.size(); i++) {
+					int index = groupColumns.size() + i;
+					row[index] = get(resolvedAggregates.get(i), rs, index + 1, context);
+				}
+				rows.add(row);
+			}
+			return rows;
+		} finally {
+			context.release(statement);
+		}
+	}
+	private Object get(Aggregate aggregate, ResultSet rs, int index, ExecutionContext context) throws SQLException {
+		switch (aggregate.getFunction()) {
+			case COUNT:
+				return rs.getLong(index);
+			case MIN:
+			case MAX:
+				return getColumn(aggregate.getAttribute()).get(rs, index, context);  // Same type as aggregated column
+			default:
+				return rs.getObject(index);
+		}
+	}
+
+	SelectStatementBuilder selectBuilder(List<Column<?>> groupColumns, List<Aggregate> resolvedAggregates, ExecutionContext context) {
+		List<String> groupNames = groupColumns.stream()
+				.map(Column::getName)
+				.collect(Collectors.toList());
+
+		return new SelectStatementBuilder(
+				context::generateStatement,
+				getName(),
+				Stream.concat(
+						groupNames.stream(),
+						resolvedAggregates.stream().map(Aggregate::toString)
+				).collect(Collectors.toList()),
+				resolve(where, context)
+		).groupBy(groupNames);
+	}
+}
@@ -0,0 +1,81 @@
+package dev.kkorolyov.sqlob.request;
+
+import dev.kkorolyov.sqlob.ExecutionContext;
+import dev.kkorolyov.sqlob.column.Column;
+import dev.kkorolyov.sqlob.result.ConfigurableResult;
+import dev.kkorolyov.sqlob.result.Result;
+import dev.kkorolyov.sqlob.statement.SelectStatementBuilder;
+import dev.kkorolyov.sqlob.util.Aggregate;
+import dev.kkorolyov.sqlob.util.Where;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * Request to count records in a class's table, or to check whether any exist.
+ * Records are counted by the database, so no rows are retrieved.
+ * Result contains number of matching records, or at most {@code 1} if only checking existence.
+ */
+public class CountRequest<T> extends Request<T> {
+	private final Where where;
+	private boolean exists;
+
+	/**
+	 * Constructs a new count request.
+	 * @param where selection constraint
+	 * @see Request#Request(Class)
+	 */
+	public CountRequest(Class<T> type, Where where) {
+		super(type);
+
+		this.where = where;
+	}
+
+	/**
+	 * Constructs a new count request with custom columns.
+	 * @see Request#Request(Class, String, Iterable)
+	 */
+	CountRequest(Class<T> type, String name, Where where, Iterable<Column<?>> columns) {
+		super(type, name, columns);
+
+		this.where = where;
+	}
+
+	/**
+	 * Only checks whether any matching records exist, which the database may stop searching for after the first match.
+	 * @return {@code this}
+	 */
+	public CountRequest<T> exists() {
+		exists = true;
+		return this;
+	}
+
+	@Override
+	protected Result<T> executeThrowing(ExecutionContext context) throws SQLException {
+		PreparedStatement statement = selectBuilder(context).build();
+
+		try (ResultSet rs = statement.executeQuery()) {
+			int count = exists
+					? rs.next() ? 1 : 0
+					: rs.next() ? Math.toIntExact(rs.getLong(1)) : 0;
+
+			return new ConfigurableResult<T>().size(count);
+		} finally {
+			context.release(statement);
+		}
+	}
+
+	SelectStatementBuilder selectBuilder(ExecutionContext context) {
+		SelectStatementBuilder statementBuilder = new SelectStatementBuilder(
+				context::generateStatement,
+				getName(),
+				Collections.singletonList(exists ? "1" : Aggregate.count().toString()),
+				resolve(where, context)
+		);
+		return exists
+				? statementBuilder.limit(1, context.getDialect().getLimit())
+				: statementBuilder;
+	}
+}
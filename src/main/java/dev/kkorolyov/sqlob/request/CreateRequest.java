@@ -7,6 +7,7 @@ import dev.kkorolyov.sqlob.result.Result;
 import dev.kkorolyov.sqlob.statement.CreateStatementBuilder;
 
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
@@ -32,14 +33,18 @@ public class CreateRequest<T> extends Request<T> {
 
 	@Override
 	protected Result<T> executeThrowing(ExecutionContext context) throws SQLException {
-		createBuilder(context)
+		Statement statement = createBuilder(context)
 				.batch(toTable(context), streamColumns()
 						.map(column -> column.getPrerequisites(context))
 						.flatMap(Collection::stream)
 						.collect(Collectors.toSet()))
-				.build()
-				.executeBatch();
+				.build();
 
+		try {
+			statement.executeBatch();
+		} finally {
+			context.release(statement);
+		}
 		return new ConfigurableResult<>();
 	}
 
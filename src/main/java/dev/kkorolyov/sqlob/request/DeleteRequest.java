@@ -1,24 +1,33 @@
 package dev.kkorolyov.sqlob.request;
 
 import dev.kkorolyov.sqlob.ExecutionContext;
+import dev.kkorolyov.sqlob.IdentityMap;
 import dev.kkorolyov.sqlob.column.Column;
 import dev.kkorolyov.sqlob.result.ConfigurableResult;
 import dev.kkorolyov.sqlob.result.Result;
 import dev.kkorolyov.sqlob.statement.DeleteStatementBuilder;
 import dev.kkorolyov.sqlob.util.Where;
 
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 /**
  * Request to delete records from a class's table.
+ * Within a session, deleted records stop being tracked by the session's {@link IdentityMap}, and are invalidated in the session's {@link dev.kkorolyov.sqlob.EntityCache}, if any.
  * Result contains number of deleted records.
  */
 public class DeleteRequest<T> extends Request<T> {
+	private final List<T> instances;
 	private final Where where;
+	private final List<UUID> ids;
 
 	/** @see #DeleteRequest(Iterable) */
 	@SafeVarargs
@@ -27,17 +36,23 @@ public class DeleteRequest<T> extends Request<T> {
 	}
 	/**
 	 * Constructs a delete request deleting instances.
+	 * Instances tracked by the executing session are matched by their known IDs, others by the values of all their persistable fields.
 	 * @param instances instances to delete
 	 * @throws NoSuchElementException if {@code instances} is empty
 	 */
 	public DeleteRequest(Iterable<T> instances) {
-		this(
-				(Class<T>) instances.iterator().next().getClass(),
-				StreamSupport.stream(instances.spliterator(), false)
-						.map(Where::eqObject)
-						.reduce(Where::or)
-						.orElseThrow(() -> new NoSuchElementException("No instances specified"))
-		);
+		super((Class<T>) instances.iterator().next().getClass());
+
+		this.instances = StreamSupport.stream(instances.spliterator(), false)
+				.collect(Collectors.toList());
+		this.where = whereInstances(this.instances);
+		this.ids = null;
+	}
+	private static Where whereInstances(Collection<?> instances) {
+		return instances.stream()
+				.map(Where::eqObject)
+				.reduce(Where::or)
+				.orElseThrow(() -> new NoSuchElementException("No instances specified"));
 	}
 
 	/** @see #DeleteRequest(Class, Iterable) */
@@ -46,17 +61,20 @@ public class DeleteRequest<T> extends Request<T> {
 	}
 	/**
 	 * Constructs a delete request deleting by IDs.
+	 * IDs are matched in as many statements as required to stay within the parameter limit of the executing context's dialect.
 	 * @param ids IDs to delete
 	 * @throws java.util.NoSuchElementException if {@code ids} is empty
+	 * @see Request#Request(Class)
 	 */
 	public DeleteRequest(Class<T> type, Iterable<UUID> ids) {
-		this(
-				type,
-				StreamSupport.stream(ids.spliterator(), false)
-						.map(Where::eqId)
-						.reduce(Where::or)
-						.orElseThrow(() -> new NoSuchElementException("No IDs specified"))
-		);
+		super(type);
+
+		this.instances = null;
+		this.where = null;
+		this.ids = StreamSupport.stream(ids.spliterator(), false)
+				.distinct()
+				.collect(Collectors.toList());
+		if (this.ids.isEmpty()) throw new NoSuchElementException("No IDs specified");
 	}
 
 	/**
@@ -67,7 +85,9 @@ public class DeleteRequest<T> extends Request<T> {
 	public DeleteRequest(Class<T> type, Where where) {
 		super(type);
 
+		this.instances = null;
 		this.where = where;
+		this.ids = null;
 	}
 
 	/**
@@ -77,19 +97,69 @@ public class DeleteRequest<T> extends Request<T> {
 	DeleteRequest(Class<T> type, String name, Where where, Iterable<Column<?>> columns) {
 		super(type, name, columns);
 
+		this.instances = null;
 		this.where = where;
+		this.ids = null;
 	}
 
 	@Override
 	protected Result<T> executeThrowing(ExecutionContext context) throws SQLException {
-		int updated = deleteBuilder(context).build()
-				.executeUpdate();
+		IdentityMap identities = context.getIdentityMap();
+
+		if (instances != null && identities != null) {
+			List<UUID> knownIds = new ArrayList<>();
+			List<T> unknownInstances = new ArrayList<>();
+
+			for (T instance : instances) {
+				UUID key = identities.getKey(instance);
 
-		return new ConfigurableResult<T>()
-				.size(updated);
+				if (key != null) knownIds.add(key);
+				else unknownInstances.add(instance);
+			}
+			int deleted = delete(knownIds, identities, context);
+			if (!unknownInstances.isEmpty()) deleted += delete(deleteBuilder(context, whereInstances(unknownInstances)), identities, context);
+
+			return new ConfigurableResult<T>().size(deleted);
+		}
+		return new ConfigurableResult<T>().size(ids != null
+				? delete(ids, identities, context)
+				: delete(deleteBuilder(context), identities, context));
+	}
+	private int delete(List<UUID> ids, IdentityMap identities, ExecutionContext context) throws SQLException {
+		int deleted = 0;
+		for (List<UUID> chunk : partition(ids, context)) {
+			deleted += delete(deleteBuilder(context, Where.inIds(chunk)), context);
+		}
+		context.invalidate(getType(), ids);
+
+		if (identities != null) {
+			for (UUID id : ids) {
+				identities.remove(getType(), id);
+			}
+		}
+		return deleted;
+	}
+	private int delete(DeleteStatementBuilder statementBuilder, IdentityMap identities, ExecutionContext context) throws SQLException {
+		int deleted = delete(statementBuilder, context);
+		context.invalidate(getType());  // Deleted records are unknown
+		if (identities != null) identities.remove(getType());
+
+		return deleted;
+	}
+	private static int delete(DeleteStatementBuilder statementBuilder, ExecutionContext context) throws SQLException {
+		PreparedStatement statement = statementBuilder.build();
+
+		try {
+			return statement.executeUpdate();
+		} finally {
+			context.release(statement);
+		}
 	}
 
 	DeleteStatementBuilder deleteBuilder(ExecutionContext context) {
+		return deleteBuilder(context, where);
+	}
+	private DeleteStatementBuilder deleteBuilder(ExecutionContext context, Where where) {
 		return new DeleteStatementBuilder(
 				context::generateStatement,
 				getName(),
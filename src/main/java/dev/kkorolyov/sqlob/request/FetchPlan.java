@@ -0,0 +1,121 @@
+package dev.kkorolyov.sqlob.request;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Determines how a {@link SelectRequest} loads the objects referenced by selected records.
+ * Modes may be set for individual reference fields by dotted path from the selected type, such as {@code "owner.address"}, and otherwise default to a common mode up to a maximum depth.
+ * References beyond the maximum depth, and not otherwise specified, are {@link Mode#LAZY lazy}.
+ */
+public final class FetchPlan {
+	/** Batch-loads all references to any depth */
+	public static final FetchPlan DEFAULT = new FetchPlan(Mode.BATCH, Integer.MAX_VALUE, Collections.emptyMap());
+
+	private final Mode mode;
+	private final int depth;
+	private final Map<String, Mode> paths;
+
+	/**
+	 * @param mode mode of all references
+	 * @return fetch plan loading all references by {@code mode} to any depth
+	 */
+	public static FetchPlan of(Mode mode) {
+		return new FetchPlan(mode, Integer.MAX_VALUE, Collections.emptyMap());
+	}
+
+	private FetchPlan(Mode mode, int depth, Map<String, Mode> paths) {
+		this.mode = mode;
+		this.depth = depth;
+		this.paths = paths;
+	}
+
+	/**
+	 * @param depth maximum depth of references loaded by this plan's default mode; {@code 1} loads only references of selected records, {@code 0} none
+	 * @return fetch plan like this one, but leaving references beyond {@code depth} lazy
+	 * @throws IllegalArgumentException if {@code depth < 0}
+	 */
+	public FetchPlan depth(int depth) {
+		if (depth < 0) throw new IllegalArgumentException("depth must be >= 0: " + depth);
+
+		return new FetchPlan(mode, depth, paths);
+	}
+	/**
+	 * @param path dotted path of persistable reference fields from the selected type
+	 * @param mode mode of the reference at {@code path}
+	 * @return fetch plan like this one, but loading the reference at {@code path} by {@code mode}
+	 */
+	public FetchPlan field(String path, Mode mode) {
+		Map<String, Mode> paths = new HashMap<>(this.paths);
+		paths.put(path, mode);
+
+		return new FetchPlan(this.mode, depth, Collections.unmodifiableMap(paths));
+	}
+
+	/**
+	 * @param attribute name of reference field of the current type
+	 * @return mode of the reference at {@code attribute}
+	 */
+	Mode getMode(String attribute) {
+		Mode pathMode = paths.get(attribute);
+		if (pathMode != null) return pathMode;
+
+		return depth > 0 ? mode : Mode.LAZY;
+	}
+	/**
+	 * @param attribute name of reference field of the current type
+	 * @return fetch plan applying to the type referenced by {@code attribute}, one level deeper
+	 */
+	FetchPlan descend(String attribute) {
+		String prefix = attribute + ".";
+		Map<String, Mode> subPaths = new HashMap<>();
+
+		paths.forEach((path, pathMode) -> {
+			if (path.startsWith(prefix)) subPaths.put(path.substring(prefix.length()), pathMode);
+		});
+		return new FetchPlan(
+				mode,
+				depth == Integer.MAX_VALUE ? depth : Math.max(depth - 1, 0),
+				subPaths.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(subPaths)
+		);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		FetchPlan fetchPlan = (FetchPlan) o;
+		return depth == fetchPlan.depth &&
+				mode == fetchPlan.mode &&
+				Objects.equals(paths, fetchPlan.paths);
+	}
+	@Override
+	public int hashCode() {
+		return Objects.hash(mode, depth, paths);
+	}
+
+	@Override
+	public String toString() {
+		return "FetchPlan{" +
+				"mode=" + mode +
+				", depth=" + depth +
+				", paths=" + paths +
+				'}';
+	}
+
+	/** Mode of loading a reference */
+	public enum Mode {
+		/** Loaded immediately while decoding the referencing row, by a request per row */
+		EAGER,
+		/** Loaded after all referencing rows are decoded, by a single request per referenced type */
+		BATCH,
+		/**
+		 * Not loaded.
+		 * {@link dev.kkorolyov.sqlob.Ref} fields hold a reference which loads on first access through the owning session; fields of other types are left unset.
+		 */
+		LAZY
+	}
+}
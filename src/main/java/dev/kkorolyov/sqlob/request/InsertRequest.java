@@ -1,8 +1,13 @@
 package dev.kkorolyov.sqlob.request;
 
+import dev.kkorolyov.sqlob.BatchPolicy;
+import dev.kkorolyov.sqlob.Dialect.Upsert;
 import dev.kkorolyov.sqlob.ExecutionContext;
+import dev.kkorolyov.sqlob.IdentityMap;
 import dev.kkorolyov.sqlob.column.Column;
 import dev.kkorolyov.sqlob.column.FieldBackedColumn;
+import dev.kkorolyov.sqlob.column.KeyColumn;
+import dev.kkorolyov.sqlob.descriptor.factory.TypeDescriptorFactory;
 import dev.kkorolyov.sqlob.result.ConfigurableRecord;
 import dev.kkorolyov.sqlob.result.ConfigurableResult;
 import dev.kkorolyov.sqlob.result.Record;
@@ -11,19 +16,35 @@ import dev.kkorolyov.sqlob.statement.InsertStatementBuilder;
 import dev.kkorolyov.sqlob.statement.UpdateStatementBuilder;
 import dev.kkorolyov.sqlob.util.Where;
 
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 /**
- * Request to insert records of a class as table rows.
+ * Request to insert records of a class as table rows, updating existing rows with the same IDs.
+ * If the context's dialect has native upsert syntax, writes all records in batched upserts without first selecting existing rows.
+ * Otherwise, first selects existing rows to skip records unchanged since last written and to update rather than insert existing records.
+ * Rows are written in batches flushed according to the request's {@link BatchPolicy}, or the executing context's if the request has none.
+ * Within a session, instances tracked by the session's {@link IdentityMap} are written to their known keys without being matched against existing records by content, and all written instances are tracked.
+ * Written records are invalidated in the session's {@link dev.kkorolyov.sqlob.EntityCache}, if any.
  */
 public class InsertRequest<T> extends Request<T> {
+	/** Maximum number of records matched by content in a single statement */
+	static final int MAX_MATCHED_RECORDS = 500;
+
 	private final Collection<Record<UUID, T>> records;
+	private boolean randomKeys;
+	private BatchPolicy batchPolicy;
 
 	/**
 	 * Constructs a single-instance insert request with random ID.
@@ -41,11 +62,14 @@ public class InsertRequest<T> extends Request<T> {
 	}
 	/**
 	 * Constructs an insert request with random IDs.
+	 * Instances tracked by the executing session instead retain their known IDs.
 	 * @see #InsertRequest(Collection)
 	 */
 	public InsertRequest(Iterable<T> instances) {
 		this(StreamSupport.stream(instances.spliterator(), false)
 				.collect(Record.collector(instance -> UUID.randomUUID())));
+
+		randomKeys = true;
 	}
 	/**
 	 * Constructs a new insert request.
@@ -69,6 +93,57 @@ public class InsertRequest<T> extends Request<T> {
 		this.records = records;
 	}
 
+	/**
+	 * Sets thresholds for flushing batched writes of this request, overriding those of the executing context.
+	 * @param batchPolicy batch policy to set; {@code null} to use the executing context's
+	 * @return {@code this}
+	 */
+	public InsertRequest<T> batchPolicy(BatchPolicy batchPolicy) {
+		this.batchPolicy = batchPolicy;
+		return this;
+	}
+	private BatchPolicy getBatchPolicy(ExecutionContext context) {
+		return batchPolicy != null ? batchPolicy : context.getBatchPolicy();
+	}
+
+	/** @return records to insert */
+	final Collection<Record<UUID, T>> getRecords() {
+		return records;
+	}
+	/**
+	 * @param context context to work in
+	 * @return records to insert, with random keys of instances tracked by {@code context}'s identity map replaced by their known keys
+	 */
+	final Collection<Record<UUID, T>> getRecords(ExecutionContext context) {
+		IdentityMap identities = context.getIdentityMap();
+		if (!randomKeys || identities == null) return records;
+
+		return records.stream()
+				.map(record -> {
+					UUID key = identities.getKey(record.getObject());
+					return key != null ? new ConfigurableRecord<>(key, record.getObject()) : record;
+				})
+				.collect(Collectors.toList());
+	}
+	/**
+	 * Tracks all written records in a context's identity map, and invalidates them in its entity cache.
+	 * @param result result containing written records
+	 * @param context context to work in
+	 * @return {@code result}
+	 */
+	final Result<T> track(Result<T> result, ExecutionContext context) {
+		context.invalidate(getType(), result.getKeys());
+
+		IdentityMap identities = context.getIdentityMap();
+
+		if (identities != null) {
+			for (Record<UUID, T> record : result.getRecords()) {
+				identities.put(record.getKey(), record.getObject());
+			}
+		}
+		return result;
+	}
+
 	private static <T> Class<T> getType(Collection<Record<UUID, T>> records) {
 		return (Class<T>) records.stream()
 				.findFirst()
@@ -79,68 +154,174 @@ public class InsertRequest<T> extends Request<T> {
 
 	@Override
 	protected Result<T> executeThrowing(ExecutionContext context) throws SQLException {
-		Collection<UUID> ignoreIds = selectIds(whereRecordsExist(Record::getObject, Where::eqObject), context);  // Avoid re-inserting existing instances
-		Collection<UUID> updateIds = selectIds(whereRecordsExist(Record::getKey, Where::eqId), context);  // Update existing records instead of trying to re-insert
+		Upsert upsert = context.getDialect().getUpsert();
+
+		return track(
+				upsert != Upsert.NONE
+						? insert(getRecords(context), insertBuilder(upsert, context), context)
+						: insertOrUpdate(context),
+				context
+		);
+	}
+	/**
+	 * Writes records without native upsert syntax.
+	 * Selects records matching the content of any written record to skip records unchanged since last written, and records with the IDs of written records to update them instead of inserting them again.
+	 */
+	private Result<T> insertOrUpdate(ExecutionContext context) throws SQLException {
+		IdentityMap identities = context.getIdentityMap();
+		Collection<Record<UUID, T>> records = getRecords(context);
+		Collection<Record<UUID, T>> unknownRecords = identities == null
+				? records
+				: records.stream()
+						.filter(record -> !record.getKey().equals(identities.getKey(record.getObject())))
+						.collect(Collectors.toList());
+
+		Collection<UUID> ignoreIds = selectExistingIds(unknownRecords, context);  // Avoid rewriting unchanged records
+		Collection<UUID> updateIds = select(  // Update existing records instead of trying to re-insert
+				getType(),
+				records.stream()
+						.map(Record::getKey)
+						.collect(Collectors.toList())
+		).execute(context)
+				.getKeys();
 
+		Result<T> inserted = insert(
+				records.stream()
+						.filter(record -> !ignoreIds.contains(record.getKey()))
+						.filter(record -> !updateIds.contains(record.getKey()))
+						.collect(Collectors.toSet()),
+				insertBuilder(Upsert.NONE, context),
+				context
+		);
+		Result<T> updated = update(
+				records.stream()
+						.filter(record -> !ignoreIds.contains(record.getKey()))
+						.filter(record -> updateIds.contains(record.getKey()))
+						.collect(Collectors.toSet()),
+				context
+		);
 		return new ConfigurableResult<T>()
-				.add(insert(
-						records.stream()
-								.filter(record -> !ignoreIds.contains(record.getKey()))
-								.filter(record -> !updateIds.contains(record.getKey()))
-								.collect(Collectors.toSet()),
-						context
-				).getRecords())
-				.add(update(
-						records.stream()
-								.filter(record -> !ignoreIds.contains(record.getKey()))
-								.filter(record -> updateIds.contains(record.getKey()))
-								.collect(Collectors.toSet()),
-						context
-				).getRecords());
-	}
-	private Result<T> insert(Collection<Record<UUID, T>> records, ExecutionContext context) throws SQLException {
+				.add(inserted.getRecords())
+				.add(updated.getRecords())
+				.batchCounts(inserted.getBatchCounts())
+				.batchCounts(updated.getBatchCounts());
+	}
+	/**
+	 * @param upsert syntax used to update existing rows with the IDs of inserted rows
+	 * @param context context to work in
+	 * @return builder of insert statements over all columns
+	 */
+	InsertStatementBuilder insertBuilder(Upsert upsert, ExecutionContext context) {
+		return new InsertStatementBuilder(
+				context::generateStatement,
+				getName(),
+				streamColumns()
+						.map(Column::getName)
+						.collect(Collectors.toList()),
+				upsert,
+				KeyColumn.ID.getName()
+		);
+	}
+	/**
+	 * Inserts records using multi-row statements if the context's dialect has a known parameter limit, else using single-row statements.
+	 * Buffered rows are flushed whenever they fill the batch policy in effect.
+	 * @param records records to insert
+	 * @param statementBuilder builder of insert statements over all columns
+	 * @param context context to work in
+	 * @return result containing all inserted records and the number of rows inserted by each flush
+	 * @throws SQLException if a SQL issue occurs
+	 */
+	final Result<T> insert(Collection<Record<UUID, T>> records, InsertStatementBuilder statementBuilder, ExecutionContext context) throws SQLException {
 		ConfigurableResult<T> result = new ConfigurableResult<>();
 
 		if (!records.isEmpty()) {
-			InsertStatementBuilder statementBuilder = new InsertStatementBuilder(
-					context::generateStatement,
-					getName(),
-					streamColumns()
-							.map(Column::getName)
-							.collect(Collectors.toList())
-			);
+			BatchPolicy policy = getBatchPolicy(context);
+			List<Column<?>> columns = streamColumns().collect(Collectors.toList());
+			Object[] row = new Object[columns.size()];
+			int maxRows = context.getDialect().getMaxParameters() / columns.size();
+
 			for (Record<UUID, T> record : records) {
-				statementBuilder.batch(buildBatch(record, context));
+				statementBuilder.batch(buildRow(record, columns, row, context));
 				result.add(record);
+
+				if (policy.isFull(statementBuilder.size(), statementBuilder.estimateBytes())) result.batchCount(flush(statementBuilder, maxRows, context));
 			}
-			statementBuilder.build()
-					.executeBatch();
+			if (statementBuilder.size() > 0) result.batchCount(flush(statementBuilder, maxRows, context));
 		}
 		return result;
 	}
+	private static int flush(InsertStatementBuilder statementBuilder, int maxRows, ExecutionContext context) throws SQLException {
+		int rows = statementBuilder.size();
+		int count = 0;
+
+		if (maxRows > 1) {
+			List<PreparedStatement> statements = statementBuilder.buildMultiRow(maxRows);
+			int remainder = statements.size() > 1 ? rows % maxRows : 0;  // Rows of trailing partial chunk
+
+			for (int i = 0; i < statements.size(); i++) {
+				count += executeBatch(statements.get(i), i == 0 ? rows - remainder : remainder, context);
+			}
+		} else {
+			count = executeBatch(statementBuilder.build(), rows, context);  // Per-row fallback for unknown parameter limits
+		}
+		statementBuilder.clear();
+
+		return count;
+	}
 	private Result<T> update(Collection<Record<UUID, T>> records, ExecutionContext context) throws SQLException {
 		ConfigurableResult<T> result = new ConfigurableResult<>();
 
 		if (!records.isEmpty()) {
+			List<FieldBackedColumn<?>> columns = streamColumns(FieldBackedColumn.class)
+					.map(column -> (FieldBackedColumn<?>) column)
+					.collect(Collectors.toList());
+			Object[] row = new Object[columns.size()];
+
 			UpdateStatementBuilder statementBuilder = new UpdateStatementBuilder(
 					context::generateStatement,
 					getName(),
-					streamColumns(FieldBackedColumn.class)
+					columns.stream()
 							.map(Column::getName)
 							.collect(Collectors.toList()),
 					resolve(Where.eqId(UUID.randomUUID()), context)
 			);
+			BatchPolicy policy = getBatchPolicy(context);
+
 			for (Record<UUID, T> record : records) {
-				statementBuilder.batch(buildBatch(record, context), resolve(Where.eqId(record.getKey()), context));
+				statementBuilder.batch(buildRow(record, columns, row, context), resolve(Where.eqId(record.getKey()), context));
 				result.add(record);
+
+				if (policy.isFull(statementBuilder.size(), statementBuilder.estimateBytes())) result.batchCount(flush(statementBuilder, context));
 			}
-			statementBuilder.build()
-					.executeBatch();
+			if (statementBuilder.size() > 0) result.batchCount(flush(statementBuilder, context));
 		}
 		return result;
 	}
+	private static int flush(UpdateStatementBuilder statementBuilder, ExecutionContext context) throws SQLException {
+		int count = executeBatch(statementBuilder.build(), statementBuilder.size(), context);
+		statementBuilder.clear();
 
-	private <R> Where whereRecordsExist(Function<Record<UUID, T>, R> recordMapper, Function<R, Where> whereMapper) {
+		return count;
+	}
+
+	/**
+	 * @param rows number of rows written by {@code statement}'s batches
+	 * @return number of affected rows; {@code rows} if the driver does not report affected row counts
+	 */
+	private static int executeBatch(PreparedStatement statement, int rows, ExecutionContext context) throws SQLException {
+		try {
+			int count = 0;
+			for (int batchCount : statement.executeBatch()) {
+				if (batchCount == Statement.SUCCESS_NO_INFO) return rows;
+				count += batchCount;
+			}
+			return count;
+		} finally {
+			context.release(statement);
+		}
+	}
+
+	private <R> Where whereRecordsExist(Collection<Record<UUID, T>> records, Function<Record<UUID, T>, R> recordMapper, Function<R, Where> whereMapper) {
 		return records.stream()
 				.map(recordMapper)
 				.map(whereMapper)
@@ -148,12 +329,37 @@ public class InsertRequest<T> extends Request<T> {
 				.orElseThrow(() -> new IllegalStateException("This should never happen"));
 	}
 
+	/**
+	 * Selects the IDs of existing records matching the persistable field values of any of the given records.
+	 * Records are matched in as many statements as required to stay within the parameter limit of the context's dialect,
+	 * and within {@value #MAX_MATCHED_RECORDS} records per statement to stay within the expression depth limits of databases such as SQLite.
+	 * @param records records to match
+	 * @param context context to work in
+	 * @return IDs of records matching any of {@code records}
+	 */
+	final Collection<UUID> selectExistingIds(Collection<Record<UUID, T>> records, ExecutionContext context) {
+		if (records.isEmpty()) return Collections.emptySet();
+
+		Set<UUID> ids = new HashSet<>();
+
+		for (List<Record<UUID, T>> chunk : partition(new ArrayList<>(records), getMatchedParameters(), MAX_MATCHED_RECORDS, context)) {
+			ids.addAll(selectIds(whereRecordsExist(chunk, Record::getObject, Where::eqObject), context));
+		}
+		return ids;
+	}
+	/** @return number of parameters bound to match a single record by content */
+	final int getMatchedParameters() {
+		return (int) TypeDescriptorFactory.get(getType()).streamColumns(FieldBackedColumn.class).count();
+	}
 	private Collection<UUID> selectIds(Where where, ExecutionContext context) {
 		return select(getType(), where)
 				.execute(context)
 				.getKeys();
 	}
 	SelectRequest<?> select(Class<?> c, Where where) {
-		return new SelectRequest<>(c, where);
+		return new SelectRequest<>(c, where).keysOnly();
+	}
+	SelectRequest<?> select(Class<?> c, Iterable<UUID> ids) {
+		return new SelectRequest<>(c, ids).keysOnly();
 	}
 }
@@ -0,0 +1,136 @@
+package dev.kkorolyov.sqlob.request;
+
+import dev.kkorolyov.sqlob.column.ReferenceColumn;
+import dev.kkorolyov.sqlob.descriptor.RowCodec.ReferenceSink;
+import dev.kkorolyov.sqlob.request.FetchPlan.Mode;
+import dev.kkorolyov.sqlob.result.Record;
+import dev.kkorolyov.sqlob.result.Result;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Handles references deferred while decoding a page of rows according to a {@link FetchPlan}.
+ * Batched references to the same type under the same nested plan are loaded by a single request.
+ * Loaded objects handle their own references in turn, so the number of requests grows with the depth of the referenced type graph rather than the number of rows.
+ */
+final class ReferenceLoader implements ReferenceSink {
+	private final FetchPlan plan;
+	private final Selector select;
+	private final BiFunction<Class<?>, UUID, Supplier<?>> lazyLoader;
+	private final Map<Batch, List<Reference>> references = new LinkedHashMap<>();
+
+	/**
+	 * Constructs a new reference loader.
+	 * @param plan plan determining how references are loaded
+	 * @param select selects records of a type by keys under a nested fetch plan
+	 * @param lazyLoader provides a loader of the record of a type with a key on first access
+	 */
+	ReferenceLoader(FetchPlan plan, Selector select, BiFunction<Class<?>, UUID, Supplier<?>> lazyLoader) {
+		this.plan = plan;
+		this.select = select;
+		this.lazyLoader = lazyLoader;
+	}
+
+	@Override
+	public void defer(ReferenceColumn column, Object instance, UUID key) {
+		String attribute = column.getField().getName();
+		Mode mode = plan.getMode(attribute);
+
+		switch (mode) {
+			case EAGER:
+				column.setLoaded(instance, key, load(column.getReferencedType(), Collections.singleton(key), plan.descend(attribute)).get(key));
+				break;
+			case LAZY:
+				column.setLazy(instance, key, lazyLoader.apply(column.getReferencedType(), key));
+				break;
+			default:
+				references.computeIfAbsent(new Batch(column.getReferencedType(), plan.descend(attribute)), k -> new ArrayList<>())
+						.add(new Reference(column, instance, key));
+		}
+	}
+
+	/**
+	 * Loads all batched references and sets them on their referencing objects.
+	 * References to missing records are set to {@code null}.
+	 */
+	void load() {
+		references.forEach((batch, batchReferences) -> {
+			Set<UUID> keys = new LinkedHashSet<>();
+			for (Reference reference : batchReferences) {
+				keys.add(reference.key);
+			}
+			Map<UUID, Object> objects = load(batch.type, keys, batch.plan);
+
+			for (Reference reference : batchReferences) {
+				reference.column.setLoaded(reference.instance, reference.key, objects.get(reference.key));
+			}
+		});
+		references.clear();
+	}
+	private Map<UUID, Object> load(Class<?> type, Collection<UUID> keys, FetchPlan plan) {
+		Map<UUID, Object> objects = new HashMap<>();
+		for (Record<UUID, ?> record : select.select(type, keys, plan).getRecords()) {
+			objects.put(record.getKey(), record.getObject());
+		}
+		return objects;
+	}
+
+	/** Selects records of a type by keys */
+	@FunctionalInterface
+	interface Selector {
+		/**
+		 * @param type type to select
+		 * @param keys keys to select
+		 * @param plan fetch plan of selected records
+		 * @return result containing all existing records of {@code type} with {@code keys}
+		 */
+		Result<?> select(Class<?> type, Collection<UUID> keys, FetchPlan plan);
+	}
+
+	private static final class Batch {
+		final Class<?> type;
+		final FetchPlan plan;
+
+		Batch(Class<?> type, FetchPlan plan) {
+			this.type = type;
+			this.plan = plan;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			Batch batch = (Batch) o;
+			return type.equals(batch.type) &&
+					plan.equals(batch.plan);
+		}
+		@Override
+		public int hashCode() {
+			return Objects.hash(type, plan);
+		}
+	}
+	private static final class Reference {
+		final ReferenceColumn column;
+		final Object instance;
+		final UUID key;
+
+		Reference(ReferenceColumn column, Object instance, UUID key) {
+			this.column = column;
+			this.instance = instance;
+			this.key = key;
+		}
+	}
+}
@@ -2,27 +2,27 @@ package dev.kkorolyov.sqlob.request;
 
 import dev.kkorolyov.sqlob.ExecutionContext;
 import dev.kkorolyov.sqlob.column.Column;
-import dev.kkorolyov.sqlob.column.KeyColumn;
-import dev.kkorolyov.sqlob.column.handler.factory.ColumnHandlerFactory;
+import dev.kkorolyov.sqlob.descriptor.RowCodec;
+import dev.kkorolyov.sqlob.descriptor.TypeDescriptor;
+import dev.kkorolyov.sqlob.descriptor.factory.TypeDescriptorFactory;
 import dev.kkorolyov.sqlob.result.Record;
 import dev.kkorolyov.sqlob.result.Result;
 import dev.kkorolyov.sqlob.struct.Table;
-import dev.kkorolyov.sqlob.util.PersistenceHelper;
 import dev.kkorolyov.sqlob.util.UncheckedSqlException;
 import dev.kkorolyov.sqlob.util.Where;
 
-import java.lang.reflect.Field;
 import java.sql.SQLException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
-import static dev.kkorolyov.simplefuncs.stream.Collectors.keyedOn;
-import static dev.kkorolyov.sqlob.util.PersistenceHelper.getPersistableFields;
 import static dev.kkorolyov.sqlob.util.UncheckedSqlException.wrapSqlException;
 
 /**
@@ -30,17 +30,20 @@ import static dev.kkorolyov.sqlob.util.UncheckedSqlException.wrapSqlException;
  * @param <T> handled type
  */
 public abstract class Request<T> {
+	private static final int DEFAULT_MAX_PARAMETERS = 999;  // Lowest limit among known dialects
+
 	// TODO Use struct.Table
 	private final Class<T> type;
 	private final String name;
 	private final Map<String, Column<?>> columns;
+	private RowCodec<T> codec;
 
 	/**
-	 * Constructs a new request with name retrieved from {@code type} using {@link PersistenceHelper}.
-	 * @see #Request(Class, String)
+	 * Constructs a new request with name and columns retrieved from {@code type}'s {@link TypeDescriptor}.
+	 * @param type associated type
 	 */
 	protected Request(Class<T> type) {
-		this(type, PersistenceHelper.getName(type));
+		this(TypeDescriptorFactory.get(type));
 	}
 	/**
 	 * Constructs a new request with an ID column and additional columns generated from each persistable field in {@code type}.
@@ -48,15 +51,7 @@ public abstract class Request<T> {
 	 * @param name associated table name
 	 */
 	protected Request(Class<T> type, String name) {
-		this(
-				type,
-				name,
-				Stream.concat(
-						Stream.of(KeyColumn.ID),
-						getPersistableFields(type)
-								.map(f -> ColumnHandlerFactory.get(f).get(f))
-				)
-		);
+		this(type, name, TypeDescriptorFactory.get(type).getColumnsByName());
 	}
 
 	/**
@@ -66,14 +61,27 @@ public abstract class Request<T> {
 	 * @param columns associated columns
 	 */
 	protected Request(Class<T> type, String name, Iterable<Column<?>> columns) {
-		this(type, name, StreamSupport.stream(columns.spliterator(), false));
+		this(type, name, keyedOnName(columns));
 	}
 
-	private Request(Class<T> type, String name, Stream<Column<?>> columns) {
+	private Request(TypeDescriptor<T> descriptor) {
+		this(descriptor.getType(), descriptor.getName(), descriptor.getColumnsByName());
+		codec = descriptor.getCodec();
+	}
+	private Request(Class<T> type, String name, Map<String, Column<?>> columns) {
 		this.type = type;
 		this.name = name;
-		this.columns = columns
-				.collect(keyedOn(Column::getName));
+		this.columns = columns;
+	}
+
+	private static Map<String, Column<?>> keyedOnName(Iterable<Column<?>> columns) {
+		return StreamSupport.stream(columns.spliterator(), false)
+				.collect(Collectors.toMap(
+						Column::getName,
+						Function.identity(),
+						(column, column1) -> column1,
+						LinkedHashMap::new
+				));
 	}
 
 	/**
@@ -89,40 +97,77 @@ public abstract class Request<T> {
 
 	/**
 	 * Resolves a where clause's values within a given context.
+	 * The where clause is {@link Where#normalize() normalized} before resolution.
 	 * @param where where to resolve
 	 * @param context context to work in
 	 * @return resolved where
 	 * @throws IllegalArgumentException if an attribute in {@code where} does not correspond to a persistable field on this request's {@code type}
 	 */
 	protected final Where resolve(Where where, ExecutionContext context) {
-		Map<String, String> fieldNames = new HashMap<>(PersistenceHelper.getPersistableFields(getType())
-				.collect(Collectors.toMap(
-						Field::getName,
-						PersistenceHelper::getName
-				)));
-		fieldNames.put(KeyColumn.ID.getName(), KeyColumn.ID.getName());
-
-		return where.map(
-				name -> {
-					String resolvedName = fieldNames.get(name);
-					if (resolvedName == null) throw new IllegalArgumentException("No such persistable field: " + name + " for type: " + getType() + "; available persistable fields: " + fieldNames.keySet());
-					return resolvedName;
-				},
+		return where.normalize().map(
+				this::resolveName,
 				(name, value) -> getColumn(name).resolve(value, context)
 		);
 	}
+	/**
+	 * @param attribute persistable field name
+	 * @return name of column persisting {@code attribute}
+	 * @throws IllegalArgumentException if {@code attribute} does not correspond to a persistable field on this request's {@code type}
+	 */
+	protected final String resolveName(String attribute) {
+		TypeDescriptor<T> descriptor = TypeDescriptorFactory.get(getType());
+
+		String resolvedName = descriptor.getColumnName(attribute);
+		if (resolvedName == null) throw new IllegalArgumentException("No such persistable field: " + attribute + " for type: " + getType() + "; available persistable fields: " + descriptor.getFieldNames());
+		return resolvedName;
+	}
 
 	/**
-	 * @param record record to build a statement batch for
+	 * Splits values into chunks small enough to bind as the parameters of a single statement within a given context.
+	 * @param values values to split
+	 * @param context context to work in
+	 * @param <E> value type
+	 * @return consecutive chunks of {@code values}, each within the parameter limit of {@code context}'s dialect
+	 */
+	protected final <E> List<List<E>> partition(List<E> values, ExecutionContext context) {
+		return partition(values, 1, Integer.MAX_VALUE, context);
+	}
+	/**
+	 * Splits values into chunks small enough to bind as the parameters of a single statement within a given context.
+	 * @param values values to split
+	 * @param parametersPerValue number of parameters bound for each value
+	 * @param maxChunkSize maximum number of values per chunk, regardless of parameter limit
+	 * @param context context to work in
+	 * @param <E> value type
+	 * @return consecutive chunks of {@code values}, each of at most {@code maxChunkSize} values and within the parameter limit of {@code context}'s dialect
+	 */
+	protected final <E> List<List<E>> partition(List<E> values, int parametersPerValue, int maxChunkSize, ExecutionContext context) {
+		int maxParameters = context.getDialect().getMaxParameters();
+		int chunkSize = Math.min(
+				Math.max((maxParameters > 0 ? maxParameters : DEFAULT_MAX_PARAMETERS) / Math.max(parametersPerValue, 1), 1),
+				maxChunkSize
+		);
+
+		List<List<E>> chunks = new ArrayList<>();
+		for (int i = 0; i < values.size(); i += chunkSize) {
+			chunks.add(values.subList(i, Math.min(i + chunkSize, values.size())));
+		}
+		return chunks;
+	}
+
+	/**
+	 * Fills a row with the values of columns associated with a record.
+	 * @param record record to build a row for
+	 * @param columns columns to get values of, in row order
+	 * @param row array to fill with the value of each of {@code columns}; may be reused across records
 	 * @param context execution context to work in
-	 * @return {@code {name, value}} pairs for values of each column associated with {@code record}
+	 * @return {@code row}
 	 */
-	protected final Map<String, Object> buildBatch(Record<UUID, T> record, ExecutionContext context) {
-		return streamColumns()
-				.collect(Collectors.toMap(
-						Column::getName,
-						column -> column.get(record, context)
-				));
+	protected final Object[] buildRow(Record<UUID, T> record, List<? extends Column<?>> columns, Object[] row, ExecutionContext context) {
+		for (int i = 0; i < row.length; i++) {
+			row[i] = columns.get(i).get(record, context);
+		}
+		return row;
 	}
 
 	/**
@@ -147,6 +192,12 @@ public abstract class Request<T> {
 		return name;
 	}
 
+	/** @return codec decoding rows of all columns in this request */
+	protected final RowCodec<T> getCodec() {
+		if (codec == null) codec = new RowCodec<>(type, columns.values());
+		return codec;
+	}
+
 	/**
 	 * @param name name of column to get
 	 * @return column with name matching {@code name}
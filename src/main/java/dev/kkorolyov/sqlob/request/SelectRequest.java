@@ -1,49 +1,102 @@
 package dev.kkorolyov.sqlob.request;
 
+import dev.kkorolyov.sqlob.EntityCache;
 import dev.kkorolyov.sqlob.ExecutionContext;
+import dev.kkorolyov.sqlob.IdentityMap;
+import dev.kkorolyov.sqlob.Session;
 import dev.kkorolyov.sqlob.column.Column;
+import dev.kkorolyov.sqlob.column.FieldBackedColumn;
+import dev.kkorolyov.sqlob.column.KeyColumn;
+import dev.kkorolyov.sqlob.descriptor.RowCodec;
 import dev.kkorolyov.sqlob.result.ConfigurableRecord;
 import dev.kkorolyov.sqlob.result.ConfigurableResult;
+import dev.kkorolyov.sqlob.result.Record;
 import dev.kkorolyov.sqlob.result.Result;
 import dev.kkorolyov.sqlob.statement.SelectStatementBuilder;
-import dev.kkorolyov.sqlob.util.ReflectionHelper;
+import dev.kkorolyov.sqlob.util.Order;
 import dev.kkorolyov.sqlob.util.Where;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import static dev.kkorolyov.sqlob.util.UncheckedSqlException.wrapSqlException;
 import static dev.kkorolyov.sqlob.util.Where.eqId;
 import static dev.kkorolyov.sqlob.util.Where.eqObject;
+import static dev.kkorolyov.sqlob.util.Where.inIds;
 
 /**
  * Request to select records from a class's table.
+ * Records may be sorted, limited, and paginated by keyset, in which case results retain the selection order.
+ * Selection may be restricted to a subset of columns, decoded into partial objects, bare keys, or value tuples.
+ * Within a session, whole selected objects are resolved through the session's {@link IdentityMap}, and tracked objects selected by ID are not reselected.
+ * Objects first loaded by {@link #stream(ExecutionContext) streaming} are not tracked, so that streams over large tables do not retain their objects.
+ * Whole objects selected by ID, without sorting or limits, are additionally read through the session's {@link EntityCache}, if it caches this request's type.
  */
 public class SelectRequest<T> extends Request<T> {
+	private final T instance;
 	private final Where where;
+	private final List<UUID> ids;
+	private final List<Order> orders = new ArrayList<>();
+	private int limit;
+	private List<Object> after;
+	private RowCodec<T> projection;
+	private FetchPlan fetchPlan = FetchPlan.DEFAULT;
 
 	/**
 	 * Constructs a select request retrieving an instance.
+	 * Matches by the instance's key if tracked by the executing session, else by the values of all its persistable fields.
 	 * @param instance instance to match
 	 * @see #SelectRequest(Class, Where)
 	 */
 	public SelectRequest(T instance) {
-		this(
-				(Class<T>) instance.getClass(),
-				eqObject(instance)
-		);
+		super((Class<T>) instance.getClass());
+
+		this.instance = instance;
+		this.where = eqObject(instance);
+		this.ids = null;
 	}
 	/**
 	 * Constructs a select request retrieving by ID.
 	 * @param id ID to match
-	 * @see #SelectRequest(Class, Where)
+	 * @see #SelectRequest(Class, Iterable)
 	 */
 	public SelectRequest(Class<T> type, UUID id) {
-		this(
-				type,
-				eqId(id)
-		);
+		this(type, Collections.singletonList(id));
+	}
+	/**
+	 * Constructs a select request retrieving by multiple IDs.
+	 * IDs are matched in as many statements as required to stay within the parameter limit of the executing context's dialect.
+	 * @param ids IDs to match
+	 * @see Request#Request(Class)
+	 */
+	public SelectRequest(Class<T> type, Iterable<UUID> ids) {
+		super(type);
+
+		this.instance = null;
+		this.where = null;
+		this.ids = StreamSupport.stream(ids.spliterator(), false)
+				.distinct()
+				.collect(Collectors.toList());
 	}
 	/**
 	 * Constructs a new select request.
@@ -53,7 +106,9 @@ public class SelectRequest<T> extends Request<T> {
 	public SelectRequest(Class<T> type, Where where) {
 		super(type);
 
+		this.instance = null;
 		this.where = where;
+		this.ids = null;
 	}
 
 	/**
@@ -63,36 +118,362 @@ public class SelectRequest<T> extends Request<T> {
 	SelectRequest(Class<T> type, String name, Where where, Iterable<Column<?>> columns) {
 		super(type, name, columns);
 
+		this.instance = null;
 		this.where = where;
+		this.ids = null;
+	}
+
+	/**
+	 * Sorts selected records.
+	 * Records are additionally sorted by ID to break ties, unless ordered by ID explicitly.
+	 * @param orders orders to append to this request's orders, in precedence order
+	 * @return {@code this}
+	 */
+	public SelectRequest<T> orderBy(Order... orders) {
+		this.orders.addAll(Arrays.asList(orders));
+		return this;
+	}
+	/**
+	 * Limits the number of selected records.
+	 * Records are sorted by ID if no other order is specified.
+	 * @param limit maximum number of records to select; {@code 0} for no limit
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if {@code limit < 0}
+	 */
+	public SelectRequest<T> limit(int limit) {
+		if (limit < 0) throw new IllegalArgumentException("limit must be >= 0: " + limit);
+
+		this.limit = limit;
+		return this;
+	}
+	/**
+	 * Selects only records sorting after the last record of a previous page of this request.
+	 * Should be invoked after {@link #orderBy(Order...)}.
+	 * @param last last record of the previous page
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if an ordered attribute is not a persistable field of this request's type
+	 * @see #after(UUID, Object...)
+	 */
+	public SelectRequest<T> after(Record<UUID, T> last) {
+		return after(
+				last.getKey(),
+				orders.stream()
+						.map(order -> getValue(last, order.getAttribute()))
+						.toArray()
+		);
+	}
+	/**
+	 * Selects only records sorting after a last seen record, as identified by its ID and values of sorted attributes.
+	 * Should be invoked after {@link #orderBy(Order...)}.
+	 * Sorted attributes of selected records should not be {@code null}.
+	 * @param lastId ID of the last seen record
+	 * @param lastValues values of each of this request's ordered attributes in the last seen record
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if there is not a value for each of this request's orders
+	 */
+	public SelectRequest<T> after(UUID lastId, Object... lastValues) {
+		if (lastValues.length != orders.size()) throw new IllegalArgumentException("Expected " + orders.size() + " values, got: " + lastValues.length);
+
+		after = new ArrayList<>(Arrays.asList(lastValues));
+		if (getOrders().size() > orders.size()) after.add(lastId);
+
+		return this;
+	}
+
+	/**
+	 * Selects only the ID column and the columns persisting the given attributes.
+	 * Selected records contain partial objects, which have all other persistable fields left at their default values.
+	 * @param attributes persistable field names to select
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if an attribute is not a persistable field of this request's type
+	 */
+	public SelectRequest<T> project(String... attributes) {
+		Set<Column<?>> columns = new LinkedHashSet<>();
+		columns.add(getColumn(KeyColumn.ID.getName()));
+		for (String attribute : attributes) {
+			columns.add(getColumn(resolveName(attribute)));
+		}
+		projection = new RowCodec<>(getType(), columns);
+		return this;
+	}
+	/**
+	 * Selects only the ID column.
+	 * Selected records contain keys and {@code null} objects, so no instances of this request's type are created.
+	 * @return {@code this}
+	 */
+	public SelectRequest<T> keysOnly() {
+		projection = RowCodec.keys(getType(), getColumn(KeyColumn.ID.getName()));
+		return this;
+	}
+	/**
+	 * Sets how objects referenced by selected records are loaded.
+	 * Applies when executed by {@link #execute(ExecutionContext)}; streamed records load references by a request per row.
+	 * @param fetchPlan plan of loading references
+	 * @return {@code this}
+	 */
+	public SelectRequest<T> fetch(FetchPlan fetchPlan) {
+		this.fetchPlan = fetchPlan;
+		return this;
+	}
+	/** @return codec decoding the columns selected by this request */
+	private RowCodec<T> getSelectCodec() {
+		return projection != null ? projection : getCodec();
 	}
 
+	private Object getValue(Record<UUID, T> record, String attribute) {
+		if (KeyColumn.ID.getName().equals(attribute)) return record.getKey();
+
+		return streamColumns(FieldBackedColumn.class)
+				.filter(column -> column.getField().getName().equals(attribute))
+				.findFirst()
+				.map(column -> column.getAccessor().get(record.getObject()))
+				.orElseThrow(() -> new IllegalArgumentException("No such persistable field: " + attribute + " for type: " + getType()));
+	}
+	/** @return all orders of this request, including the ID tiebreaker */
+	private List<Order> getOrders() {
+		if (orders.stream().anyMatch(order -> order.getAttribute().equals(KeyColumn.ID.getName()))) return orders;
+
+		List<Order> result = new ArrayList<>(orders);
+		result.add(Order.id());
+		return result;
+	}
+	private boolean isOrdered() {
+		return !orders.isEmpty() || limit > 0 || after != null;
+	}
+
+	/**
+	 * Objects referenced by selected records are loaded according to this request's {@link #fetch(FetchPlan) fetch plan}.
+	 */
 	@Override
 	protected Result<T> executeThrowing(ExecutionContext context) throws SQLException {
-		ResultSet rs = selectBuilder(context).build()
-				.executeQuery();
-
+		RowCodec<T> codec = getSelectCodec();
+		ReferenceLoader references = new ReferenceLoader(
+				fetchPlan,
+				(c, ids, plan) -> select(c, ids).fetch(plan).execute(context),
+				(c, id) -> lazyLoader(c, id, context)
+		);
+		IdentityMap identities = isTracked() ? context.getIdentityMap() : null;
 		ConfigurableResult<T> result = new ConfigurableResult<>();
 
-		while (rs.next()) {
-			result.add(streamColumns()
-					.reduce(
-							new ConfigurableRecord<UUID, T>()
-									.setObject(ReflectionHelper.newInstance(getType())),
-							(record, column) -> column.set(record, rs, context),
-							(record, record1) -> record
-					));
+		List<UUID> ids = this.ids;
+		if (ids != null && identities != null && !isOrdered()) {
+			ids = new ArrayList<>();
+
+			for (UUID id : this.ids) {
+				T tracked = identities.get(getType(), id);
+
+				if (tracked != null) result.add(new ConfigurableRecord<>(id, tracked));
+				else ids.add(id);
+			}
 		}
+		EntityCache cache = ids != null && isTracked() && !isOrdered() && codec.isAssemblable() ? context.getEntityCache(getType()) : null;
+		if (cache != null) {
+			Map<UUID, Object[]> states = cache.get(getType(), ids, missingIds -> wrapSqlException(() -> selectStates(missingIds, codec, context)));
+
+			for (UUID id : ids) {
+				Object[] state = states.get(id);
+				if (state != null) result.add(track(codec.assemble(id, state, references), identities));
+			}
+		} else {
+			for (SelectStatementBuilder statementBuilder : selectBuilders(ids, context)) {
+				select(statementBuilder, rs -> result.add(track(codec.decode(rs, context, references), identities)), context);
+			}
+		}
+		references.load();
+
 		return result;
 	}
+	private Map<UUID, Object[]> selectStates(Collection<UUID> ids, RowCodec<T> codec, ExecutionContext context) throws SQLException {
+		Map<UUID, Object[]> states = new HashMap<>();
+
+		for (SelectStatementBuilder statementBuilder : selectBuilders(new ArrayList<>(ids), context)) {
+			select(statementBuilder, rs -> {
+				Record<UUID, Object[]> state = codec.decodeState(rs, context);
+				states.put(state.getKey(), state.getObject());
+			}, context);
+		}
+		return states;
+	}
+	/** @return whether this request selects whole objects, which may be tracked in an identity map */
+	private boolean isTracked() {
+		return projection == null;
+	}
+	/**
+	 * @param identities identity map to resolve {@code record} through, or {@code null} if none
+	 * @return record with the object already tracked with {@code record}'s key, if any, else {@code record} after tracking its object
+	 */
+	private Record<UUID, T> track(Record<UUID, T> record, IdentityMap identities) {
+		Record<UUID, T> resolved = resolve(record, identities);
+		if (identities != null && resolved == record) identities.put(record.getKey(), record.getObject());
+
+		return resolved;
+	}
+	/**
+	 * @param identities identity map to resolve {@code record} through, or {@code null} if none
+	 * @return record with the object already tracked with {@code record}'s key, if any, else {@code record}
+	 */
+	private Record<UUID, T> resolve(Record<UUID, T> record, IdentityMap identities) {
+		T tracked = identities != null ? identities.get(getType(), record.getKey()) : null;
+		return tracked != null ? new ConfigurableRecord<>(record.getKey(), tracked) : record;
+	}
+
+	/**
+	 * Executes this request within the given context, decoding each selected row into a tuple of raw column values rather than a record.
+	 * Tuple values are ordered as selected: the record ID first, followed by each projected attribute in {@link #project(String...) projection} order, or by all other columns if not projected.
+	 * @param context execution context
+	 * @return tuples of selected values, in selection order
+	 * @throws dev.kkorolyov.sqlob.util.UncheckedSqlException if a SQL database issue occurs
+	 */
+	public List<Object[]> tuples(ExecutionContext context) {
+		return wrapSqlException(() -> {
+			RowCodec<T> codec = getSelectCodec();
+			List<Object[]> tuples = new ArrayList<>();
+
+			for (SelectStatementBuilder statementBuilder : selectBuilders(ids, context)) {
+				select(statementBuilder, rs -> tuples.add(codec.decodeValues(rs, context)), context);
+			}
+			return tuples;
+		});
+	}
+
+	private void select(SelectStatementBuilder statementBuilder, Consumer<ResultSet> rowConsumer, ExecutionContext context) throws SQLException {
+		PreparedStatement statement = statementBuilder.build();
+
+		try (ResultSet rs = statement.executeQuery()) {
+			while (rs.next()) {
+				rowConsumer.accept(rs);
+			}
+		} finally {
+			context.release(statement);
+		}
+	}
+
+	/**
+	 * Executes this request lazily within the given context.
+	 * Rows are fetched in batches of the context dialect's fetch size and decoded only as the returned stream is consumed.
+	 * The returned stream holds an open result set, and must be closed to release it; the given context must remain open until then.
+	 * Streamed objects already tracked by the context's identity map are resolved to their tracked instances, but other streamed objects are not tracked.
+	 * @param context execution context
+	 * @return ordered stream over selected records
+	 * @throws dev.kkorolyov.sqlob.util.UncheckedSqlException if a SQL database issue occurs
+	 */
+	public Stream<Record<UUID, T>> stream(ExecutionContext context) {
+		List<SelectStatementBuilder> statementBuilders = selectBuilders(ids, context);
 
+		return statementBuilders.size() == 1
+				? stream(statementBuilders.get(0), context)
+				: statementBuilders.stream()
+						.flatMap(statementBuilder -> stream(statementBuilder, context));
+	}
+	private Stream<Record<UUID, T>> stream(SelectStatementBuilder statementBuilder, ExecutionContext context) {
+		return wrapSqlException(() -> {
+			PreparedStatement statement = statementBuilder.build();
+			ResultSet rs;
+			try {
+				int fetchSize = context.getDialect().getFetchSize();
+				if (fetchSize > 0) statement.setFetchSize(fetchSize);
+
+				rs = statement.executeQuery();
+			} catch (SQLException | RuntimeException e) {
+				context.release(statement);
+				throw e;
+			}
+			return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new RowIterator(rs, context), Spliterator.ORDERED | Spliterator.NONNULL), false)
+					.onClose(() -> {
+						try {
+							wrapSqlException(rs::close);
+						} finally {
+							context.release(statement);
+						}
+					});
+		});
+	}
+
+	/** @return builders of all statements selecting this request's records */
+	private List<SelectStatementBuilder> selectBuilders(List<UUID> ids, ExecutionContext context) {
+		if (ids == null) return Collections.singletonList(selectBuilder(context));
+
+		List<List<UUID>> chunks = partition(ids, context);
+		if (chunks.size() > 1 && isOrdered()) throw new IllegalStateException("Cannot sort or limit selection of " + ids.size() + " IDs spanning multiple statements");
+
+		return chunks.stream()
+				.map(chunk -> selectBuilder(context, inIds(chunk)))
+				.collect(Collectors.toList());
+	}
 	SelectStatementBuilder selectBuilder(ExecutionContext context) {
+		return selectBuilder(context, getWhere(context));
+	}
+	private Where getWhere(ExecutionContext context) {
+		IdentityMap identities = instance != null ? context.getIdentityMap() : null;
+		UUID key = identities != null ? identities.getKey(instance) : null;
+
+		return key != null ? eqId(key) : where;
+	}
+	SelectRequest<?> select(Class<?> c, Iterable<UUID> ids) {
+		return new SelectRequest<>(c, ids);
+	}
+	static Supplier<?> lazyLoader(Class<?> c, UUID id, ExecutionContext context) {
+		Session session = context.getSession().orElse(null);
+		int generation = session != null ? session.getGeneration() : 0;
+
+		return () -> {
+			if (session == null) throw new IllegalStateException("Cannot load lazy reference to " + c + " with ID " + id + " without a session");
+			if (session.getGeneration() != generation) throw new IllegalStateException("Cannot load lazy reference to " + c + " with ID " + id + " after its session was closed");
+
+			return session.execute(new SelectRequest<>(c, id))
+					.getObject()
+					.orElse(null);
+		};
+	}
+	private SelectStatementBuilder selectBuilder(ExecutionContext context, Where where) {
+		if (!isOrdered()) {
+			return new SelectStatementBuilder(
+					context::generateStatement,
+					getName(),
+					getSelectCodec().getColumnNames(),
+					resolve(where, context)
+			);
+		}
+		List<Order> orders = getOrders();
+
 		return new SelectStatementBuilder(
 				context::generateStatement,
 				getName(),
-				streamColumns()
-						.map(Column::getName)
-						.collect(Collectors.toSet()),
-				resolve(where, context)
-		);
+				getSelectCodec().getColumnNames(),
+				resolve(after != null ? where.and(Where.after(orders, after)) : where, context)
+		).orderBy(orders.stream()
+				.map(order -> order.isAscending()
+						? Order.asc(resolveName(order.getAttribute()))
+						: Order.desc(resolveName(order.getAttribute())))
+				.collect(Collectors.toList())
+		).limit(limit, context.getDialect().getLimit());
+	}
+
+	/** Decodes rows of a result set on demand */
+	private final class RowIterator implements Iterator<Record<UUID, T>> {
+		private final ResultSet rs;
+		private final ExecutionContext context;
+		private final RowCodec<T> codec = getSelectCodec();
+		private final IdentityMap identities;
+		private Boolean hasNext;
+
+		RowIterator(ResultSet rs, ExecutionContext context) {
+			this.rs = rs;
+			this.context = context;
+			identities = isTracked() ? context.getIdentityMap() : null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (hasNext == null) hasNext = wrapSqlException(rs::next);
+			return hasNext;
+		}
+		@Override
+		public Record<UUID, T> next() {
+			if (!hasNext()) throw new NoSuchElementException();
+
+			hasNext = null;
+			return resolve(codec.decode(rs, context), identities);  // Not tracked, to keep streaming memory flat
+		}
 	}
 }
@@ -0,0 +1,97 @@
+package dev.kkorolyov.sqlob.request;
+
+import dev.kkorolyov.sqlob.ExecutionContext;
+import dev.kkorolyov.sqlob.IdentityMap;
+import dev.kkorolyov.sqlob.column.Column;
+import dev.kkorolyov.sqlob.result.ConfigurableResult;
+import dev.kkorolyov.sqlob.result.Result;
+import dev.kkorolyov.sqlob.statement.UpdateStatementBuilder;
+import dev.kkorolyov.sqlob.util.Where;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request to set values of persistable fields in all matching records of a class's table.
+ * Records are updated by a single statement, without being retrieved.
+ * Within a session, objects of the updated type stop being tracked by the session's {@link IdentityMap}, and are invalidated in the session's {@link dev.kkorolyov.sqlob.EntityCache}, as they may no longer match their records.
+ * Result contains number of updated records.
+ */
+public class UpdateRequest<T> extends Request<T> {
+	private final Map<String, Object> assignments;
+	private final Where where;
+
+	/**
+	 * Constructs a new update request.
+	 * @param assignments {@code {fieldName, value}} pairs to set in each matching record
+	 * @param where update constraint
+	 * @throws IllegalArgumentException if {@code assignments} is empty
+	 * @see Request#Request(Class)
+	 */
+	public UpdateRequest(Class<T> type, Map<String, Object> assignments, Where where) {
+		super(type);
+
+		this.assignments = checkAssignments(assignments);
+		this.where = where;
+	}
+
+	/**
+	 * Constructs a new update request with custom columns.
+	 * @see Request#Request(Class, String, Iterable)
+	 */
+	UpdateRequest(Class<T> type, String name, Map<String, Object> assignments, Where where, Iterable<Column<?>> columns) {
+		super(type, name, columns);
+
+		this.assignments = checkAssignments(assignments);
+		this.where = where;
+	}
+
+	private static Map<String, Object> checkAssignments(Map<String, Object> assignments) {
+		if (assignments.isEmpty()) throw new IllegalArgumentException("No assignments specified");
+		return new LinkedHashMap<>(assignments);
+	}
+
+	@Override
+	protected Result<T> executeThrowing(ExecutionContext context) throws SQLException {
+		PreparedStatement statement = updateBuilder(context).buildSingle();
+
+		try {
+			int updated = statement.executeUpdate();
+			context.invalidate(getType());
+
+			IdentityMap identities = context.getIdentityMap();
+			if (identities != null) identities.remove(getType());
+
+			return new ConfigurableResult<T>().size(updated);
+		} finally {
+			context.release(statement);
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException if an assigned field is not a persistable field of this request's type
+	 */
+	UpdateStatementBuilder updateBuilder(ExecutionContext context) {
+		List<String> names = new ArrayList<>(assignments.size());
+		Object[] values = new Object[assignments.size()];
+
+		assignments.forEach((attribute, value) -> {
+			String name = resolveName(attribute);
+
+			values[names.size()] = getColumn(name).resolve(value, context);
+			names.add(name);
+		});
+		Where resolvedWhere = resolve(where, context);
+
+		return new UpdateStatementBuilder(
+				context::generateStatement,
+				getName(),
+				names,
+				resolvedWhere
+		).batch(values, resolvedWhere);
+	}
+}
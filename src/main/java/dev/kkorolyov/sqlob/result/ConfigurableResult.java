@@ -1,7 +1,10 @@
 package dev.kkorolyov.sqlob.result;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -9,9 +12,11 @@ import java.util.stream.Collectors;
 
 /**
  * A {@link Result} that can be incrementally built/configured.
+ * Retains records in the order they are added.
  */
 public class ConfigurableResult<T> implements Result<T> {
-	private final Collection<Record<UUID, T>> records = new HashSet<>();
+	private final Collection<Record<UUID, T>> records = new LinkedHashSet<>();
+	private final List<Integer> batchCounts = new ArrayList<>();
 	private Integer customSize;
 
 	/**
@@ -31,6 +36,23 @@ public class ConfigurableResult<T> implements Result<T> {
 		return this;
 	}
 
+	/**
+	 * @param count number of rows affected by a flushed batch
+	 * @return {@code this}
+	 */
+	public ConfigurableResult<T> batchCount(int count) {
+		batchCounts.add(count);
+		return this;
+	}
+	/**
+	 * @param counts numbers of rows affected by flushed batches, in execution order
+	 * @return {@code this}
+	 */
+	public ConfigurableResult<T> batchCounts(Iterable<Integer> counts) {
+		counts.forEach(batchCounts::add);
+		return this;
+	}
+
 	/**
 	 * @param size custom size to set, overrides the default of {@code records.size()}
 	 * @return {@code this}
@@ -49,13 +71,13 @@ public class ConfigurableResult<T> implements Result<T> {
 	public Collection<UUID> getKeys() {
 		return getRecords().stream()
 				.map(Record::getKey)
-				.collect(Collectors.toSet());
+				.collect(Collectors.toCollection(LinkedHashSet::new));
 	}
 	@Override
 	public Collection<T> getObjects() {
 		return getRecords().stream()
 				.map(Record::getObject)
-				.collect(Collectors.toSet());
+				.collect(Collectors.toCollection(LinkedHashSet::new));
 	}
 
 	@Override
@@ -76,6 +98,11 @@ public class ConfigurableResult<T> implements Result<T> {
 				: records.size();
 	}
 
+	@Override
+	public List<Integer> getBatchCounts() {
+		return Collections.unmodifiableList(batchCounts);
+	}
+
 	@Override
 	public Optional<Result<T>> asOptional() {
 		return getObject()
@@ -89,10 +116,11 @@ public class ConfigurableResult<T> implements Result<T> {
 
 		ConfigurableResult<?> result = (ConfigurableResult<?>) o;
 		return Objects.equals(records, result.records)
+				&& Objects.equals(batchCounts, result.batchCounts)
 				&& Objects.equals(customSize, result.customSize);
 	}
 	@Override
 	public int hashCode() {
-		return Objects.hash(records, customSize);
+		return Objects.hash(records, batchCounts, customSize);
 	}
 }
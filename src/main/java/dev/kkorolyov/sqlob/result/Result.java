@@ -3,6 +3,8 @@ package dev.kkorolyov.sqlob.result;
 import dev.kkorolyov.sqlob.request.Request;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,6 +28,10 @@ public interface Result<T> {
 
 	/** @return number of records */
 	int size();
+	/** @return number of rows affected by each flushed batch of a batched write, in execution order; empty if no batches were flushed */
+	default List<Integer> getBatchCounts() {
+		return Collections.emptyList();
+	}
 
 	/** @return optional containing this result if it has at least one record, else an empty optional */
 	Optional<Result<T>> asOptional();
@@ -3,19 +3,29 @@ package dev.kkorolyov.sqlob.statement;
 import dev.kkorolyov.simplefuncs.function.ThrowingBiConsumer;
 import dev.kkorolyov.simplefuncs.function.ThrowingConsumer;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Maintains ordered batches of values with common keys.
+ * Values are stored in columnar buffers addressed by key ordinal; columns of {@code int}, {@code long}, {@code double}, or {@code boolean} values are stored unboxed.
+ * Buffers are retained across {@link #clear()}, so a batcher may be refilled without reallocating.
  * @param <K> batch key type
  * @param <V> batch value type
  */
 public class Batcher<K, V> {
 	private final List<K> keys;
-	private final List<List<V>> batches = new ArrayList<>();
+	private final Map<K, Integer> ordinals = new HashMap<>();
+	private final ColumnBuffer[] columns;
+	private int size;
+	private long bytes;
 
 	/**
 	 * Constructs a new batcher for a list of keys.
@@ -23,27 +33,125 @@ public class Batcher<K, V> {
 	 */
 	public Batcher(List<K> keys) {
 		this.keys = new ArrayList<>(keys);
+		columns = new ColumnBuffer[this.keys.size()];
+
+		for (int i = 0; i < columns.length; i++) {
+			ordinals.putIfAbsent(this.keys.get(i), i);
+			columns[i] = new ColumnBuffer();
+		}
+	}
+
+	/**
+	 * @param key key to get ordinal of
+	 * @return index of {@code key} in this batcher's keys, or {@code -1} if not a key of this batcher
+	 */
+	public int ordinal(K key) {
+		Integer ordinal = ordinals.get(key);
+		return ordinal != null ? ordinal : -1;
 	}
 
 	/**
 	 * Adds a batch to this batcher.
-	 * @param batch {@code {key, value}} pairs to add as a batch to this batcher
+	 * @param batch {@code {key, value}} pairs to add as a batch to this batcher; pairs with keys not in this batcher are ignored
 	 * @return {@code this}
-	 * @throws IllegalArgumentException if any key in {@code batch} is not in the list of keys set in this batcher
 	 */
-	public Batcher batch(Map<K, V> batch) {
-		List<V> orderedBatch = new ArrayList<>(Collections.nCopies(keys.size(), null));
-		Collections.fill(orderedBatch, null);
+	public Batcher<K, V> batch(Map<K, V> batch) {
+		int row = addRow();
 
 		batch.forEach((key, value) -> {
-			int i = keys.indexOf(key);
-			// if (i < 0) throw new IllegalArgumentException("Unknown key: " + key + "; known keys" + keys);
-			if (i >= 0) orderedBatch.set(i, value);
+			Integer i = ordinals.get(key);
+			if (i != null) bytes += columns[i].set(row, value);
 		});
-		batches.add(orderedBatch);
+		return this;
+	}
+	/**
+	 * Adds a batch to this batcher.
+	 * @param batch values to add as a batch to this batcher, ordered by key; copied, so may be reused by the caller
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if the length of {@code batch} does not match the number of keys in this batcher
+	 */
+	public Batcher<K, V> batch(V[] batch) {
+		if (batch.length != columns.length) throw new IllegalArgumentException("Expected " + columns.length + " values, got: " + batch.length);
+
+		int row = addRow();
 
+		for (int i = 0; i < columns.length; i++) {
+			bytes += columns[i].set(row, batch[i]);
+		}
 		return this;
 	}
+	private int addRow() {
+		int row = size++;
+
+		for (ColumnBuffer column : columns) {
+			column.setNull(row);
+		}
+		return row;
+	}
+
+	/**
+	 * @param batch index of batch to get
+	 * @return values of batch at index {@code batch}, ordered by key
+	 * @throws IndexOutOfBoundsException if {@code batch} is out of bounds
+	 */
+	public List<V> get(int batch) {
+		checkBatch(batch);
+
+		List<V> values = new ArrayList<>(columns.length);
+		for (ColumnBuffer column : columns) {
+			values.add((V) column.get(batch));
+		}
+		return Collections.unmodifiableList(values);
+	}
+	/**
+	 * @param batch index of batch to get value from
+	 * @param ordinal ordinal of key to get value of
+	 * @return value of key with ordinal {@code ordinal} in batch at index {@code batch}
+	 * @throws IndexOutOfBoundsException if {@code batch} or {@code ordinal} is out of bounds
+	 */
+	public V get(int batch, int ordinal) {
+		checkBatch(batch);
+
+		return (V) columns[ordinal].get(batch);
+	}
+	/** @return number of batches */
+	public int size() {
+		return size;
+	}
+	/** @return estimated total size of all values in all batches in bytes */
+	public long estimateBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Removes all batches from this batcher, retaining allocated buffers.
+	 */
+	public void clear() {
+		for (ColumnBuffer column : columns) {
+			column.clear(size);
+		}
+		size = 0;
+		bytes = 0;
+	}
+
+	/**
+	 * Binds all values of a batch as consecutive parameters of a statement.
+	 * Unboxed values are bound using the matching primitive setter, other values using {@link Parameters#set(PreparedStatement, int, Object)}.
+	 * @param statement statement to bind values to
+	 * @param batch index of batch to bind
+	 * @param index 1-based index of parameter to bind first value to
+	 * @return index of parameter following the last bound value
+	 * @throws IndexOutOfBoundsException if {@code batch} is out of bounds
+	 * @throws SQLException if a SQL issue occurs
+	 */
+	public int bind(PreparedStatement statement, int batch, int index) throws SQLException {
+		checkBatch(batch);
+
+		for (ColumnBuffer column : columns) {
+			column.bind(statement, batch, index++);
+		}
+		return index;
+	}
 
 	/**
 	 * Invokes a given action on each value in each batch, and a finalizer at the end of each batch.
@@ -51,13 +159,182 @@ public class Batcher<K, V> {
 	 * @param finalizer action invoked after end of each batch, invoked with {@code index} of the last batch
 	 */
 	public void forEach(ThrowingBiConsumer<Integer, V, ?> action, ThrowingConsumer<Integer, ?> finalizer) {
-		for (int i = 0; i < batches.size(); i++) {
-			List<V> batch = batches.get(i);
-
-			for (int j = 0; j < batch.size(); j++) {
-				action.accept(j, batch.get(j));
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < columns.length; j++) {
+				action.accept(j, (V) columns[j].get(i));
 			}
 			finalizer.accept(i);
 		}
 	}
+
+	private void checkBatch(int batch) {
+		if (batch < 0 || batch >= size) throw new IndexOutOfBoundsException("Batch: " + batch + ", size: " + size);
+	}
+
+	/**
+	 * Values of a single key across all batches.
+	 * Stored unboxed while all non-null values are of the same supported primitive wrapper type.
+	 */
+	private static final class ColumnBuffer {
+		private static final int INITIAL_CAPACITY = 16;
+
+		private Kind kind = Kind.NONE;
+		private final BitSet nulls = new BitSet();
+		private int[] ints;
+		private long[] longs;
+		private double[] doubles;
+		private boolean[] booleans;
+		private Object[] objects;
+
+		void setNull(int row) {
+			nulls.set(row);
+			if (kind == Kind.OBJECT && row < objects.length) objects[row] = null;
+		}
+		/** @return estimated size of {@code value} in bytes */
+		long set(int row, Object value) {
+			if (value == null) {
+				setNull(row);
+				return 0;
+			}
+			Kind valueKind = Kind.of(value);
+			if (kind == Kind.NONE) kind = valueKind;
+			else if (kind != valueKind && kind != Kind.OBJECT) toObjects();
+
+			ensureCapacity(row);
+			nulls.clear(row);
+
+			switch (kind) {
+				case INT:
+					ints[row] = (Integer) value;
+					return Integer.BYTES;
+				case LONG:
+					longs[row] = (Long) value;
+					return Long.BYTES;
+				case DOUBLE:
+					doubles[row] = (Double) value;
+					return Double.BYTES;
+				case BOOLEAN:
+					booleans[row] = (Boolean) value;
+					return 1;
+				default:
+					objects[row] = value;
+					return estimateBytes(value);
+			}
+		}
+		private static long estimateBytes(Object value) {
+			if (value instanceof CharSequence) return 2L * ((CharSequence) value).length();
+			if (value instanceof byte[]) return ((byte[]) value).length;
+			return 16;  // Typical fixed-size values, such as UUIDs, dates, small numbers
+		}
+
+		Object get(int row) {
+			if (nulls.get(row)) return null;
+
+			switch (kind) {
+				case INT:
+					return ints[row];
+				case LONG:
+					return longs[row];
+				case DOUBLE:
+					return doubles[row];
+				case BOOLEAN:
+					return booleans[row];
+				default:
+					return objects[row];
+			}
+		}
+
+		void bind(PreparedStatement statement, int row, int index) throws SQLException {
+			if (nulls.get(row)) {
+				Parameters.set(statement, index, null);
+				return;
+			}
+			switch (kind) {
+				case INT:
+					statement.setInt(index, ints[row]);
+					break;
+				case LONG:
+					statement.setLong(index, longs[row]);
+					break;
+				case DOUBLE:
+					statement.setDouble(index, doubles[row]);
+					break;
+				case BOOLEAN:
+					statement.setBoolean(index, booleans[row]);
+					break;
+				default:
+					Parameters.set(statement, index, objects[row]);
+			}
+		}
+
+		/** Releases references to object values in the first {@code rows} rows */
+		void clear(int rows) {
+			if (objects != null) Arrays.fill(objects, 0, Math.min(rows, objects.length), null);
+		}
+
+		private void ensureCapacity(int row) {
+			int capacity = capacity();
+			if (row < capacity) return;
+
+			int newCapacity = Math.max(Math.max(INITIAL_CAPACITY, row + 1), capacity * 2);
+			switch (kind) {
+				case INT:
+					ints = ints == null ? new int[newCapacity] : Arrays.copyOf(ints, newCapacity);
+					break;
+				case LONG:
+					longs = longs == null ? new long[newCapacity] : Arrays.copyOf(longs, newCapacity);
+					break;
+				case DOUBLE:
+					doubles = doubles == null ? new double[newCapacity] : Arrays.copyOf(doubles, newCapacity);
+					break;
+				case BOOLEAN:
+					booleans = booleans == null ? new boolean[newCapacity] : Arrays.copyOf(booleans, newCapacity);
+					break;
+				default:
+					objects = objects == null ? new Object[newCapacity] : Arrays.copyOf(objects, newCapacity);
+			}
+		}
+		private int capacity() {
+			switch (kind) {
+				case INT:
+					return ints == null ? 0 : ints.length;
+				case LONG:
+					return longs == null ? 0 : longs.length;
+				case DOUBLE:
+					return doubles == null ? 0 : doubles.length;
+				case BOOLEAN:
+					return booleans == null ? 0 : booleans.length;
+				default:
+					return objects == null ? 0 : objects.length;
+			}
+		}
+
+		/** Boxes all stored values, after which values of any type are accepted */
+		private void toObjects() {
+			int capacity = capacity();
+			Object[] boxed = new Object[Math.max(capacity, INITIAL_CAPACITY)];
+
+			for (int row = 0; row < capacity; row++) {
+				boxed[row] = get(row);
+			}
+			ints = null;
+			longs = null;
+			doubles = null;
+			booleans = null;
+			objects = boxed;
+			kind = Kind.OBJECT;
+		}
+
+		private enum Kind {
+			NONE, INT, LONG, DOUBLE, BOOLEAN, OBJECT;
+
+			static Kind of(Object value) {
+				if (value instanceof Integer) return INT;
+				if (value instanceof Long) return LONG;
+				if (value instanceof Double) return DOUBLE;
+				if (value instanceof Boolean) return BOOLEAN;
+				return OBJECT;
+			}
+		}
+	}
 }
@@ -4,6 +4,7 @@ import dev.kkorolyov.sqlob.util.Where;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.function.Function;
 
 /**
@@ -28,9 +29,12 @@ public class DeleteStatementBuilder implements StatementBuilder<PreparedStatemen
 
 	@Override
 	public PreparedStatement build() throws SQLException {
-		PreparedStatement statement = statementSupplier.apply("DELETE FROM " + table + " WHERE " + where.getSql());
+		PreparedStatement statement = statementSupplier.apply(SqlCache.get(
+				Arrays.asList("DELETE", table, where.getShape()),
+				() -> "DELETE FROM " + table + " WHERE " + where.getSql()
+		));
 
-		where.forEach((i, value) -> statement.setObject(i + 1, value));
+		where.forEach((i, value) -> Parameters.set(statement, i + 1, value));
 
 		return statement;
 	}
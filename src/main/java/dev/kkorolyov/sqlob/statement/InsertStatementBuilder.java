@@ -1,31 +1,52 @@
 package dev.kkorolyov.sqlob.statement;
 
+import dev.kkorolyov.sqlob.Dialect.Upsert;
+
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
- * Builds {@code INSERT} statements.
+ * Builds {@code INSERT} statements, optionally updating rows with conflicting keys.
  */
 public class InsertStatementBuilder implements StatementBuilder<PreparedStatement> {
 	private final Function<String, PreparedStatement> statementSupplier;
 	private final String table;
 	private final List<String> columns;
+	private final Upsert upsert;
+	private final String key;
 	private final Batcher<String, Object> batcher;
 
+	/**
+	 * Constructs a new {@code INSERT} statement builder which does not handle conflicting keys.
+	 * @see #InsertStatementBuilder(Function, String, List, Upsert, String)
+	 */
+	public InsertStatementBuilder(Function<String, PreparedStatement> statementSupplier, String table, List<String> columns) {
+		this(statementSupplier, table, columns, Upsert.NONE, null);
+	}
 	/**
 	 * Constructs a new {@code INSERT} statement builder.
 	 * @param statementSupplier provides a prepared statement from a SQL string supplied to it
 	 * @param table name of table to insert into
 	 * @param columns names of columns to insert values into
+	 * @param upsert syntax used to update existing rows with keys conflicting with inserted rows; {@link Upsert#NONE} to not handle conflicts
+	 * @param key name of key column checked for conflicts; ignored if {@code upsert} is {@link Upsert#NONE}
+	 * @throws IllegalArgumentException if {@code upsert} handles conflicts and {@code key} is not in {@code columns}
 	 */
-	public InsertStatementBuilder(Function<String, PreparedStatement> statementSupplier, String table, List<String> columns) {
+	public InsertStatementBuilder(Function<String, PreparedStatement> statementSupplier, String table, List<String> columns, Upsert upsert, String key) {
+		if (upsert != Upsert.NONE && !columns.contains(key)) throw new IllegalArgumentException("Key column " + key + " not in columns: " + columns);
+
 		this.statementSupplier = statementSupplier;
 		this.table = table;
 		this.columns = new ArrayList<>(columns);
+		this.upsert = upsert;
+		this.key = key;
 		batcher = new Batcher<>(columns);
 	}
 
@@ -39,19 +60,118 @@ public class InsertStatementBuilder implements StatementBuilder<PreparedStatemen
 		batcher.batch(batch);
 		return this;
 	}
+	/**
+	 * Adds a batch of values to insert to this builder.
+	 * @param batch values to add as a batch to this builder, ordered as this builder's columns; copied, so may be reused by the caller
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if the length of {@code batch} does not match the number of columns in this builder
+	 */
+	public InsertStatementBuilder batch(Object[] batch) {
+		batcher.batch(batch);
+		return this;
+	}
 
-	@Override
-	public PreparedStatement build() {
-		PreparedStatement statement = statementSupplier.apply(
-				"INSERT INTO " + table + " "
-						+ buildColumns(Function.identity())
-						+ " VALUES " + buildColumns(column -> "?"));
+	/** @return number of batches added to this builder */
+	public int size() {
+		return batcher.size();
+	}
+	/** @return estimated total size of all batched values in bytes */
+	public long estimateBytes() {
+		return batcher.estimateBytes();
+	}
+
+	/**
+	 * Removes all batches from this builder, retaining allocated buffers for subsequent batches.
+	 * @return {@code this}
+	 */
+	public InsertStatementBuilder clear() {
+		batcher.clear();
+		return this;
+	}
 
-		batcher.forEach((i, value) -> statement.setObject(i + 1, value),
-				batchIndex -> statement.addBatch());
+	/**
+	 * Builds a statement inserting a single row per batch.
+	 * @see #buildMultiRow(int)
+	 */
+	@Override
+	public PreparedStatement build() throws SQLException {
+		PreparedStatement statement = statementSupplier.apply(buildSql(1));
 
+		for (int row = 0; row < batcher.size(); row++) {
+			batcher.bind(statement, row, 1);
+			statement.addBatch();
+		}
 		return statement;
 	}
+	/**
+	 * Builds statements inserting multiple rows per {@code VALUES} clause.
+	 * Rows are inserted in chunks of {@code maxRows}, with all full chunks added as batches of a single statement, and remaining rows in an additional statement.
+	 * @param maxRows maximum number of rows to insert per statement execution
+	 * @return statements inserting all batches in this builder, to be executed in order
+	 * @throws IllegalArgumentException if {@code maxRows < 1}
+	 * @throws SQLException if a SQL issue occurs
+	 */
+	public List<PreparedStatement> buildMultiRow(int maxRows) throws SQLException {
+		if (maxRows < 1) throw new IllegalArgumentException("maxRows must be >= 1: " + maxRows);
+
+		List<PreparedStatement> statements = new ArrayList<>();
+		int rows = Math.min(maxRows, batcher.size());
+
+		int row = 0;
+		if (rows > 0) {
+			PreparedStatement statement = statementSupplier.apply(buildSql(rows));
+			for (; row + rows <= batcher.size(); row += rows) {
+				bindRows(statement, row, rows);
+				statement.addBatch();
+			}
+			statements.add(statement);
+		}
+		int remaining = batcher.size() - row;
+		if (remaining > 0) {
+			PreparedStatement statement = statementSupplier.apply(buildSql(remaining));
+			bindRows(statement, row, remaining);
+			statement.addBatch();
+
+			statements.add(statement);
+		}
+		return statements;
+	}
+	private void bindRows(PreparedStatement statement, int start, int rows) throws SQLException {
+		int index = 1;
+		for (int row = start; row < start + rows; row++) {
+			index = batcher.bind(statement, row, index);
+		}
+	}
+
+	private String buildSql(int rows) {
+		return SqlCache.get(
+				Arrays.asList("INSERT", table, columns, rows, upsert, key),
+				() -> (upsert == Upsert.REPLACE ? "INSERT OR REPLACE INTO " : "INSERT INTO ") + table + " "
+						+ buildColumns(Function.identity())
+						+ " VALUES " + String.join(",", Collections.nCopies(rows, buildColumns(column -> "?")))
+						+ buildConflict()
+		);
+	}
+	private String buildConflict() {
+		switch (upsert) {
+			case ON_CONFLICT:
+				return " ON CONFLICT(" + key + ") DO " + buildUpdates("NOTHING", "UPDATE SET ", column -> column + "=excluded." + column);
+			case ON_DUPLICATE_KEY:
+				return " ON DUPLICATE KEY UPDATE " + buildUpdates(key + "=" + key, "", column -> column + "=VALUES(" + column + ")");
+			default:
+				return "";
+		}
+	}
+	private String buildUpdates(String ifNone, String prefix, Function<String, String> update) {
+		List<String> updates = columns.stream()
+				.filter(column -> !column.equals(key))
+				.map(update)
+				.collect(Collectors.toList());
+
+		return updates.isEmpty()
+				? ifNone
+				: prefix + String.join(",", updates);
+	}
 	private String buildColumns(Function<String, String> nameMapper) {
 		return columns.stream()
 				.map(nameMapper)
@@ -0,0 +1,31 @@
+package dev.kkorolyov.sqlob.statement;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Binds parameter values to prepared statements using the most specific setter for each value's type.
+ * Primitive wrapper values are bound with the matching primitive setter, such as {@link PreparedStatement#setInt(int, int)}, so the driver does not need to infer their SQL type.
+ */
+public final class Parameters {
+	private Parameters() {}
+
+	/**
+	 * Sets a parameter value on a prepared statement.
+	 * @param statement statement to set parameter on
+	 * @param index 1-based parameter index
+	 * @param value value to set; bound with {@link PreparedStatement#setObject(int, Object)} if {@code null} or not a primitive wrapper or string
+	 * @throws SQLException if a SQL issue occurs
+	 */
+	public static void set(PreparedStatement statement, int index, Object value) throws SQLException {
+		if (value instanceof Integer) statement.setInt(index, (Integer) value);
+		else if (value instanceof Long) statement.setLong(index, (Long) value);
+		else if (value instanceof Double) statement.setDouble(index, (Double) value);
+		else if (value instanceof Float) statement.setFloat(index, (Float) value);
+		else if (value instanceof Short) statement.setShort(index, (Short) value);
+		else if (value instanceof Byte) statement.setByte(index, (Byte) value);
+		else if (value instanceof Boolean) statement.setBoolean(index, (Boolean) value);
+		else if (value instanceof String) statement.setString(index, (String) value);
+		else statement.setObject(index, value);
+	}
+}
@@ -1,10 +1,15 @@
 package dev.kkorolyov.sqlob.statement;
 
+import dev.kkorolyov.sqlob.Dialect.Limit;
+import dev.kkorolyov.sqlob.util.Order;
 import dev.kkorolyov.sqlob.util.Where;
 
 import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -16,33 +21,91 @@ public class SelectStatementBuilder implements StatementBuilder<PreparedStatemen
 	private final String table;
 	private final Collection<String> columns;
 	private final Where where;
+	private List<String> groups = Collections.emptyList();
+	private List<Order> orders = Collections.emptyList();
+	private int limit;
+	private Limit limitSyntax = Limit.LIMIT;
 
 	/**
 	 * Constructs a new {@code SELECT} statement builder.
 	 * @param statementSupplier provides a prepared statement from a SQL string supplied to it
 	 * @param table name of table to select from
-	 * @param columns names of columns to select values from
+	 * @param columns names of columns, or aggregate expressions over columns, to select values from, in selection order
 	 * @param where WHERE clause limiting selection
 	 */
 	public SelectStatementBuilder(Function<String, PreparedStatement> statementSupplier, String table, Collection<String> columns, Where where) {
 		this.statementSupplier = statementSupplier;
 		this.table = table;
-		this.columns = new HashSet<>(columns);
+		this.columns = new ArrayList<>(columns);
 		this.where = where;
 	}
 
+	/**
+	 * @param groups names of columns to group selected rows by
+	 * @return {@code this}
+	 */
+	public SelectStatementBuilder groupBy(List<String> groups) {
+		this.groups = new ArrayList<>(groups);
+		return this;
+	}
+	/**
+	 * @param orders orders to sort selected rows by, in precedence order; attributes are column names
+	 * @return {@code this}
+	 */
+	public SelectStatementBuilder orderBy(List<Order> orders) {
+		this.orders = new ArrayList<>(orders);
+		return this;
+	}
+	/**
+	 * @param limit maximum number of rows to select; {@code 0} for no limit
+	 * @param limitSyntax syntax of the limiting clause
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if {@code limit < 0}
+	 */
+	public SelectStatementBuilder limit(int limit, Limit limitSyntax) {
+		if (limit < 0) throw new IllegalArgumentException("limit must be >= 0: " + limit);
+
+		this.limit = limit;
+		this.limitSyntax = limitSyntax;
+		return this;
+	}
+
 	@Override
 	public PreparedStatement build() {
-		PreparedStatement statement = statementSupplier.apply(
-				columns.stream()
+		PreparedStatement statement = statementSupplier.apply(SqlCache.get(
+				Arrays.asList("SELECT", table, columns, where.getShape(), groups, orders, limit, limitSyntax),
+				() -> columns.stream()
 						.collect(Collectors.joining(
 								",",
 								"SELECT ",
 								" FROM " + table + " WHERE " + where.getSql()
 						))
-		);
-		where.forEach((i, value) -> statement.setObject(i + 1, value));
+						+ buildGroupBy()
+						+ buildOrderBy()
+						+ buildLimit()
+		));
+		where.forEach((i, value) -> Parameters.set(statement, i + 1, value));
 
 		return statement;
 	}
+
+	private String buildGroupBy() {
+		return groups.isEmpty()
+				? ""
+				: " GROUP BY " + String.join(",", groups);
+	}
+	private String buildOrderBy() {
+		return orders.isEmpty()
+				? ""
+				: orders.stream()
+						.map(Order::toString)
+						.collect(Collectors.joining(",", " ORDER BY ", ""));
+	}
+	private String buildLimit() {
+		if (limit <= 0) return "";
+
+		return limitSyntax == Limit.FETCH_FIRST
+				? " FETCH FIRST " + limit + " ROWS ONLY"
+				: " LIMIT " + limit;
+	}
 }
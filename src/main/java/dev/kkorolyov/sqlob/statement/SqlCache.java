@@ -0,0 +1,51 @@
+package dev.kkorolyov.sqlob.statement;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes generated SQL text by statement shape.
+ * Statements of the same shape share the same SQL string instance, which keeps statement cache lookups cheap and stable.
+ * When full, evicts an arbitrary shape.
+ * Thread-safe without locking.
+ */
+final class SqlCache {
+	/** Maximum number of memoized shapes; bounds shapes varying with criteria size */
+	static final int MAX_SIZE = 4096;
+	private static final Map<List<?>, String> SQL = new ConcurrentHashMap<>();
+
+	private SqlCache() {}
+
+	/**
+	 * @param shape all components determining the generated SQL, such as statement type, table, column names, {@link dev.kkorolyov.sqlob.util.Where#getShape() WHERE clause shape}, and row count
+	 * @param generator generates SQL for {@code shape} if not yet cached
+	 * @return SQL for {@code shape}
+	 */
+	static String get(List<?> shape, Supplier<String> generator) {
+		String sql = SQL.get(shape);
+
+		if (sql == null) {
+			if (SQL.size() >= MAX_SIZE) evict();
+
+			String generated = generator.get();
+			String existing = SQL.putIfAbsent(shape, generated);
+			sql = existing != null ? existing : generated;
+		}
+		return sql;
+	}
+	private static void evict() {
+		Iterator<List<?>> it = SQL.keySet().iterator();
+		if (it.hasNext()) {
+			it.next();
+			it.remove();
+		}
+	}
+
+	/** @return number of memoized shapes */
+	static int size() {
+		return SQL.size();
+	}
+}
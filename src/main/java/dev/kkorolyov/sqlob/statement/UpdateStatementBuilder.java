@@ -3,7 +3,9 @@ package dev.kkorolyov.sqlob.statement;
 import dev.kkorolyov.sqlob.util.Where;
 
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -49,24 +51,78 @@ public class UpdateStatementBuilder implements StatementBuilder<PreparedStatemen
 		return this;
 	}
 
+	/**
+	 * Adds a batch of values to update and relevant WHERE clause to this builder.
+	 * @param batch values to add as a batch to this builder, ordered as this builder's columns; copied, so may be reused by the caller
+	 * @param where criteria to update the given batch at
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if the length of {@code batch} does not match the number of columns in this builder
+	 */
+	public UpdateStatementBuilder batch(Object[] batch, Where where) {
+		batcher.batch(batch);
+		wheres.add(where);
+
+		return this;
+	}
+
+	/** @return number of batches added to this builder */
+	public int size() {
+		return batcher.size();
+	}
+	/** @return estimated total size of all batched values in bytes */
+	public long estimateBytes() {
+		return batcher.estimateBytes();
+	}
+
+	/**
+	 * Removes all batches from this builder, retaining allocated buffers for subsequent batches.
+	 * @return {@code this}
+	 */
+	public UpdateStatementBuilder clear() {
+		batcher.clear();
+		wheres.clear();
+
+		return this;
+	}
+
 	@Override
-	public PreparedStatement build() {
-		PreparedStatement statement = statementSupplier.apply(
-				"UPDATE " + table + " SET "
-						+ buildColumns()
-						+ " WHERE " + where.getSql());
+	public PreparedStatement build() throws SQLException {
+		PreparedStatement statement = buildStatement();
 
-		batcher.forEach(
-				(i, value) -> statement.setObject(i + 1, value),
-				batchIndex -> {
-					wheres.get(batchIndex)
-							.forEach((i, value) -> statement.setObject(i + 1 + columns.size(), value));
-					statement.addBatch();
-				}
-		);
+		for (int row = 0; row < batcher.size(); row++) {
+			bind(statement, row);
+			statement.addBatch();
+		}
+		return statement;
+	}
+	/**
+	 * Builds an unbatched statement updating the only batch added to this builder, to be executed by {@link PreparedStatement#executeUpdate()}.
+	 * @return built statement
+	 * @throws IllegalStateException if this builder does not contain exactly {@code 1} batch
+	 * @throws SQLException if a SQL issue occurs building the statement
+	 */
+	public PreparedStatement buildSingle() throws SQLException {
+		if (batcher.size() != 1) throw new IllegalStateException("Expected 1 batch, got: " + batcher.size());
+
+		PreparedStatement statement = buildStatement();
+		bind(statement, 0);
 
 		return statement;
 	}
+	private PreparedStatement buildStatement() {
+		return statementSupplier.apply(SqlCache.get(
+				Arrays.asList("UPDATE", table, columns, where.getShape()),
+				() -> "UPDATE " + table + " SET "
+						+ buildColumns()
+						+ " WHERE " + where.getSql()
+		));
+	}
+	private void bind(PreparedStatement statement, int row) throws SQLException {
+		int whereIndex = batcher.bind(statement, row, 1);
+
+		wheres.get(row)
+				.forEach((i, value) -> Parameters.set(statement, i + whereIndex, value));
+	}
 	private String buildColumns() {
 		return columns.stream()
 				.map(column -> column + "=?")
@@ -2,17 +2,18 @@ package dev.kkorolyov.sqlob.type;
 
 import dev.kkorolyov.simplefuncs.function.ThrowingBiFunction;
 import dev.kkorolyov.simplefuncs.stream.Iterables;
+import dev.kkorolyov.sqlob.util.FieldAccessor;
 
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import static dev.kkorolyov.sqlob.util.UncheckedSqlException.wrapSqlException;
@@ -42,28 +43,42 @@ public abstract class BaseSqlobType<T> implements SqlobType<T> {
 	public Collection<Class<T>> getTypes() {
 		return acceptedTypes;
 	}
+	/**
+	 * @return delegate SQLOb type associated with {@code database}, else the default delegate
+	 * @throws NoSuchElementException if no delegate is associated with {@code database} and there is no default delegate
+	 */
+	@Override
+	public SqlobType<T> bind(String database) {
+		SqlobType<T> delegate = delegates.getOrDefault(database, delegates.get(DEFAULT));
+		if (delegate == null) throw new NoSuchElementException("No SQLOb type for types [" + acceptedTypes + "] associated with database: " + database);
+
+		return delegate;
+	}
+
 	@Override
 	public String getSqlType(DatabaseMetaData metaData) {
-		return wrapSqlException(() -> getDelegate(metaData)
-				.getSqlType(metaData));
+		return getDelegate(metaData)
+				.getSqlType(metaData);
 	}
 
 	@Override
 	public Object get(DatabaseMetaData metaData, T value) {
-		return wrapSqlException(() -> getDelegate(metaData)
-				.get(metaData, value));
+		return getDelegate(metaData)
+				.get(metaData, value);
 	}
 	@Override
 	public T get(DatabaseMetaData metaData, ResultSet rs, String column) {
-		return wrapSqlException(() -> getDelegate(metaData)
-				.get(metaData, rs, column));
+		return getDelegate(metaData)
+				.get(metaData, rs, column);
+	}
+	@Override
+	public T get(DatabaseMetaData metaData, ResultSet rs, int column) {
+		return getDelegate(metaData)
+				.get(metaData, rs, column);
 	}
 
-	private SqlobType<T> getDelegate(DatabaseMetaData metaData) throws SQLException {
-		SqlobType<T> delegate = delegates.getOrDefault(metaData.getDatabaseProductName(), delegates.get(DEFAULT));
-		if (delegate == null) throw new NoSuchElementException("No SQLOb type for types [" + acceptedTypes + "] associated with database: " + metaData.getDatabaseProductName());
-
-		return delegate;
+	private SqlobType<T> getDelegate(DatabaseMetaData metaData) {
+		return bind(wrapSqlException(metaData::getDatabaseProductName));
 	}
 
 	/**
@@ -73,40 +88,78 @@ public abstract class BaseSqlobType<T> implements SqlobType<T> {
 		private final Collection<Class<T>> acceptedTypes = new HashSet<>();
 		private final String sqlType;
 		private final Function<? super T, ?> converter;
-		private final BiFunction<ResultSet, String, T> extractor;
+		private final Extractor<T> extractor;
 
-		/** @see #Delegate(String, ThrowingBiFunction, Iterable) */
+		/** @see #Delegate(String, Extractor, Iterable) */
 		@SafeVarargs
-		public Delegate(String sqlType, ThrowingBiFunction<ResultSet, String, T, SQLException> extractor, Class<T> type, Class<T>... types) {
+		public Delegate(String sqlType, Extractor<T> extractor, Class<T> type, Class<T>... types) {
 			this(sqlType, extractor, Iterables.append(Collections.singleton(type), types));
 		}
-		/** @see #Delegate(String, Function, ThrowingBiFunction, Iterable) */
+		/** @see #Delegate(String, Function, Extractor, Iterable) */
 		@SafeVarargs
-		public Delegate(String sqlType, Function<T, ?> converter, ThrowingBiFunction<ResultSet, String, T, SQLException> extractor, Class<T> type, Class<T>... types) {
+		public Delegate(String sqlType, Function<T, ?> converter, Extractor<T> extractor, Class<T> type, Class<T>... types) {
 			this(sqlType, converter, extractor, Iterables.append(Collections.singleton(type), types));
 		}
 
 		/**
 		 * Constructs a new delegate SQLOb type with no conversion.
-		 * @see #Delegate(String, Function, ThrowingBiFunction, Iterable)
+		 * @see #Delegate(String, Function, Extractor, Iterable)
 		 */
-		public Delegate(String sqlType, ThrowingBiFunction<ResultSet, String, T, SQLException> extractor, Iterable<Class<T>> types) {
+		public Delegate(String sqlType, Extractor<T> extractor, Iterable<Class<T>> types) {
 			this(sqlType, Function.identity(), extractor, types);
 		}
 		/**
 		 * Constructs a new simple SQLOb type.
 		 * @param sqlType associated SQL type
 		 * @param converter converts values for persistence
-		 * @param extractor extracts value from result set
+		 * @param extractor extracts value from result set by column index
 		 * @param types accepted types
 		 */
-		public Delegate(String sqlType, Function<? super T, ?> converter, ThrowingBiFunction<ResultSet, String, T, SQLException> extractor, Iterable<Class<T>> types) {
+		public Delegate(String sqlType, Function<? super T, ?> converter, Extractor<T> extractor, Iterable<Class<T>> types) {
 			this.sqlType = sqlType;
 			this.converter = converter;
 			this.extractor = extractor;
 			types.forEach(acceptedTypes::add);
 		}
 
+		/**
+		 * @see #Delegate(String, Extractor, Class, Class[])
+		 * @deprecated extracts by column name, requiring a column label lookup per value; use {@link #Delegate(String, Extractor, Class, Class[])}
+		 */
+		@Deprecated
+		@SafeVarargs
+		public Delegate(String sqlType, ThrowingBiFunction<ResultSet, String, T, SQLException> extractor, Class<T> type, Class<T>... types) {
+			this(sqlType, byLabel(extractor), type, types);
+		}
+		/**
+		 * @see #Delegate(String, Function, Extractor, Class, Class[])
+		 * @deprecated extracts by column name, requiring a column label lookup per value; use {@link #Delegate(String, Function, Extractor, Class, Class[])}
+		 */
+		@Deprecated
+		@SafeVarargs
+		public Delegate(String sqlType, Function<T, ?> converter, ThrowingBiFunction<ResultSet, String, T, SQLException> extractor, Class<T> type, Class<T>... types) {
+			this(sqlType, converter, byLabel(extractor), type, types);
+		}
+		/**
+		 * @see #Delegate(String, Extractor, Iterable)
+		 * @deprecated extracts by column name, requiring a column label lookup per value; use {@link #Delegate(String, Extractor, Iterable)}
+		 */
+		@Deprecated
+		public Delegate(String sqlType, ThrowingBiFunction<ResultSet, String, T, SQLException> extractor, Iterable<Class<T>> types) {
+			this(sqlType, byLabel(extractor), types);
+		}
+		/**
+		 * @see #Delegate(String, Function, Extractor, Iterable)
+		 * @deprecated extracts by column name, requiring a column label lookup per value; use {@link #Delegate(String, Function, Extractor, Iterable)}
+		 */
+		@Deprecated
+		public Delegate(String sqlType, Function<? super T, ?> converter, ThrowingBiFunction<ResultSet, String, T, SQLException> extractor, Iterable<Class<T>> types) {
+			this(sqlType, converter, byLabel(extractor), types);
+		}
+		private static <T> Extractor<T> byLabel(ThrowingBiFunction<ResultSet, String, T, SQLException> extractor) {
+			return (rs, column) -> extractor.applyThrowing(rs, rs.getMetaData().getColumnLabel(column));
+		}
+
 		@Override
 		public Collection<Class<T>> getTypes() {
 			return acceptedTypes;
@@ -122,7 +175,72 @@ public abstract class BaseSqlobType<T> implements SqlobType<T> {
 		}
 		@Override
 		public T get(DatabaseMetaData metaData, ResultSet rs, String column) {
-			return extractor.apply(rs, column);
+			return wrapSqlException(() -> extractor.extract(rs, rs.findColumn(column)));
+		}
+		@Override
+		public T get(DatabaseMetaData metaData, ResultSet rs, int column) {
+			return wrapSqlException(() -> extractor.extract(rs, column));
+		}
+	}
+	/**
+	 * Delegate SQLOb type for a primitive Java type and its boxed counterpart.
+	 * Reads values into primitive fields without boxing.
+	 */
+	protected static class PrimitiveDelegate<T> extends Delegate<T> implements PrimitiveSqlobType<T> {
+		private final Class<T> primitiveType;
+		private final Transferer transferer;
+
+		/**
+		 * Constructs a new primitive delegate SQLOb type with no conversion.
+		 * @param sqlType associated SQL type
+		 * @param extractor extracts boxed value from result set by column index
+		 * @param transferer reads value from result set by column index into primitive field
+		 * @param primitiveType accepted primitive type
+		 * @param boxedType accepted boxed type
+		 */
+		public PrimitiveDelegate(String sqlType, Extractor<T> extractor, Transferer transferer, Class<T> primitiveType, Class<T> boxedType) {
+			super(sqlType, extractor, Arrays.asList(primitiveType, boxedType));
+			this.primitiveType = primitiveType;
+			this.transferer = transferer;
 		}
+
+		@Override
+		public Class<T> getPrimitiveType() {
+			return primitiveType;
+		}
+
+		@Override
+		public void transfer(DatabaseMetaData metaData, ResultSet rs, int column, FieldAccessor accessor, Object instance) {
+			wrapSqlException(() -> transferer.transfer(rs, column, accessor, instance));
+		}
+	}
+
+	/**
+	 * Extracts a value from a result set by column index.
+	 * @param <T> extracted value type
+	 */
+	@FunctionalInterface
+	protected interface Extractor<T> {
+		/**
+		 * @param rs result set to extract from
+		 * @param column index of column to extract, starting from {@code 1}
+		 * @return value extracted from {@code column} in {@code rs}
+		 * @throws SQLException if a SQL issue occurs
+		 */
+		T extract(ResultSet rs, int column) throws SQLException;
+	}
+	/**
+	 * Reads a value from a result set into a primitive field.
+	 */
+	@FunctionalInterface
+	protected interface Transferer {
+		/**
+		 * @param rs result set to read from
+		 * @param column index of column to read
+		 * @param accessor accessor of field to set
+		 * @param instance instance to set field value on
+		 * @throws SQLException if a SQL issue occurs
+		 */
+		void transfer(ResultSet rs, int column, FieldAccessor accessor, Object instance) throws SQLException;
 	}
 }
@@ -8,7 +8,7 @@ import java.sql.ResultSet;
 public class BigDecimalSqlobType extends BaseSqlobType<BigDecimal> {
 	public BigDecimalSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("NUMERIC", ResultSet::getBigDecimal,
+				new Delegate<>("NUMERIC", (ResultSet rs, int column) -> rs.getBigDecimal(column),
 						BigDecimal.class));
 	}
 }
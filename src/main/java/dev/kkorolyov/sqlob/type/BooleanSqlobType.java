@@ -7,7 +7,8 @@ import java.sql.ResultSet;
 public class BooleanSqlobType extends BaseSqlobType<Boolean> {
 	public BooleanSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("BOOLEAN", ResultSet::getBoolean,
+				new PrimitiveDelegate<>("BOOLEAN", ResultSet::getBoolean,
+						(rs, column, accessor, instance) -> accessor.setBoolean(instance, rs.getBoolean(column)),
 						Boolean.TYPE, Boolean.class));
 	}
 }
@@ -7,7 +7,8 @@ import java.sql.ResultSet;
 public class ByteSqlobType extends BaseSqlobType<Byte> {
 	public ByteSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("TINYINT", ResultSet::getByte,
+				new PrimitiveDelegate<>("TINYINT", ResultSet::getByte,
+						(rs, column, accessor, instance) -> accessor.setByte(instance, rs.getByte(column)),
 						Byte.TYPE, Byte.class));
 	}
 }
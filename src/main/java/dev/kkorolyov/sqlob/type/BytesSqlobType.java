@@ -7,7 +7,7 @@ import java.sql.ResultSet;
 public class BytesSqlobType extends BaseSqlobType<byte[]> {
 	public BytesSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("VARBINARY(1024)", ResultSet::getBytes,
+				new Delegate<>("VARBINARY(1024)", (ResultSet rs, int column) -> rs.getBytes(column),
 						byte[].class));
 	}
 }
@@ -2,10 +2,12 @@ package dev.kkorolyov.sqlob.type;
 
 import dev.kkorolyov.sqlob.type.BaseSqlobType;
 
+import java.sql.ResultSet;
+
 public class CharSqlobType extends BaseSqlobType<Character> {
 	public CharSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("CHAR(1)", (rs, column) -> {
+				new Delegate<>("CHAR(1)", (ResultSet rs, int column) -> {
 					String string = rs.getString(column);
 					return string == null ? null : string.charAt(0);
 				}, Character.TYPE, Character.class));
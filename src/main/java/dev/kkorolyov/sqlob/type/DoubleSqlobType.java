@@ -7,7 +7,8 @@ import java.sql.ResultSet;
 public class DoubleSqlobType extends BaseSqlobType<Double> {
 	public DoubleSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("DOUBLE PRECISION", ResultSet::getDouble,
+				new PrimitiveDelegate<>("DOUBLE PRECISION", ResultSet::getDouble,
+						(rs, column, accessor, instance) -> accessor.setDouble(instance, rs.getDouble(column)),
 						Double.TYPE, Double.class));
 	}
 }
@@ -7,7 +7,8 @@ import java.sql.ResultSet;
 public class FloatSqlobType extends BaseSqlobType<Float> {
 	public FloatSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("REAL", ResultSet::getFloat,
+				new PrimitiveDelegate<>("REAL", ResultSet::getFloat,
+						(rs, column, accessor, instance) -> accessor.setFloat(instance, rs.getFloat(column)),
 						Float.TYPE, Float.class));
 	}
 }
@@ -7,7 +7,8 @@ import java.sql.ResultSet;
 public class IntSqlobType extends BaseSqlobType<Integer> {
 	public IntSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("INTEGER", ResultSet::getInt,
+				new PrimitiveDelegate<>("INTEGER", ResultSet::getInt,
+						(rs, column, accessor, instance) -> accessor.setInt(instance, rs.getInt(column)),
 						Integer.TYPE, Integer.class));
 	}
 }
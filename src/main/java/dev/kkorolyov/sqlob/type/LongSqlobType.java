@@ -7,7 +7,8 @@ import java.sql.ResultSet;
 public class LongSqlobType extends BaseSqlobType<Long> {
 	public LongSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("BIGINT", ResultSet::getLong,
+				new PrimitiveDelegate<>("BIGINT", ResultSet::getLong,
+						(rs, column, accessor, instance) -> accessor.setLong(instance, rs.getLong(column)),
 						Long.TYPE, Long.class));
 	}
 }
@@ -0,0 +1,26 @@
+package dev.kkorolyov.sqlob.type;
+
+import dev.kkorolyov.sqlob.util.FieldAccessor;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+/**
+ * A {@link SqlobType} for a primitive Java type which transfers values between result sets and primitive fields without boxing.
+ * @param <T> associated boxed Java type
+ */
+public interface PrimitiveSqlobType<T> extends SqlobType<T> {
+	/** @return associated primitive Java type */
+	Class<T> getPrimitiveType();
+
+	/**
+	 * Reads a value from a result set directly into a primitive field.
+	 * @param metaData metadata of database providing {@code rs}
+	 * @param rs result set to read from
+	 * @param column index of column to read
+	 * @param accessor accessor of primitive field to set
+	 * @param instance instance to set field value on
+	 * @throws IllegalArgumentException if {@code accessor}'s field is not of this SQLOb type's primitive type
+	 */
+	void transfer(DatabaseMetaData metaData, ResultSet rs, int column, FieldAccessor accessor, Object instance);
+}
@@ -5,7 +5,8 @@ import java.sql.ResultSet;
 public class ShortSqlobType extends BaseSqlobType<Short> {
 	public ShortSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("SMALLINT", ResultSet::getShort,
+				new PrimitiveDelegate<>("SMALLINT", ResultSet::getShort,
+						(rs, column, accessor, instance) -> accessor.setShort(instance, rs.getShort(column)),
 						Short.TYPE, Short.class));
 	}
 }
@@ -8,7 +8,7 @@ import java.sql.ResultSet;
 public class SqlDateSqlobType extends BaseSqlobType<Date> {
 	public SqlDateSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("DATE", ResultSet::getDate,
+				new Delegate<>("DATE", (ResultSet rs, int column) -> rs.getDate(column),
 						Date.class));
 	}
 }
@@ -8,7 +8,7 @@ import java.sql.Time;
 public class SqlTimeSqlobType extends BaseSqlobType<Time> {
 	public SqlTimeSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("TIME(6)", ResultSet::getTime,
+				new Delegate<>("TIME(6)", (ResultSet rs, int column) -> rs.getTime(column),
 						Time.class));
 	}
 }
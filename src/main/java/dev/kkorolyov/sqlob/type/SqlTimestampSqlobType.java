@@ -8,7 +8,7 @@ import java.sql.Timestamp;
 public class SqlTimestampSqlobType extends BaseSqlobType<Timestamp> {
 	public SqlTimestampSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("TIMESTAMP(6)", ResultSet::getTimestamp,
+				new Delegate<>("TIMESTAMP(6)", (ResultSet rs, int column) -> rs.getTimestamp(column),
 						Timestamp.class));
 	}
 }
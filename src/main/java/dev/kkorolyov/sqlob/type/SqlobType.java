@@ -4,6 +4,8 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.util.Collection;
 
+import static dev.kkorolyov.sqlob.util.UncheckedSqlException.wrapSqlException;
+
 /**
  * A database-specific direct mapping between SQL and Java types.
  * @param <T> associated base Java type
@@ -11,6 +13,18 @@ import java.util.Collection;
 public interface SqlobType<T> {
 	/** @return all associated Java types */
 	Collection<Class<T>> getTypes();
+
+	/**
+	 * Resolves the SQLOb type performing the actual logic of this SQLOb type for a specific database.
+	 * The result may be retained and used directly for all further operations within the same database.
+	 * @param database name of database to bind to
+	 * @return SQLOb type specific to {@code database}; defaults to {@code this}
+	 * @throws java.util.NoSuchElementException if this SQLOb type does not support {@code database}
+	 */
+	default SqlobType<T> bind(String database) {
+		return this;
+	}
+
 	/**
 	 * @param metaData metadata for which to get SQL type
 	 * @return SQL type of this SQLOb type specific to the provided database
@@ -32,4 +46,12 @@ public interface SqlobType<T> {
 	 * @return Java type retrieved from {@code column} in {@code rs} within the context of {@code metaData}
 	 */
 	T get(DatabaseMetaData metaData, ResultSet rs, String column);
+	/**
+	 * Like {@link #get(DatabaseMetaData, ResultSet, String)}, but retrieves by column index instead of name.
+	 * Defaults to retrieving by the label of the column at {@code column}.
+	 * @param column index of column to get from, starting from {@code 1}
+	 */
+	default T get(DatabaseMetaData metaData, ResultSet rs, int column) {
+		return get(metaData, rs, wrapSqlException(() -> rs.getMetaData().getColumnLabel(column)));
+	}
 }
@@ -5,10 +5,10 @@ import java.sql.ResultSet;
 public class StringSqlobType extends BaseSqlobType<String> {
 	public StringSqlobType() {
 		put(DEFAULT,
-				new Delegate<>("VARCHAR", ResultSet::getString,
+				new Delegate<>("VARCHAR", (ResultSet rs, int column) -> rs.getString(column),
 						String.class));
 		put("MySQL",
-				new Delegate<>("TEXT", ResultSet::getString,
+				new Delegate<>("TEXT", (ResultSet rs, int column) -> rs.getString(column),
 						String.class));
 	}
 }
@@ -3,14 +3,18 @@ package dev.kkorolyov.sqlob.type.factory;
 import dev.kkorolyov.simplefiles.Providers;
 import dev.kkorolyov.sqlob.type.SqlobType;
 
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Provides for retrieval of {@link SqlobType}s by the associated Java type.
+ * Resolved SQLOb types are cached per Java type.
  */
 public final class SqlobTypeFactory {
 	private static final Providers<SqlobType> SQLOB_TYPES = Providers.fromConfig(SqlobType.class);
+	private static volatile Index index;
 
 	private SqlobTypeFactory() {}
 
@@ -36,11 +40,38 @@ public final class SqlobTypeFactory {
 	 * @return optional containing most appropriate SQLOb type for {@code type}
 	 */
 	public static <T> Optional<? extends SqlobType<T>> poll(Class<T> type) {
-		return SQLOB_TYPES.stream()
-				.map(sqlobType -> (SqlobType<?>) sqlobType)  // Cast raw to wildcard
-				.filter(sqlobType -> sqlobType.getTypes().stream()
-						.anyMatch(acceptedType -> acceptedType.isAssignableFrom(type)))
-				.map(sqlobType -> (SqlobType<T>) sqlobType)
-				.findFirst();
+		return getIndex().resolved.get(type)
+				.map(sqlobType -> (SqlobType<T>) sqlobType);
+	}
+
+	private static Index getIndex() {
+		Index index = SqlobTypeFactory.index;
+		if (index == null || index.providers != SQLOB_TYPES) SqlobTypeFactory.index = index = new Index(SQLOB_TYPES);  // Providers may be replaced
+
+		return index;
+	}
+
+	/**
+	 * Snapshot of all provided SQLOb types and their resolutions.
+	 */
+	private static final class Index {
+		private final Providers<SqlobType> providers;
+		private final List<SqlobType<?>> sqlobTypes;
+		private final ClassValue<Optional<SqlobType<?>>> resolved = new ClassValue<>() {
+			@Override
+			protected Optional<SqlobType<?>> computeValue(Class<?> type) {
+				return sqlobTypes.stream()
+						.filter(sqlobType -> sqlobType.getTypes().stream()
+								.anyMatch(acceptedType -> acceptedType.isAssignableFrom(type)))
+						.findFirst();
+			}
+		};
+
+		Index(Providers<SqlobType> providers) {
+			this.providers = providers;
+			sqlobTypes = providers.stream()
+					.map(sqlobType -> (SqlobType<?>) sqlobType)  // Cast raw to wildcard
+					.collect(Collectors.toList());
+		}
 	}
 }
@@ -0,0 +1,83 @@
+package dev.kkorolyov.sqlob.util;
+
+import java.util.Objects;
+
+/**
+ * Aggregate function evaluated by the database over selected records.
+ * Like {@link Where}, refers to attributes by persistable field name, which requests resolve to column names.
+ */
+public final class Aggregate {
+	private final Function function;
+	private final String attribute;
+
+	/** @return count of all records */
+	public static Aggregate count() {
+		return new Aggregate(Function.COUNT, null);
+	}
+	/** @return count of records with a non-{@code null} value of {@code attribute} */
+	public static Aggregate count(String attribute) {
+		return new Aggregate(Function.COUNT, attribute);
+	}
+	/** @return minimum value of {@code attribute} */
+	public static Aggregate min(String attribute) {
+		return new Aggregate(Function.MIN, attribute);
+	}
+	/** @return maximum value of {@code attribute} */
+	public static Aggregate max(String attribute) {
+		return new Aggregate(Function.MAX, attribute);
+	}
+	/** @return sum of values of {@code attribute} */
+	public static Aggregate sum(String attribute) {
+		return new Aggregate(Function.SUM, attribute);
+	}
+	/** @return average of values of {@code attribute} */
+	public static Aggregate avg(String attribute) {
+		return new Aggregate(Function.AVG, attribute);
+	}
+
+	private Aggregate(Function function, String attribute) {
+		this.function = function;
+		this.attribute = attribute;
+	}
+
+	/**
+	 * @param attribute new attribute
+	 * @return aggregate of this function over {@code attribute}
+	 */
+	public Aggregate withAttribute(String attribute) {
+		return new Aggregate(function, attribute);
+	}
+
+	/** @return aggregate function */
+	public Function getFunction() {
+		return function;
+	}
+	/** @return aggregated attribute, or {@code null} if aggregating all records */
+	public String getAttribute() {
+		return attribute;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		Aggregate aggregate = (Aggregate) o;
+		return function == aggregate.function &&
+				Objects.equals(attribute, aggregate.attribute);
+	}
+	@Override
+	public int hashCode() {
+		return Objects.hash(function, attribute);
+	}
+
+	@Override
+	public String toString() {
+		return function + "(" + (attribute != null ? attribute : "*") + ")";
+	}
+
+	/** Supported aggregate functions */
+	public enum Function {
+		COUNT, MIN, MAX, SUM, AVG
+	}
+}
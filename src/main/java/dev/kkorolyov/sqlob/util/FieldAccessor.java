@@ -0,0 +1,194 @@
+package dev.kkorolyov.sqlob.util;
+
+import dev.kkorolyov.sqlob.descriptor.Mapper;
+import dev.kkorolyov.sqlob.descriptor.factory.MapperFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes a single field using method handles resolved once on construction.
+ * Unlike {@link ReflectionHelper#getValue(Object, Field)} and {@link ReflectionHelper#setValue(Object, Field, Object)}, does not repeat access checks on each invocation.
+ * If the field's declaring class has a generated {@link Mapper}, delegates to the mapper's direct field access instead.
+ * Primitive fields may additionally be set without boxing through the type-specific setters, such as {@link #setInt(Object, int)}.
+ */
+public final class FieldAccessor {
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodHandle MAPPER_GETTER;
+	private static final MethodHandle MAPPER_SETTER;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+			MAPPER_GETTER = lookup.findVirtual(Mapper.class, "get", MethodType.methodType(Object.class, Object.class, int.class));
+			MAPPER_SETTER = lookup.findVirtual(Mapper.class, "set", MethodType.methodType(void.class, Object.class, int.class, Object.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Field f;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+	private final MethodHandle primitiveSetter;
+
+	/**
+	 * Constructs a new field accessor.
+	 * @param f accessed field
+	 * @throws IllegalArgumentException if {@code f} is inaccessible
+	 */
+	public FieldAccessor(Field f) {
+		this.f = f;
+
+		Mapper<?> mapper = MapperFactory.poll(f.getDeclaringClass()).orElse(null);
+		int field = mapper != null
+				? mapper.getFieldNames().indexOf(f.getName())
+				: -1;
+
+		try {
+			MethodHandle rawSetter;
+			if (field >= 0) {
+				getter = MethodHandles.insertArguments(MAPPER_GETTER.bindTo(mapper), 1, field).asType(GETTER_TYPE);
+				rawSetter = MethodHandles.insertArguments(MAPPER_SETTER.bindTo(mapper), 1, field);
+			} else {
+				f.setAccessible(true);
+				MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+				getter = lookup.unreflectGetter(f).asType(GETTER_TYPE);
+				rawSetter = lookup.unreflectSetter(f);
+			}
+			setter = rawSetter.asType(SETTER_TYPE);
+			primitiveSetter = f.getType().isPrimitive()
+					? rawSetter.asType(MethodType.methodType(void.class, Object.class, f.getType()))
+					: null;
+		} catch (IllegalAccessException | RuntimeException e) {
+			throw new IllegalArgumentException("Unable to access " + f, e);
+		}
+	}
+
+	/**
+	 * @param instance instance to extract from
+	 * @return value extracted from accessed field on {@code instance}
+	 * @throws IllegalArgumentException if an issue occurs extracting the accessed field's value on {@code instance}
+	 */
+	public Object get(Object instance) {
+		try {
+			return (Object) getter.invokeExact(instance);
+		} catch (Throwable e) {
+			throw new IllegalArgumentException("Unable to extract " + f + " value from " + instance, e);
+		}
+	}
+	/**
+	 * @param instance instance to set accessed field value on
+	 * @param value value to set
+	 * @throws IllegalArgumentException if an issue occurs setting the accessed field's value on {@code instance}
+	 */
+	public void set(Object instance, Object value) {
+		try {
+			setter.invokeExact(instance, value);
+		} catch (Throwable e) {
+			throw new IllegalArgumentException("Unable to contribute " + f + " to " + instance, e);
+		}
+	}
+
+	/**
+	 * Sets a {@code int} field without boxing.
+	 * @see #set(Object, Object)
+	 * @throws IllegalArgumentException if the accessed field is not of type {@code int}, or an issue occurs setting its value on {@code instance}
+	 */
+	public void setInt(Object instance, int value) {
+		try {
+			primitiveSetter.invokeExact(instance, value);
+		} catch (Throwable e) {
+			throw new IllegalArgumentException("Unable to contribute " + f + " to " + instance, e);
+		}
+	}
+	/**
+	 * Sets a {@code long} field without boxing.
+	 * @see #set(Object, Object)
+	 * @throws IllegalArgumentException if the accessed field is not of type {@code long}, or an issue occurs setting its value on {@code instance}
+	 */
+	public void setLong(Object instance, long value) {
+		try {
+			primitiveSetter.invokeExact(instance, value);
+		} catch (Throwable e) {
+			throw new IllegalArgumentException("Unable to contribute " + f + " to " + instance, e);
+		}
+	}
+	/**
+	 * Sets a {@code double} field without boxing.
+	 * @see #set(Object, Object)
+	 * @throws IllegalArgumentException if the accessed field is not of type {@code double}, or an issue occurs setting its value on {@code instance}
+	 */
+	public void setDouble(Object instance, double value) {
+		try {
+			primitiveSetter.invokeExact(instance, value);
+		} catch (Throwable e) {
+			throw new IllegalArgumentException("Unable to contribute " + f + " to " + instance, e);
+		}
+	}
+	/**
+	 * Sets a {@code float} field without boxing.
+	 * @see #set(Object, Object)
+	 * @throws IllegalArgumentException if the accessed field is not of type {@code float}, or an issue occurs setting its value on {@code instance}
+	 */
+	public void setFloat(Object instance, float value) {
+		try {
+			primitiveSetter.invokeExact(instance, value);
+		} catch (Throwable e) {
+			throw new IllegalArgumentException("Unable to contribute " + f + " to " + instance, e);
+		}
+	}
+	/**
+	 * Sets a {@code short} field without boxing.
+	 * @see #set(Object, Object)
+	 * @throws IllegalArgumentException if the accessed field is not of type {@code short}, or an issue occurs setting its value on {@code instance}
+	 */
+	public void setShort(Object instance, short value) {
+		try {
+			primitiveSetter.invokeExact(instance, value);
+		} catch (Throwable e) {
+			throw new IllegalArgumentException("Unable to contribute " + f + " to " + instance, e);
+		}
+	}
+	/**
+	 * Sets a {@code byte} field without boxing.
+	 * @see #set(Object, Object)
+	 * @throws IllegalArgumentException if the accessed field is not of type {@code byte}, or an issue occurs setting its value on {@code instance}
+	 */
+	public void setByte(Object instance, byte value) {
+		try {
+			primitiveSetter.invokeExact(instance, value);
+		} catch (Throwable e) {
+			throw new IllegalArgumentException("Unable to contribute " + f + " to " + instance, e);
+		}
+	}
+	/**
+	 * Sets a {@code boolean} field without boxing.
+	 * @see #set(Object, Object)
+	 * @throws IllegalArgumentException if the accessed field is not of type {@code boolean}, or an issue occurs setting its value on {@code instance}
+	 */
+	public void setBoolean(Object instance, boolean value) {
+		try {
+			primitiveSetter.invokeExact(instance, value);
+		} catch (Throwable e) {
+			throw new IllegalArgumentException("Unable to contribute " + f + " to " + instance, e);
+		}
+	}
+
+	/** @return accessed field */
+	public Field getField() {
+		return f;
+	}
+
+	@Override
+	public String toString() {
+		return "FieldAccessor{" +
+				"f=" + f +
+				'}';
+	}
+}
@@ -0,0 +1,94 @@
+package dev.kkorolyov.sqlob.util;
+
+import dev.kkorolyov.sqlob.descriptor.Mapper;
+import dev.kkorolyov.sqlob.descriptor.factory.MapperFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+
+/**
+ * Instantiates a single class using a no-arg constructor handle resolved once on construction.
+ * Unlike {@link ReflectionHelper#newInstance(Class)}, does not repeat constructor lookup and access checks on each invocation.
+ * If the class has a generated {@link Mapper}, delegates to the mapper's direct instantiation instead.
+ * @param <T> instantiated type
+ */
+public final class Instantiator<T> {
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+	private static final MethodHandle MAPPER_CONSTRUCTOR;
+	private static final ClassValue<Instantiator<?>> INSTANTIATORS = new ClassValue<Instantiator<?>>() {
+		@Override
+		protected Instantiator<?> computeValue(Class<?> type) {
+			return new Instantiator<>(type);
+		}
+	};
+
+	static {
+		try {
+			MAPPER_CONSTRUCTOR = MethodHandles.publicLookup().findVirtual(Mapper.class, "newInstance", CONSTRUCTOR_TYPE);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Class<T> c;
+	private final MethodHandle constructor;
+
+	/**
+	 * @param c class to instantiate
+	 * @param <T> instantiated type
+	 * @return instantiator of {@code c}, computed once per class
+	 * @throws IllegalArgumentException if {@code c} has no accessible no-arg constructor
+	 */
+	public static <T> Instantiator<T> get(Class<T> c) {
+		return (Instantiator<T>) INSTANTIATORS.get(c);
+	}
+
+	/**
+	 * Constructs a new instantiator.
+	 * @param c class to instantiate
+	 * @throws IllegalArgumentException if {@code c} has no accessible no-arg constructor
+	 */
+	public Instantiator(Class<T> c) {
+		this.c = c;
+
+		Mapper<T> mapper = MapperFactory.poll(c).orElse(null);
+
+		try {
+			if (mapper != null) {
+				constructor = MAPPER_CONSTRUCTOR.bindTo(mapper);
+			} else {
+				Constructor<T> noArgConstructor = c.getDeclaredConstructor();
+				noArgConstructor.setAccessible(true);
+
+				constructor = MethodHandles.lookup().unreflectConstructor(noArgConstructor).asType(CONSTRUCTOR_TYPE);
+			}
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException(c + " does not provide a no-arg constructor");
+		} catch (IllegalAccessException | RuntimeException e) {
+			throw new IllegalArgumentException("Unable to access no-arg constructor of " + c, e);
+		}
+	}
+
+	/**
+	 * @return new instance of the instantiated class
+	 * @throws RuntimeException if the constructor throws an exception
+	 */
+	public T newInstance() {
+		try {
+			return c.cast((Object) constructor.invokeExact());
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Instantiator{" +
+				"c=" + c +
+				'}';
+	}
+}
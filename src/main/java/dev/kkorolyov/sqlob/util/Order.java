@@ -0,0 +1,70 @@
+package dev.kkorolyov.sqlob.util;
+
+import dev.kkorolyov.sqlob.column.KeyColumn;
+
+import java.util.Objects;
+
+/**
+ * Sort order of selected records by a single attribute.
+ * Like {@link Where}, refers to attributes by persistable field name, which requests resolve to column names.
+ */
+public final class Order {
+	private final String attribute;
+	private final boolean ascending;
+
+	/** @return order by {@code attribute}, ascending */
+	public static Order asc(String attribute) {
+		return new Order(attribute, true);
+	}
+	/** @return order by {@code attribute}, descending */
+	public static Order desc(String attribute) {
+		return new Order(attribute, false);
+	}
+	/** @return order by record ID, ascending */
+	public static Order id() {
+		return asc(KeyColumn.ID.getName());
+	}
+
+	private Order(String attribute, boolean ascending) {
+		this.attribute = attribute;
+		this.ascending = ascending;
+	}
+
+	/**
+	 * @param value value of this order's attribute in the last seen record
+	 * @return where matching records sorting after {@code value} in this order
+	 */
+	Where after(Object value) {
+		return ascending
+				? Where.gt(attribute, value)
+				: Where.lt(attribute, value);
+	}
+
+	/** @return attribute to sort by */
+	public String getAttribute() {
+		return attribute;
+	}
+	/** @return {@code true} if sorting in ascending order, {@code false} if descending */
+	public boolean isAscending() {
+		return ascending;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		Order order = (Order) o;
+		return ascending == order.ascending &&
+				Objects.equals(attribute, order.attribute);
+	}
+	@Override
+	public int hashCode() {
+		return Objects.hash(attribute, ascending);
+	}
+
+	@Override
+	public String toString() {
+		return attribute + (ascending ? " ASC" : " DESC");
+	}
+}
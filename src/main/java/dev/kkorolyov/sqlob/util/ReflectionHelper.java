@@ -1,8 +1,6 @@
 package dev.kkorolyov.sqlob.util;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Arrays;
@@ -52,16 +50,7 @@ public class ReflectionHelper {
 	 * @throws IllegalArgumentException if {@code c} has no no-arg constructor
 	 */
 	public static <T> T newInstance(Class<T> c) {
-		try {
-			Constructor<T> noArgConstructor = c.getDeclaredConstructor();
-			noArgConstructor.setAccessible(true);
-
-			return noArgConstructor.newInstance();
-		} catch (NoSuchMethodException e) {
-			throw new IllegalArgumentException(c + " does not provide a no-arg constructor");
-		} catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
-			throw new RuntimeException(e);
-		}
+		return Instantiator.get(c).newInstance();
 	}
 
 	/**
@@ -3,21 +3,28 @@ package dev.kkorolyov.sqlob.util;
 import dev.kkorolyov.simplefuncs.function.ThrowingBiConsumer;
 import dev.kkorolyov.simplefuncs.function.ThrowingBiFunction;
 import dev.kkorolyov.simplefuncs.function.ThrowingFunction;
+import dev.kkorolyov.sqlob.column.FieldBackedColumn;
 import dev.kkorolyov.sqlob.column.KeyColumn;
+import dev.kkorolyov.sqlob.descriptor.factory.TypeDescriptorFactory;
 
 import java.sql.PreparedStatement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.stream.Collectors;
-
-import static dev.kkorolyov.sqlob.util.PersistenceHelper.getName;
-import static dev.kkorolyov.sqlob.util.PersistenceHelper.getPersistableFields;
-import static dev.kkorolyov.sqlob.util.ReflectionHelper.getValue;
 
 /**
  * Criteria usable in requests as a SQL WHERE clause.
@@ -29,10 +36,16 @@ import static dev.kkorolyov.sqlob.util.ReflectionHelper.getValue;
  * - Create a {@link PreparedStatement} from the string statement
  * - Contribute the Where to the prepared statement
  * </pre>
+ * A Where is an immutable tree of predicates; concatenation returns a new Where sharing both operands.
+ * SQL and bound values are rendered lazily in a single pass, and Wheres are equal by structure and values, so a Where may key caches.
+ * A Where's {@link #getShape() shape} keys caches of SQL, which depends only on structure.
  */
 public class Where {
-	private final StringBuilder sql;
-	private final List<WhereNode> nodes;
+	private final Node root;
+
+	private volatile String sqlText;
+	private volatile List<Object> values;
+	private volatile Shape shape;
 
 	/** @return where for {@code attribute == value}; translates to {@link #isNull(String)} if {@code value} is {@code null} */
 	public static Where eq(String attribute, Object value) {
@@ -64,6 +77,14 @@ public class Where {
 		return new Where(attribute, ">=", value);
 	}
 
+	/**
+	 * @param values values to match; if empty, the returned where matches nothing
+	 * @return where for {@code attribute IN (values...)}
+	 */
+	public static Where in(String attribute, Collection<?> values) {
+		return new Where(new Predicate(attribute, "IN", new ArrayList<>(values)));
+	}
+
 	/** @return where for {@code attribute IS NULL} */
 	public static Where isNull(String attribute) {
 		return new Where(attribute, "IS", null);
@@ -77,14 +98,44 @@ public class Where {
 	public static Where eqId(UUID id) {
 		return eq(KeyColumn.ID.getName(), id);
 	}
+	/** @return where matching any of {@code ids} */
+	public static Where inIds(Collection<UUID> ids) {
+		return in(KeyColumn.ID.getName(), ids);
+	}
 	/** @return where matching {@code o}'s individual attributes */
 	public static Where eqObject(Object o) {
-		return getPersistableFields(o.getClass())
-				.map(f -> eq(getName(f), getValue(o, f)))
+		return TypeDescriptorFactory.get(o.getClass()).streamColumns(FieldBackedColumn.class)
+				.map(column -> eq(column.getField().getName(), column.getAccessor().get(o)))
 				.reduce(Where::and)
 				.orElseThrow(() -> new IllegalArgumentException("Object 'o' has no persistable fields"));
 	}
 
+	/**
+	 * Builds keyset pagination criteria, which seek past the last seen record of an ordered selection.
+	 * @param orders orders the selection is sorted by; should end with a unique attribute, such as {@link Order#id()}, to break ties
+	 * @param values values of each of {@code orders}' attributes in the last seen record; should not be {@code null}
+	 * @return where matching records sorting after the last seen record
+	 * @throws IllegalArgumentException if {@code orders} is empty, or {@code values} does not have a value for each of {@code orders}
+	 */
+	public static Where after(List<Order> orders, List<?> values) {
+		if (orders.isEmpty()) throw new IllegalArgumentException("No orders specified");
+		if (orders.size() != values.size()) throw new IllegalArgumentException("Expected " + orders.size() + " values, got: " + values.size());
+
+		Where result = null;
+		for (int i = 0; i < orders.size(); i++) {
+			Where term = null;
+			for (int j = 0; j < i; j++) {
+				Where eq = eq(orders.get(j).getAttribute(), values.get(j));
+				term = term == null ? eq : term.and(eq);
+			}
+			Where after = orders.get(i).after(values.get(i));
+			term = term == null ? after : term.and(after);
+
+			result = result == null ? term : result.or(term);
+		}
+		return result;
+	}
+
 	/**
 	 * Constructs a new where.
 	 * @param attribute attribute to check
@@ -92,65 +143,48 @@ public class Where {
 	 * @param value value to match
 	 */
 	public Where(String attribute, String operator, Object value) {
-		sql = new StringBuilder();
-		nodes = new ArrayList<>();
-
-		append(new WhereNode(attribute, operator, value));
+		this(new Predicate(attribute, operator, Collections.singletonList(value)));
 	}
-	private Where(StringBuilder sql, List<WhereNode> nodes) {
-		this.sql = sql;
-		this.nodes = nodes;
+	private Where(Node root) {
+		this.root = root;
 	}
 
 	/**
-	 * Appends a where to the end of this where using {@code AND}.
+	 * Concatenates a where to the end of this where using {@code AND}.
 	 * @param attribute attribute to test
 	 * @param operator test operation
 	 * @param value value to match
-	 * @return {@code this}
+	 * @return new where matching both this where and the given criteria
 	 */
 	public Where and(String attribute, String operator, Object value) {
 		return and(new Where(attribute, operator, value));
 	}
 	/**
-	 * Appends a where to the end of this where using {@code AND}.
+	 * Concatenates a where to the end of this where using {@code AND}.
 	 * @param where where to append
-	 * @return {@code this}
+	 * @return new where matching both this where and {@code where}
 	 */
 	public Where and(Where where) {
-		return append(where, "AND");
+		return new Where(new Junction("AND", root, where.root));
 	}
 
 	/**
-	 * Appends a where to the end of this where using {@code OR}.
+	 * Concatenates a where to the end of this where using {@code OR}.
 	 * @param attribute attribute to test
 	 * @param operator test operation
 	 * @param value value to match
-	 * @return {@code this}
+	 * @return new where matching either this where or the given criteria
 	 */
 	public Where or(String attribute, String operator, Object value) {
 		return or(new Where(attribute, operator, value));
 	}
 	/**
-	 * Appends a where to the end of this where using {@code OR}.
+	 * Concatenates a where to the end of this where using {@code OR}.
 	 * @param where where to append
-	 * @return {@code this}
+	 * @return new where matching either this where or {@code where}
 	 */
 	public Where or(Where where) {
-		return append(where, "OR");
-	}
-
-	private Where append(Where where, String joiner) {
-		sql.append(" ").append(joiner).append(" ")
-				.append("(").append(where.getSql()).append(")");
-
-		nodes.addAll(where.nodes);
-
-		return this;
-	}
-	private void append(WhereNode node) {
-		sql.append(node.getSql());
-		nodes.add(node);
+		return new Where(new Junction("OR", root, where.root));
 	}
 
 	/**
@@ -160,12 +194,138 @@ public class Where {
 	 * @return matching where clause with mapped attribute values
 	 */
 	public Where map(ThrowingFunction<String, String, ?> nameMapper, ThrowingBiFunction<String, Object, Object, ?> valueMapper) {
-		return new Where(
-				new StringBuilder(sql.toString()),
-				nodes.stream()
-						.map(node -> new WhereNode(node, nameMapper, valueMapper))
-						.collect(Collectors.toList())
-		);
+		return new Where(map(root, nameMapper, valueMapper));
+	}
+	private static Node map(Node node, Function<String, String> nameMapper, BiFunction<String, Object, Object> valueMapper) {
+		Deque<Junction> spine = leftSpine(node);
+
+		Node result = ((Predicate) leftmost(node, spine)).map(nameMapper, valueMapper);
+		while (!spine.isEmpty()) {
+			Junction junction = spine.pop();
+			result = new Junction(junction.joiner, result, map(junction.right, nameMapper, valueMapper));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns an equivalent where clause in normal form, which
+	 * <pre>
+	 * - Flattens nested chains of the same junction
+	 * - Removes duplicate operands of each junction
+	 * - Folds {@code OR}-ed {@code =} and {@code IN} checks on the same attribute into a single {@code IN}
+	 * - Factors conjuncts common to all operands of an {@code OR} out of it
+	 * </pre>
+	 * @return normalized where clause
+	 */
+	public Where normalize() {
+		return new Where(normalize(root));
+	}
+	private static Node normalize(Node node) {
+		if (!(node instanceof Junction)) return node;
+
+		String joiner = ((Junction) node).joiner;
+
+		Set<Node> operands = new LinkedHashSet<>();
+		for (Node operand : operands(node, joiner)) {
+			Node normalized = normalize(operand);
+
+			if (normalized instanceof Junction && ((Junction) normalized).joiner.equals(joiner)) operands.addAll(operands(normalized, joiner));
+			else operands.add(normalized);
+		}
+		if (!"OR".equals(joiner)) return join(joiner, new ArrayList<>(operands));
+
+		List<Node> disjuncts = foldIn(operands);
+		Node factored = factor(disjuncts);
+		return factored != null ? factored : join(joiner, disjuncts);
+	}
+	/** @return operands of the chain of {@code joiner} junctions rooted at {@code node}, in order */
+	private static List<Node> operands(Node node, String joiner) {
+		List<Node> operands = new ArrayList<>();
+		Deque<Junction> spine = new ArrayDeque<>();
+
+		while (node instanceof Junction && ((Junction) node).joiner.equals(joiner)) {
+			spine.push((Junction) node);
+			node = ((Junction) node).left;
+		}
+		operands.add(node);
+		while (!spine.isEmpty()) {
+			Node right = spine.pop().right;
+
+			if (right instanceof Junction && ((Junction) right).joiner.equals(joiner)) operands.addAll(operands(right, joiner));
+			else operands.add(right);
+		}
+		return operands;
+	}
+	private static Node join(String joiner, List<Node> operands) {
+		Node result = operands.get(0);
+		for (int i = 1; i < operands.size(); i++) {
+			result = new Junction(joiner, result, operands.get(i));
+		}
+		return result;
+	}
+
+	private static List<Node> foldIn(Collection<Node> disjuncts) {
+		Map<String, Integer> counts = new HashMap<>();
+		for (Node disjunct : disjuncts) {
+			if (isFoldable(disjunct)) counts.merge(((Predicate) disjunct).attribute, 1, Integer::sum);
+		}
+		List<Node> result = new ArrayList<>();
+		Map<String, Integer> slots = new HashMap<>();
+		Map<String, Set<Object>> values = new HashMap<>();
+
+		for (Node disjunct : disjuncts) {
+			if (isFoldable(disjunct) && counts.get(((Predicate) disjunct).attribute) > 1) {
+				String attribute = ((Predicate) disjunct).attribute;
+
+				if (!slots.containsKey(attribute)) {
+					slots.put(attribute, result.size());
+					result.add(null);
+				}
+				values.computeIfAbsent(attribute, k -> new LinkedHashSet<>())
+						.addAll(((Predicate) disjunct).values);
+			} else {
+				result.add(disjunct);
+			}
+		}
+		slots.forEach((attribute, slot) -> {
+			Set<Object> attributeValues = values.get(attribute);
+			result.set(slot, new Predicate(attribute, attributeValues.size() == 1 ? "=" : "IN", new ArrayList<>(attributeValues)));
+		});
+		return result;
+	}
+	private static boolean isFoldable(Node node) {
+		if (!(node instanceof Predicate)) return false;
+
+		Predicate predicate = (Predicate) node;
+		return predicate.isList() || ("=".equals(predicate.operator) && predicate.values.get(0) != null);
+	}
+
+	/** @return {@code disjuncts} with conjuncts common to all disjuncts factored out, or {@code null} if there are no common conjuncts */
+	private static Node factor(List<Node> disjuncts) {
+		if (disjuncts.size() < 2) return null;
+
+		List<List<Node>> conjuncts = new ArrayList<>();
+		for (Node disjunct : disjuncts) {
+			conjuncts.add(operands(disjunct, "AND"));
+		}
+		Set<Node> common = new LinkedHashSet<>(conjuncts.get(0));
+		for (int i = 1; i < conjuncts.size() && !common.isEmpty(); i++) {
+			common.retainAll(new HashSet<>(conjuncts.get(i)));
+		}
+		if (common.isEmpty()) return null;
+
+		List<Node> remainders = new ArrayList<>();
+		for (List<Node> disjunctConjuncts : conjuncts) {
+			List<Node> remainder = new ArrayList<>(disjunctConjuncts);
+			remainder.removeAll(common);
+
+			if (remainder.isEmpty()) return join("AND", new ArrayList<>(common));  // Absorbs all other disjuncts
+			remainders.add(join("AND", remainder));
+		}
+		List<Node> result = new ArrayList<>(common);
+		result.add(normalize(join("OR", remainders)));
+
+		return join("AND", result);
 	}
 
 	/**
@@ -173,8 +333,10 @@ public class Where {
 	 * @param consumer consumer of each attribute value, invoked with {@code (index, value)} of each attribute
 	 */
 	public void forEach(ThrowingBiConsumer<Integer, Object, ?> consumer) {
-		for (int i = 0; i < nodes.size(); i++) {
-			consumer.accept(i, nodes.get(i).value);
+		List<Object> values = getValues();
+
+		for (int i = 0; i < values.size(); i++) {
+			consumer.accept(i, values.get(i));
 		}
 	}
 
@@ -184,49 +346,238 @@ public class Where {
 	 * @param action bi-consumer invoked with each {index, value} pair of {@code attribute} in this where clause
 	 */
 	public void consumeValues(String attribute, BiConsumer<Integer, Object> action) {
-		nodes.stream()
-				.filter(node -> node.attribute.equals(attribute))
-				.forEach(node -> action.accept(nodes.indexOf(node), node.value));
+		int[] index = {0};
+
+		forEachPredicate(root, predicate -> {
+			boolean matches = predicate.attribute.equals(attribute);
+
+			for (Object value : predicate.values) {
+				if (matches) action.accept(index[0], value);
+				index[0]++;
+			}
+		});
 	}
 
 	/** @return SQL representation of this where clause */
 	public String getSql() {
-		return sql.toString();
+		if (sqlText == null) {
+			StringBuilder sql = new StringBuilder();
+			render(root, sql, false);
+			sqlText = sql.toString();
+		}
+		return sqlText;
+	}
+	/**
+	 * Returns the shape of this where clause, which determines its {@link #getSql() SQL} independently of its values.
+	 * @return value equal between where clauses with the same attributes, operators, junctions, and numbers of values
+	 */
+	public Object getShape() {
+		if (shape == null) shape = new Shape(map(root, Function.identity(), (attribute, value) -> null));
+		return shape;
+	}
+	private List<Object> getValues() {
+		if (values == null) {
+			List<Object> values = new ArrayList<>();
+			forEachPredicate(root, predicate -> values.addAll(predicate.values));
+			this.values = values;
+		}
+		return values;
+	}
+
+	/**
+	 * Renders a where tree in order, in a single pass.
+	 * Left-nested chains, as built by successive concatenation, are traversed iteratively.
+	 * Opening parentheses of all changes of joiner along a chain are counted and written up front.
+	 * @param inline whether to render values in place of parameter wildcards
+	 */
+	private static void render(Node node, StringBuilder sql, boolean inline) {
+		Deque<Junction> spine = leftSpine(node);
+
+		for (Junction junction : spine) {
+			if (isJoinerChange(junction)) sql.append('(');
+		}
+		((Predicate) leftmost(node, spine)).render(sql, inline);
+		while (!spine.isEmpty()) {
+			Junction junction = spine.pop();
+
+			if (isJoinerChange(junction)) sql.append(')');
+			sql.append(' ').append(junction.joiner).append(" (");
+			render(junction.right, sql, inline);
+			sql.append(')');
+		}
+	}
+	/** @return whether {@code junction} joins a left operand chain of a different joiner, which must be parenthesized */
+	private static boolean isJoinerChange(Junction junction) {
+		return junction.left instanceof Junction && !((Junction) junction.left).joiner.equals(junction.joiner);
+	}
+	private static void forEachPredicate(Node node, Consumer<Predicate> action) {
+		Deque<Junction> spine = leftSpine(node);
+
+		action.accept((Predicate) leftmost(node, spine));
+		while (!spine.isEmpty()) {
+			forEachPredicate(spine.pop().right, action);
+		}
+	}
+
+	/** @return all junctions along {@code node}'s left edge, innermost first */
+	private static Deque<Junction> leftSpine(Node node) {
+		Deque<Junction> spine = new ArrayDeque<>();
+		while (node instanceof Junction) {
+			spine.push((Junction) node);
+			node = ((Junction) node).left;
+		}
+		return spine;
+	}
+	private static Node leftmost(Node node, Deque<Junction> spine) {
+		return spine.isEmpty() ? node : spine.peek().left;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		Where where = (Where) o;
+
+		return root.equals(where.root);
+	}
+	@Override
+	public int hashCode() {
+		return root.hashCode();
 	}
 
 	@Override
 	public String toString() {
-		return nodes.stream()
-				.reduce(
-						sql.toString(),
-						(sql, node) -> sql.replaceFirst("\\?", Matcher.quoteReplacement(String.valueOf(node.value))),
-						(sql1, sql2) -> sql1
-				);
+		StringBuilder sql = new StringBuilder();
+		render(root, sql, true);
+		return sql.toString();
 	}
 
-	private static class WhereNode {
+	private interface Node {}
+
+	/** Where tree with all values nulled */
+	private static final class Shape {
+		private final Node root;
+
+		Shape(Node root) {
+			this.root = root;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			Shape shape = (Shape) o;
+
+			return root.equals(shape.root);
+		}
+		@Override
+		public int hashCode() {
+			return root.hashCode();
+		}
+	}
+
+	private static final class Predicate implements Node {
 		private final String attribute;
 		private final String operator;
-		private final Object value;
+		private final List<Object> values;
 
-		WhereNode(WhereNode template, Function<String, String> nameMapper, BiFunction<String, Object, Object> valueMapper) {
-			this.attribute = nameMapper.apply(template.attribute);
-			this.operator = template.operator;
-			this.value = valueMapper.apply(this.attribute, template.value);
-		}
-		WhereNode(String attribute, String operator, Object value) {
+		Predicate(String attribute, String operator, List<Object> values) {
 			this.attribute = attribute;
 			this.operator = operator;
-			this.value = value;
+			this.values = values;
 		}
 
-		String getSql() {
-			return attribute + " " + operator + " ?";
+		Predicate map(Function<String, String> nameMapper, BiFunction<String, Object, Object> valueMapper) {
+			String mappedAttribute = nameMapper.apply(attribute);
+			List<Object> mappedValues = new ArrayList<>(values.size());
+
+			for (Object value : values) {
+				mappedValues.add(valueMapper.apply(mappedAttribute, value));
+			}
+			return new Predicate(mappedAttribute, operator, mappedValues);
+		}
+
+		void render(StringBuilder sql, boolean inline) {
+			if (!isList()) {
+				sql.append(attribute).append(' ').append(operator).append(' ');
+				renderValue(sql, 0, inline);
+			} else if (values.isEmpty()) {
+				sql.append("1 = 0");
+			} else {
+				sql.append(attribute).append(' ').append(operator).append(" (");
+				for (int i = 0; i < values.size(); i++) {
+					if (i > 0) sql.append(',');
+					renderValue(sql, i, inline);
+				}
+				sql.append(')');
+			}
+		}
+		private void renderValue(StringBuilder sql, int index, boolean inline) {
+			if (inline) sql.append(values.get(index));
+			else sql.append('?');
 		}
 
+		private boolean isList() {
+			return "IN".equals(operator);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			Predicate predicate = (Predicate) o;
+
+			return Objects.equals(attribute, predicate.attribute) &&
+					Objects.equals(operator, predicate.operator) &&
+					Objects.equals(values, predicate.values);
+		}
+		@Override
+		public int hashCode() {
+			return Objects.hash(attribute, operator, values);
+		}
+	}
+
+	private static final class Junction implements Node {
+		private final String joiner;
+		private final Node left;
+		private final Node right;
+
+		private final int hash;
+
+		Junction(String joiner, Node left, Node right) {
+			this.joiner = joiner;
+			this.left = left;
+			this.right = right;
+			hash = Objects.hash(joiner, left, right);  // Computed eagerly to avoid recursing through long chains
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			Node node = this;
+			Node other = (Node) o;
+			while (node instanceof Junction && other instanceof Junction) {  // Iterate along left-nested chains
+				Junction junction = (Junction) node;
+				Junction otherJunction = (Junction) other;
+
+				if (junction == otherJunction) return true;
+				if (junction.hash != otherJunction.hash ||
+						!junction.joiner.equals(otherJunction.joiner) ||
+						!junction.right.equals(otherJunction.right)) return false;
+
+				node = junction.left;
+				other = otherJunction.left;
+			}
+			return node.equals(other);
+		}
 		@Override
-		public String toString() {
-			return attribute + " " + operator + " " + value;
+		public int hashCode() {
+			return hash;
 		}
 	}
 }
@@ -0,0 +1,32 @@
+package dev.kkorolyov.sqlob
+
+import spock.lang.Specification
+
+class BatchPolicySpec extends Specification {
+	def "is full when either threshold is reached"() {
+		BatchPolicy policy = new BatchPolicy(10, 100)
+
+		expect:
+		policy.isFull(rows, bytes) == full
+
+		where:
+		rows | bytes | full
+		1    | 1     | false
+		9    | 99    | false
+		10   | 1     | true
+		1    | 100   | true
+	}
+
+	def "rejects non-positive thresholds"() {
+		when:
+		new BatchPolicy(maxRows, maxBytes)
+
+		then:
+		thrown IllegalArgumentException
+
+		where:
+		maxRows | maxBytes
+		0       | 1
+		1       | 0
+	}
+}
@@ -0,0 +1,53 @@
+package dev.kkorolyov.sqlob
+
+import spock.lang.Specification
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+
+class DialectSpec extends Specification {
+	def "resolves known dialect by name"() {
+		expect:
+		Dialect.of(name) == dialect
+
+		where:
+		name << ["SQLite", "PostgreSQL", "MySQL"]
+		dialect << [Dialect.SQLITE, Dialect.POSTGRESQL, Dialect.MYSQL]
+	}
+	def "resolves unknown dialect without parameter limit"() {
+		String name = randString()
+
+		when:
+		Dialect dialect = Dialect.of(name)
+
+		then:
+		dialect.name == name
+		dialect.maxParameters == 0
+	}
+
+	def "resolves parameter limit by version"() {
+		expect:
+		Dialect.of("SQLite", version).maxParameters == maxParameters
+
+		where:
+		version << ["3.8.11", "3.31.1", "3.32.0", "3.45.1", "4.0", null, "unknown"]
+		maxParameters << [999, 999, 32766, 32766, 32766, 999, 999]
+	}
+
+	def "resolves upsert syntax by version"() {
+		expect:
+		Dialect.of("SQLite", version).upsert == upsert
+
+		where:
+		version << ["3.8.11", "3.23.1", "3.24.0", "3.45.1", null]
+		upsert << [Dialect.Upsert.REPLACE, Dialect.Upsert.REPLACE, Dialect.Upsert.ON_CONFLICT, Dialect.Upsert.ON_CONFLICT, Dialect.Upsert.ON_CONFLICT]
+	}
+
+	def "streams with dialect fetch size"() {
+		expect:
+		dialect.fetchSize == fetchSize
+
+		where:
+		dialect << [Dialect.SQLITE, Dialect.POSTGRESQL, Dialect.MYSQL, Dialect.of(randString())]
+		fetchSize << [0, 1000, 1000, 0]
+	}
+}
@@ -0,0 +1,188 @@
+package dev.kkorolyov.sqlob
+
+import dev.kkorolyov.sqlob.Stub.BasicStub
+import dev.kkorolyov.sqlob.Stub.SmartStub
+import dev.kkorolyov.sqlob.annotation.Cacheable
+
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.function.Function
+
+class EntityCacheSpec extends Specification {
+	long now = 0
+	EntityCache cache = new EntityCache({ now }).configure(BasicStub, 2, 10, TimeUnit.NANOSECONDS)
+
+	UUID key = UUID.randomUUID()
+	Object[] state = [key, "state"]
+	Function<Collection<UUID>, Map<UUID, Object[]>> loader = Mock()
+
+	def "loads and caches state on miss"() {
+		when:
+		Map<UUID, Object[]> result = cache.get(BasicStub, [key], loader)
+
+		then:
+		1 * loader.apply([key]) >> [(key): state]
+		result == [(key): state]
+		cache.misses == 1
+		cache.size() == 1
+	}
+	def "serves cached state on hit"() {
+		when:
+		cache.get(BasicStub, [key], loader)
+		Map<UUID, Object[]> result = cache.get(BasicStub, [key], loader)
+
+		then:
+		1 * loader.apply([key]) >> [(key): state]
+		result == [(key): state]
+		cache.hits == 1
+	}
+	def "loads only missing states"() {
+		UUID otherKey = UUID.randomUUID()
+		Object[] otherState = [otherKey]
+
+		when:
+		cache.get(BasicStub, [key], loader)
+		Map<UUID, Object[]> result = cache.get(BasicStub, [key, otherKey], loader)
+
+		then:
+		1 * loader.apply([key]) >> [(key): state]
+		1 * loader.apply([otherKey]) >> [(otherKey): otherState]
+		result == [(key): state, (otherKey): otherState]
+	}
+	def "does not cache missing records"() {
+		when:
+		cache.get(BasicStub, [key], loader)
+		cache.get(BasicStub, [key], loader)
+
+		then:
+		2 * loader.apply([key]) >> [:]
+		cache.size() == 0
+	}
+
+	def "does not cache unconfigured types"() {
+		when:
+		cache.get(SmartStub, [key], loader)
+		cache.get(SmartStub, [key], loader)
+
+		then:
+		!cache.isCached(SmartStub)
+		2 * loader.apply([key]) >> [(key): state]
+		cache.size() == 0
+	}
+	def "caches annotated types"() {
+		expect:
+		cache.isCached(CachedStub)
+	}
+
+	def "evicts least-recently used state"() {
+		UUID second = UUID.randomUUID()
+		UUID third = UUID.randomUUID()
+
+		when:
+		cache.get(BasicStub, [key], loader)
+		cache.get(BasicStub, [second], loader)
+		cache.get(BasicStub, [key], loader)
+		cache.get(BasicStub, [third], loader)
+		cache.get(BasicStub, [key], loader)
+		cache.get(BasicStub, [second], loader)
+
+		then:
+		1 * loader.apply([key]) >> [(key): state]
+		2 * loader.apply([second]) >> [(second): state]
+		1 * loader.apply([third]) >> [(third): state]
+		cache.evictions == 2
+	}
+	def "expires state after ttl"() {
+		when:
+		cache.get(BasicStub, [key], loader)
+		now = 9
+		cache.get(BasicStub, [key], loader)
+		now = 10
+		cache.get(BasicStub, [key], loader)
+
+		then:
+		2 * loader.apply([key]) >> [(key): state]
+	}
+
+	def "reloads invalidated state"() {
+		when:
+		cache.get(BasicStub, [key], loader)
+		cache.invalidate(BasicStub, key)
+		cache.get(BasicStub, [key], loader)
+		cache.invalidate(BasicStub)
+		cache.get(BasicStub, [key], loader)
+
+		then:
+		3 * loader.apply([key]) >> [(key): state]
+	}
+	def "does not cache state invalidated while loading"() {
+		when:
+		cache.get(BasicStub, [key], loader)
+		cache.get(BasicStub, [key], loader)
+
+		then:
+		1 * loader.apply([key]) >> {
+			cache.invalidate(BasicStub, key)
+			[(key): state]
+		}
+		1 * loader.apply([key]) >> [(key): state]
+	}
+
+	def "combines concurrent loads of the same state"() {
+		CountDownLatch loading = new CountDownLatch(1)
+		CountDownLatch release = new CountDownLatch(1)
+		Map<UUID, Object[]> first
+
+		when:
+		Thread thread = Thread.start {
+			first = cache.get(BasicStub, [key], { keys ->
+				loading.countDown()
+				release.await()
+				[(key): state]
+			} as Function)
+		}
+		loading.await()
+		Thread.start {
+			sleep(50)
+			release.countDown()
+		}
+		Map<UUID, Object[]> second = cache.get(BasicStub, [key], loader)
+		thread.join()
+
+		then:
+		0 * loader.apply(_)
+		first == [(key): state]
+		second == [(key): state]
+	}
+	def "loads state itself if concurrent load fails"() {
+		CountDownLatch loading = new CountDownLatch(1)
+		CountDownLatch release = new CountDownLatch(1)
+
+		when:
+		Thread thread = Thread.start {
+			try {
+				cache.get(BasicStub, [key], { keys ->
+					loading.countDown()
+					release.await()
+					throw new IllegalStateException()
+				} as Function)
+			} catch (IllegalStateException ignored) {}
+		}
+		loading.await()
+		Thread.start {
+			sleep(50)
+			release.countDown()
+		}
+		Map<UUID, Object[]> result = cache.get(BasicStub, [key], loader)
+		thread.join()
+
+		then:
+		1 * loader.apply([key]) >> [(key): state]
+		result == [(key): state]
+	}
+
+	@Cacheable(maxSize = 1)
+	static class CachedStub {}
+}
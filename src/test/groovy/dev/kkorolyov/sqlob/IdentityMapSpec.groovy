@@ -0,0 +1,76 @@
+package dev.kkorolyov.sqlob
+
+import dev.kkorolyov.sqlob.Stub.BasicStub
+import dev.kkorolyov.sqlob.Stub.SmartStub
+
+import spock.lang.Specification
+
+class IdentityMapSpec extends Specification {
+	IdentityMap identities = new IdentityMap()
+
+	UUID key = UUID.randomUUID()
+	BasicStub instance = BasicStub.random()
+
+	def "tracks objects by identity"() {
+		BasicStub other = BasicStub.random()
+
+		when:
+		identities.put(key, instance)
+
+		then:
+		identities.getKey(instance) == key
+		identities.getKey(other) == null
+		identities.get(BasicStub, key).is(instance)
+		identities.get(SmartStub, key) == null
+	}
+
+	def "replaces object tracked with same key"() {
+		BasicStub other = BasicStub.random()
+
+		when:
+		identities.put(key, instance)
+		identities.put(key, other)
+
+		then:
+		identities.get(BasicStub, key).is(other)
+		identities.getKey(instance) == null
+		identities.size() == 1
+	}
+	def "replaces key of retracked object"() {
+		UUID otherKey = UUID.randomUUID()
+
+		when:
+		identities.put(key, instance)
+		identities.put(otherKey, instance)
+
+		then:
+		identities.getKey(instance) == otherKey
+		identities.get(BasicStub, key) == null
+		identities.size() == 1
+	}
+
+	def "removes by key"() {
+		identities.put(key, instance)
+
+		when:
+		identities.remove(BasicStub, key)
+
+		then:
+		identities.getKey(instance) == null
+		identities.get(BasicStub, key) == null
+	}
+	def "removes by type"() {
+		SmartStub smartStub = SmartStub.random()
+		UUID smartKey = UUID.randomUUID()
+		identities.put(key, instance)
+		identities.put(smartKey, smartStub)
+
+		when:
+		identities.remove(BasicStub)
+
+		then:
+		identities.getKey(instance) == null
+		identities.getKey(smartStub) == smartKey
+		identities.size() == 1
+	}
+}
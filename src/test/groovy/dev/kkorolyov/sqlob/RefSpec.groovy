@@ -0,0 +1,39 @@
+package dev.kkorolyov.sqlob
+
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+class RefSpec extends Specification {
+	UUID key = UUID.randomUUID()
+	Object value = new Object()
+
+	def "loads lazy reference once on first access"() {
+		Supplier<?> loader = Mock()
+		Ref<?> ref = Ref.lazy(key, loader)
+
+		when:
+		ref.isLoaded()
+		ref.getKey()
+
+		then:
+		0 * loader.get()
+
+		when:
+		def first = ref.get()
+		def second = ref.get()
+
+		then:
+		1 * loader.get() >> value
+		first.is(value)
+		second.is(value)
+		ref.isLoaded()
+	}
+
+	def "equals by key if persisted"() {
+		expect:
+		Ref.lazy(key, { value }) == Ref.loaded(key, new Object())
+		Ref.loaded(key, value) != Ref.of(value)
+		Ref.of(value) == Ref.of(value)
+	}
+}
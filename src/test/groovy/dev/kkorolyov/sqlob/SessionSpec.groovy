@@ -9,13 +9,19 @@ import spock.lang.Specification
 
 import javax.sql.DataSource
 import java.sql.Connection
+import java.sql.DatabaseMetaData
 
 import static dev.kkorolyov.simplespecs.SpecUtilities.getField
 import static dev.kkorolyov.simplespecs.SpecUtilities.randString
 
 class SessionSpec extends Specification {
 	DataSource dataSource = Mock()
-	Connection connection = Mock()
+	DatabaseMetaData metaData = Mock() {
+		getDatabaseProductName() >> Dialect.SQLITE.name
+	}
+	Connection connection = Mock() {
+		getMetaData() >> metaData
+	}
 
 	Class<?> type = String
 	String name = randString()
@@ -90,4 +96,14 @@ class SessionSpec extends Specification {
 		then:
 		0 * connection.close()
 	}
+
+	def "advances generation on close"() {
+		int generation = session.generation
+
+		when:
+		session.close()
+
+		then:
+		session.generation == generation + 1
+	}
 }
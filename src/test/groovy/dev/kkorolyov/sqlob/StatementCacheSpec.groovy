@@ -0,0 +1,121 @@
+package dev.kkorolyov.sqlob
+
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.PreparedStatement
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+
+class StatementCacheSpec extends Specification {
+	Connection connection = Mock()
+	String sql = randString()
+
+	StatementCache cache = new StatementCache(2)
+
+	def "prepares statement on miss"() {
+		PreparedStatement statement = Mock()
+
+		when:
+		PreparedStatement result = cache.prepare(connection, sql)
+
+		then:
+		1 * connection.prepareStatement(sql) >> statement
+		result == statement
+		cache.misses == 1
+		cache.hits == 0
+	}
+	def "reuses released statement on hit"() {
+		PreparedStatement statement = Mock()
+
+		when:
+		cache.release(cache.prepare(connection, sql))
+		PreparedStatement result = cache.prepare(connection, sql)
+
+		then:
+		1 * connection.prepareStatement(sql) >> statement
+		1 * statement.clearParameters()
+		0 * statement.close()
+		result == statement
+		cache.misses == 1
+		cache.hits == 1
+	}
+	def "prepares uncached statement if cached statement is leased"() {
+		PreparedStatement statement = Mock()
+		PreparedStatement other = Mock()
+
+		when:
+		cache.prepare(connection, sql)
+		PreparedStatement result = cache.prepare(connection, sql)
+		cache.release(result)
+
+		then:
+		2 * connection.prepareStatement(sql) >>> [statement, other]
+		result == other
+		1 * other.close()
+		0 * statement.close()
+		cache.size() == 1
+	}
+
+	def "evicts and closes least-recently used statement"() {
+		PreparedStatement first = Mock()
+		PreparedStatement second = Mock()
+		PreparedStatement third = Mock()
+		String secondSql = randString()
+		String thirdSql = randString()
+
+		when:
+		cache.release(cache.prepare(connection, sql))
+		cache.release(cache.prepare(connection, secondSql))
+		cache.release(cache.prepare(connection, sql))
+		cache.release(cache.prepare(connection, thirdSql))
+
+		then:
+		1 * connection.prepareStatement(sql) >> first
+		1 * connection.prepareStatement(secondSql) >> second
+		1 * connection.prepareStatement(thirdSql) >> third
+		1 * second.close()
+		0 * first.close()
+		cache.size() == 2
+		cache.evictions == 1
+	}
+	def "closes evicted leased statement on release"() {
+		PreparedStatement statement = Mock()
+		StatementCache cache = new StatementCache(0)
+
+		when:
+		PreparedStatement result = cache.prepare(connection, sql)
+
+		then:
+		1 * connection.prepareStatement(sql) >> statement
+		0 * statement.close()
+
+		when:
+		cache.release(result)
+
+		then:
+		1 * statement.close()
+		cache.size() == 0
+	}
+
+	def "closes all statements on clear"() {
+		PreparedStatement statement = Mock()
+		connection.prepareStatement(sql) >> statement
+
+		when:
+		cache.release(cache.prepare(connection, sql))
+		cache.clear()
+
+		then:
+		1 * statement.close()
+		cache.size() == 0
+	}
+
+	def "rejects negative capacity"() {
+		when:
+		new StatementCache(-1)
+
+		then:
+		thrown IllegalArgumentException
+	}
+}
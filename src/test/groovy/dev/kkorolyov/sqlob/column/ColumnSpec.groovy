@@ -1,5 +1,6 @@
 package dev.kkorolyov.sqlob.column
 
+import dev.kkorolyov.sqlob.Dialect
 import dev.kkorolyov.sqlob.ExecutionContext
 import dev.kkorolyov.sqlob.type.SqlobType
 
@@ -14,11 +15,17 @@ class ColumnSpec extends Specification {
 	String name = randString()
 	SqlobType<String> sqlobType = Mock()
 
-	ExecutionContext context = Mock()
+	ExecutionContext context = Mock() {
+		getDialect() >> Dialect.SQLITE
+	}
 	DatabaseMetaData metaData = Mock()
 
 	Column<String> column = Spy(Column, constructorArgs: [name, sqlobType])
 
+	def setup() {
+		sqlobType.bind(_) >> sqlobType
+	}
+
 	def "resolves value using sqlob type"() {
 		String expectedValue = randString()
 
@@ -36,11 +43,11 @@ class ColumnSpec extends Specification {
 		String expectedValue = randString()
 
 		when:
-		String value = column.get(rs, context)
+		String value = column.get(rs, 1, context)
 
 		then:
 		1 * context.metadata >> metaData
-		1 * sqlobType.get(metaData, rs, name) >> expectedValue
+		1 * sqlobType.get(metaData, rs, 1) >> expectedValue
 		value == expectedValue
 	}
 
@@ -56,6 +63,32 @@ class ColumnSpec extends Specification {
 		sqlType == "$name $expectedSqlType"
 	}
 
+	def "binds sqlob type to context dialect once"() {
+		when:
+		SqlobType<String> first = column.getSqlobType(context)
+		SqlobType<String> second = column.getSqlobType(context)
+
+		then:
+		1 * sqlobType.bind(Dialect.SQLITE.name) >> sqlobType
+		first == sqlobType
+		second == sqlobType
+	}
+	def "rebinds sqlob type on dialect change"() {
+		ExecutionContext otherContext = Mock() {
+			getDialect() >> Dialect.POSTGRESQL
+		}
+		SqlobType<String> bound = Mock()
+
+		when:
+		column.getSqlobType(context)
+		SqlobType<String> result = column.getSqlobType(otherContext)
+
+		then:
+		1 * sqlobType.bind(Dialect.SQLITE.name) >> sqlobType
+		1 * sqlobType.bind(Dialect.POSTGRESQL.name) >> bound
+		result == bound
+	}
+
 	def "has no prerequisites"() {
 		expect:
 		column.getPrerequisites(context) == [] as Set
@@ -1,7 +1,9 @@
 package dev.kkorolyov.sqlob.column
 
+import dev.kkorolyov.sqlob.Dialect
 import dev.kkorolyov.sqlob.ExecutionContext
 import dev.kkorolyov.sqlob.result.ConfigurableRecord
+import dev.kkorolyov.sqlob.type.PrimitiveSqlobType
 import dev.kkorolyov.sqlob.type.SqlobType
 
 import spock.lang.Specification
@@ -20,11 +22,17 @@ class FieldBackedColumnSpec extends Specification {
 	SqlobType sqlobType = Mock()
 	Field f = Stub.getDeclaredField(name)
 
-	ExecutionContext context = Mock()
+	ExecutionContext context = Mock() {
+		getDialect() >> Dialect.SQLITE
+	}
 	DatabaseMetaData metaData = Mock()
 
 	FieldBackedColumn<String> column = new FieldBackedColumn(f, sqlobType)
 
+	def setup() {
+		sqlobType.bind(_) >> sqlobType
+	}
+
 	def "uses non-annotated field name as name"() {
 		expect:
 		new FieldBackedColumn(Stub.getDeclaredField("value"), sqlobType).name == "value"
@@ -48,17 +56,35 @@ class FieldBackedColumnSpec extends Specification {
 		String newValue = randString()
 
 		when:
-		column.set(record, rs, context)
+		column.set(record, rs, 1, context)
 
 		then:
 		1 * context.metadata >> metaData
-		1 * sqlobType.get(metaData, rs, name) >> newValue
+		1 * sqlobType.get(metaData, rs, 1) >> newValue
 		instance.value == newValue
 	}
 
+	def "transfers resultSet value to primitive field without boxing"() {
+		PrimitiveSqlobType<Integer> primitiveSqlobType = Mock() {
+			getPrimitiveType() >> Integer.TYPE
+		}
+		primitiveSqlobType.bind(_) >> primitiveSqlobType
+		FieldBackedColumn<Integer> column = new FieldBackedColumn(Stub.getDeclaredField("count"), primitiveSqlobType)
+		ResultSet rs = Mock()
+
+		when:
+		column.set(record, rs, 1, context)
+
+		then:
+		1 * context.metadata >> metaData
+		1 * primitiveSqlobType.transfer(metaData, rs, 1, column.accessor, instance)
+		0 * primitiveSqlobType.get(*_)
+	}
+
 	class Stub {
 		String value = randString()
 		@dev.kkorolyov.sqlob.annotation.Column("custom")
 		String annotated = randString()
+		int count
 	}
 }
@@ -1,6 +1,7 @@
 package dev.kkorolyov.sqlob.column
 
 import dev.kkorolyov.simplefiles.Providers
+import dev.kkorolyov.sqlob.Dialect
 import dev.kkorolyov.sqlob.ExecutionContext
 import dev.kkorolyov.sqlob.result.ConfigurableRecord
 import dev.kkorolyov.sqlob.type.SqlobType
@@ -18,7 +19,9 @@ import static dev.kkorolyov.simplespecs.SpecUtilities.setField
 class KeyColumnSpec extends Specification {
 	static final Providers<SqlobType> ORIGINAL_SQLOB_TYPES = getField("SQLOB_TYPES", SqlobTypeFactory)
 
-	ExecutionContext context = Mock()
+	ExecutionContext context = Mock() {
+		getDialect() >> Dialect.SQLITE
+	}
 	DatabaseMetaData metaData = Mock()
 
 	String name = randString()
@@ -29,11 +32,15 @@ class KeyColumnSpec extends Specification {
 	UUID key = UUID.randomUUID()
 	ConfigurableRecord<UUID, ?> record = new ConfigurableRecord<>(key, null)
 
+	def setupSpec() {
+		assert KeyColumn.ID  // Bind shared key column to real SQLOb types before they are mocked
+	}
 	def cleanupSpec() {
 		setField("SQLOB_TYPES", SqlobTypeFactory, ORIGINAL_SQLOB_TYPES)
 	}
 
 	def setup() {
+		sqlobType.bind(_) >> sqlobType
 		setField("SQLOB_TYPES", SqlobTypeFactory, Providers.fromInstances(SqlobType, [sqlobType] as Set))
 	}
 
@@ -51,11 +58,11 @@ class KeyColumnSpec extends Specification {
 		UUID newKey = UUID.randomUUID()
 
 		when:
-		KeyColumn.primary(name).set(record, rs, context)
+		KeyColumn.primary(name).set(record, rs, 1, context)
 
 		then:
 		1 * context.metadata >> metaData
-		1 * sqlobType.get(metaData, rs, name) >> newKey
+		1 * sqlobType.get(metaData, rs, 1) >> newKey
 		record.key == newKey
 	}
 
@@ -63,6 +70,7 @@ class KeyColumnSpec extends Specification {
 		String name = randString()
 		String sqlType = randString()
 		SqlobType<UUID> sqlobType = Mock()
+		sqlobType.bind(_) >> sqlobType
 
 		KeyColumn column = KeyColumn.primary(name).with {
 			setField("sqlobType", Column, it, sqlobType)
@@ -82,6 +90,7 @@ class KeyColumnSpec extends Specification {
 		String referencedName = randString()
 		String sqlType = randString()
 		SqlobType<UUID> sqlobType = Mock()
+		sqlobType.bind(_) >> sqlobType
 
 		KeyColumn column = KeyColumn.foreign(name, referencedName).with {
 			setField("sqlobType", Column, it, sqlobType)
@@ -1,7 +1,9 @@
 package dev.kkorolyov.sqlob.column.handler
 
 import dev.kkorolyov.simplefiles.Providers
+import dev.kkorolyov.sqlob.Dialect
 import dev.kkorolyov.sqlob.ExecutionContext
+import dev.kkorolyov.sqlob.Ref
 import dev.kkorolyov.sqlob.column.Column
 import dev.kkorolyov.sqlob.column.FieldBackedColumn
 import dev.kkorolyov.sqlob.column.KeyColumn
@@ -36,6 +38,7 @@ class ReferencingColumnHandlerSpec extends Specification {
 	}
 
 	def setup() {
+		sqlobType.bind(_) >> sqlobType
 		setupHandler()
 		setupColumn()
 	}
@@ -64,7 +67,9 @@ class ReferencingColumnHandlerSpec extends Specification {
 	Stub instance = new Stub()
 	Record<UUID, Stub> record = new ConfigurableRecord<>(UUID.randomUUID(), instance)
 
-	ExecutionContext context = Mock()
+	ExecutionContext context = Mock() {
+		getDialect() >> Dialect.SQLITE
+	}
 	DatabaseMetaData metaData = Mock()
 
 	FieldBackedColumn<?> column = handler.get(f)
@@ -113,6 +118,45 @@ class ReferencingColumnHandlerSpec extends Specification {
 		value == record.key
 	}
 
+	def "persists loaded reference's object under its key"() {
+		FieldBackedColumn<?> refColumn = handler.get(RefStub.getDeclaredField(name))
+		setField("sqlobType", Column, getField("keyDelegate", refColumn), sqlobType)
+
+		UUID key = UUID.randomUUID()
+		RefStub refInstance = new RefStub(value: Ref.loaded(key, new Stub1()))
+
+		InsertRequest<?> request = Mock()
+		Result<?> result = Mock()
+
+		when:
+		def value = refColumn.get(new ConfigurableRecord<>(UUID.randomUUID(), refInstance), context)
+
+		then:
+		1 * handler.insert(key, refInstance.value.get()) >> request
+		0 * handler.insert(_)
+		1 * request.executeThrowing(context) >> result
+		1 * result.key >> Optional.of(key)
+		1 * context.getMetadata() >> metaData
+		1 * sqlobType.get(metaData, key) >> key
+		value == key
+	}
+	def "gets unloaded reference's key without persisting"() {
+		FieldBackedColumn<?> refColumn = handler.get(RefStub.getDeclaredField(name))
+		setField("sqlobType", Column, getField("keyDelegate", refColumn), sqlobType)
+
+		UUID key = UUID.randomUUID()
+		RefStub refInstance = new RefStub(value: Ref.lazy(key, { new Stub1() }))
+
+		when:
+		def value = refColumn.get(new ConfigurableRecord<>(UUID.randomUUID(), refInstance), context)
+
+		then:
+		0 * handler.insert(*_)
+		1 * context.getMetadata() >> metaData
+		1 * sqlobType.get(metaData, key) >> key
+		value == key
+	}
+
 	def "gets field value record's object from result set"() {
 		UUID id = UUID.randomUUID()
 
@@ -122,11 +166,11 @@ class ReferencingColumnHandlerSpec extends Specification {
 		Result<?> result = Mock()
 
 		when:
-		def value = column.get(rs, context)
+		def value = column.get(rs, 1, context)
 
 		then:
 		1 * context.getMetadata() >> metaData
-		1 * sqlobType.get(metaData, rs, name) >> id
+		1 * sqlobType.get(metaData, rs, 1) >> id
 		1 * handler.select(f.getType(), id) >> request
 		// FIXME? Can't mock final execute()
 		1 * request.executeThrowing(context) >> result
@@ -141,6 +185,10 @@ class ReferencingColumnHandlerSpec extends Specification {
 		Stub1 value = new Stub1()
 	}
 
+	class RefStub {
+		Ref<Stub1> value
+	}
+
 	class Stub1 {
 		String value = randString()
 	}
@@ -0,0 +1,50 @@
+package dev.kkorolyov.sqlob.column.handler.factory
+
+import dev.kkorolyov.simplefiles.Providers
+import dev.kkorolyov.sqlob.column.handler.ColumnHandler
+
+import spock.lang.Specification
+
+import java.lang.reflect.Field
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.getField
+import static dev.kkorolyov.simplespecs.SpecUtilities.setField
+
+class ColumnHandlerFactorySpec extends Specification {
+	static final Providers<ColumnHandler> ORIGINAL_COLUMN_HANDLERS = getField("COLUMN_HANDLERS", ColumnHandlerFactory)
+
+	ColumnHandler columnHandler = Mock()
+	Field f = Stub.getDeclaredField("value")
+
+	def cleanupSpec() {
+		setField("COLUMN_HANDLERS", ColumnHandlerFactory, ORIGINAL_COLUMN_HANDLERS)
+	}
+
+	def setup() {
+		setField("COLUMN_HANDLERS", ColumnHandlerFactory, Providers.fromInstances(ColumnHandler, [columnHandler] as Set))
+	}
+
+	def "resolves column handler once per field"() {
+		when:
+		def first = ColumnHandlerFactory.get(f)
+		def second = ColumnHandlerFactory.get(f)
+
+		then:
+		1 * columnHandler.accepts(f) >> true
+		first == columnHandler
+		second == columnHandler
+	}
+	def "fails to get unaccepted field"() {
+		columnHandler.accepts(f) >> false
+
+		when:
+		ColumnHandlerFactory.get(f)
+
+		then:
+		thrown NoSuchElementException
+	}
+
+	class Stub {
+		String value
+	}
+}
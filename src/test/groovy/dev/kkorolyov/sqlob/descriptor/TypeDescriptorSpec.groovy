@@ -0,0 +1,47 @@
+package dev.kkorolyov.sqlob.descriptor
+
+import dev.kkorolyov.sqlob.annotation.Column
+import dev.kkorolyov.sqlob.annotation.Table
+import dev.kkorolyov.sqlob.annotation.Transient
+import dev.kkorolyov.sqlob.column.KeyColumn
+import dev.kkorolyov.sqlob.descriptor.factory.TypeDescriptorFactory
+
+import spock.lang.Specification
+
+class TypeDescriptorSpec extends Specification {
+	TypeDescriptor<Stub> descriptor = new TypeDescriptor<>(Stub)
+
+	def "uses table name"() {
+		expect:
+		descriptor.name == "CustomStub"
+	}
+
+	def "orders ID column first followed by persistable fields in declaration order"() {
+		expect:
+		descriptor.columns*.name == [KeyColumn.ID.name, "first", "custom", "third"]
+		descriptor.columnsByName.keySet() as List == [KeyColumn.ID.name, "first", "custom", "third"]
+	}
+
+	def "maps field names to column names"() {
+		expect:
+		descriptor.getColumnName(KeyColumn.ID.name) == KeyColumn.ID.name
+		descriptor.getColumnName("first") == "first"
+		descriptor.getColumnName("second") == "custom"
+		descriptor.getColumnName("ignored") == null
+	}
+
+	def "factory retrieves same descriptor for same type"() {
+		expect:
+		TypeDescriptorFactory.get(Stub).is(TypeDescriptorFactory.get(Stub))
+	}
+
+	@Table("CustomStub")
+	private static class Stub {
+		String first
+		@Column("custom")
+		int second
+		long third
+		@Transient
+		String ignored
+	}
+}
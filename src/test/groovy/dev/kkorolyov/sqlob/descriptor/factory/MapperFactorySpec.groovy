@@ -0,0 +1,79 @@
+package dev.kkorolyov.sqlob.descriptor.factory
+
+import dev.kkorolyov.sqlob.column.KeyColumn
+import dev.kkorolyov.sqlob.descriptor.Mapper
+import dev.kkorolyov.sqlob.descriptor.TypeDescriptor
+import dev.kkorolyov.sqlob.util.FieldAccessor
+import dev.kkorolyov.sqlob.util.Instantiator
+
+import spock.lang.Specification
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+
+class MapperFactorySpec extends Specification {
+	def "polls generated mapper by naming convention"() {
+		expect:
+		MapperFactory.poll(MapperStub).get() instanceof MapperStub_SqlobMapper
+	}
+	def "polls empty if no generated mapper"() {
+		expect:
+		!MapperFactory.poll(String).isPresent()
+		!MapperFactory.poll(int).isPresent()
+	}
+
+	def "field accessor delegates to generated mapper"() {
+		MapperStub instance = new MapperStub()
+		String value = randString()
+		FieldAccessor accessor = new FieldAccessor(MapperStub.getDeclaredField("value"))
+
+		when:
+		accessor.set(instance, value)
+
+		then:
+		instance.value == value.reverse()
+		accessor.get(instance) == value
+	}
+	def "type descriptor uses generated column names"() {
+		TypeDescriptor<MapperStub> descriptor = new TypeDescriptor<>(MapperStub)
+
+		expect:
+		descriptor.columns*.name == [KeyColumn.ID.name, "mapped_value"]
+		descriptor.getColumnName("value") == "mapped_value"
+	}
+	def "instantiator delegates to generated mapper"() {
+		expect:
+		Instantiator.get(MapperStub).newInstance().value == "generated"
+	}
+}
+
+class MapperStub {
+	String value
+}
+
+/** Stands in for a mapper generated by {@code sqlob-processor}; reverses stored values to prove it is used */
+class MapperStub_SqlobMapper implements Mapper<MapperStub> {
+	Class<MapperStub> getType() {
+		MapperStub
+	}
+	String getName() {
+		"MapperStub"
+	}
+
+	List<String> getFieldNames() {
+		["value"]
+	}
+	List<String> getColumnNames() {
+		["mapped_value"]
+	}
+
+	MapperStub newInstance() {
+		new MapperStub(value: "generated")
+	}
+
+	Object get(MapperStub instance, int field) {
+		instance.value.reverse()
+	}
+	void set(MapperStub instance, int field, Object value) {
+		instance.value = (value as String).reverse()
+	}
+}
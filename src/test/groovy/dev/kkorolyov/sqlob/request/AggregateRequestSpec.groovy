@@ -0,0 +1,120 @@
+package dev.kkorolyov.sqlob.request
+
+import dev.kkorolyov.sqlob.Dialect
+import dev.kkorolyov.sqlob.Stub
+import dev.kkorolyov.sqlob.column.handler.factory.ColumnHandlerFactory
+import dev.kkorolyov.sqlob.statement.SelectStatementBuilder
+import dev.kkorolyov.sqlob.util.Aggregate
+import dev.kkorolyov.sqlob.util.Where
+
+import spock.lang.Unroll
+
+import java.sql.DatabaseMetaData
+import java.sql.PreparedStatement
+import java.sql.ResultSet
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+import static dev.kkorolyov.simplespecs.SpecUtilities.setField
+
+class AggregateRequestSpec extends BaseRequestSpec<AggregateRequest<?>> {
+	Where where = Where.eq("string0", randString())
+
+	SelectStatementBuilder statementBuilder = Mock()
+	PreparedStatement statement = Mock()
+	ResultSet rs = Mock()
+
+	def setup() {
+		setField("COLUMN_HANDLERS", ColumnHandlerFactory, ORIGINAL_COLUMN_HANDLERS)  // Aggregate real columns
+
+		context.getDialect() >> Dialect.SQLITE
+		context.getMetadata() >> Mock(DatabaseMetaData)
+		statementBuilder.build() >> statement
+		statement.executeQuery() >> rs
+	}
+
+	def "rejects no aggregates"() {
+		when:
+		new AggregateRequest(Stub.BasicStub, where)
+
+		then:
+		thrown IllegalArgumentException
+	}
+
+	def "decodes MIN and MAX as aggregated column's type"() {
+		AggregateRequest<?> request = request(Aggregate.min("int0"), Aggregate.max("string0"))
+		String max = randString()
+
+		when:
+		List<Object[]> rows = request.aggregate(context)
+
+		then:
+		1 * request.selectBuilder([], [Aggregate.min("int0"), Aggregate.max("string0")], context) >> statementBuilder
+		2 * rs.next() >>> [true, false]
+		1 * rs.getInt(1) >> 4
+		1 * rs.getString(2) >> max
+		0 * rs.getObject(*_)
+		1 * context.release(statement)
+		rows*.toList() == [[4, max]]
+	}
+	def "retrieves COUNT as long and SUM and AVG as database values"() {
+		AggregateRequest<?> request = request(Aggregate.count(), Aggregate.sum("long0"), Aggregate.avg("double0"))
+
+		when:
+		List<Object[]> rows = request.aggregate(context)
+
+		then:
+		1 * request.selectBuilder([], _, context) >> statementBuilder
+		2 * rs.next() >>> [true, false]
+		1 * rs.getLong(1) >> 6L
+		1 * rs.getObject(2) >> 10L
+		1 * rs.getObject(3) >> 2.5d
+		rows*.toList() == [[6L, 10L, 2.5d]]
+	}
+
+	def "retrieves group values before aggregates in grouping order"() {
+		AggregateRequest<?> request = request(Aggregate.count()).groupBy("string0", "int0")
+
+		when:
+		List<Object[]> rows = request.aggregate(context)
+
+		then:
+		1 * request.selectBuilder({ it*.name == ["string0", "int0"] }, [Aggregate.count()], context) >> statementBuilder
+		3 * rs.next() >>> [true, true, false]
+		2 * rs.getString(1) >>> ["a", "b"]
+		2 * rs.getInt(2) >>> [1, 2]
+		2 * rs.getLong(3) >>> [3L, 4L]
+		rows*.toList() == [["a", 1, 3L], ["b", 2, 4L]]
+	}
+	def "counts groups"() {
+		AggregateRequest<?> request = request(Aggregate.count()).groupBy("int0")
+
+		when:
+		int size = request.execute(context).size()
+
+		then:
+		1 * request.selectBuilder(_, _, context) >> statementBuilder
+		4 * rs.next() >>> [true, true, true, false]
+		size == 3
+	}
+
+	@Unroll
+	def "rejects unknown #target attribute"() {
+		AggregateRequest<?> request = request(aggregate).groupBy(groups as String[])
+
+		when:
+		request.aggregate(context)
+
+		then:
+		thrown IllegalArgumentException
+		0 * request.selectBuilder(*_)
+
+		where:
+		target      | aggregate                   | groups
+		"aggregate" | Aggregate.max(randString()) | []
+		"grouping"  | Aggregate.count()           | [randString()]
+	}
+
+	private AggregateRequest<?> request(Aggregate... aggregates) {
+		return Spy(AggregateRequest, constructorArgs: [Stub.BasicStub, where, aggregates])
+	}
+}
@@ -43,7 +43,7 @@ abstract class BaseRequestSpec<T extends Request<?>> extends Specification {
 			return null
 		}
 		@Override
-		<O> ConfigurableRecord<UUID, O> set(ConfigurableRecord<UUID, O> record, ResultSet rs, ExecutionContext context) {
+		<O> ConfigurableRecord<UUID, O> set(ConfigurableRecord<UUID, O> record, ResultSet rs, int column, ExecutionContext context) {
 			return null
 		}
 
@@ -0,0 +1,55 @@
+package dev.kkorolyov.sqlob.request
+
+import dev.kkorolyov.sqlob.Stub
+import dev.kkorolyov.sqlob.result.ConfigurableResult
+import dev.kkorolyov.sqlob.result.Result
+import dev.kkorolyov.sqlob.statement.SelectStatementBuilder
+import dev.kkorolyov.sqlob.util.Where
+
+import java.sql.PreparedStatement
+import java.sql.ResultSet
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.randInt
+import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+
+class CountRequestSpec extends BaseRequestSpec<CountRequest<?>> {
+	Where where = Where.eq(randString(), randString())
+
+	CountRequest<?> request = Spy(CountRequest, constructorArgs: [Stub.BasicStub, randString(), where, columns])
+
+	SelectStatementBuilder statementBuilder = Mock()
+	PreparedStatement statement = Mock()
+	ResultSet rs = Mock()
+
+	def "counts matching records"() {
+		int count = randInt()
+
+		when:
+		Result<?> result = request.execute(context)
+
+		then:
+		1 * request.selectBuilder(context) >> statementBuilder
+		1 * statementBuilder.build() >> statement
+		1 * statement.executeQuery() >> rs
+		1 * rs.next() >> true
+		1 * rs.getLong(1) >> count
+		1 * context.release(statement)
+		result == new ConfigurableResult().size(count)
+	}
+
+	def "checks existence of matching records"() {
+		when:
+		Result<?> result = request.exists().execute(context)
+
+		then:
+		1 * request.selectBuilder(context) >> statementBuilder
+		1 * statementBuilder.build() >> statement
+		1 * statement.executeQuery() >> rs
+		1 * rs.next() >> exists
+		0 * rs.getLong(_)
+		result.size() == (exists ? 1 : 0)
+
+		where:
+		exists << [true, false]
+	}
+}
@@ -24,6 +24,7 @@ class CreateRequestSpec extends BaseRequestSpec<CreateRequest<?>> {
 		1 * statementBuilder.batch(_, _) >> statementBuilder
 		1 * statementBuilder.build() >> statement
 		1 * statement.executeBatch()
+		1 * context.release(statement)
 		result == new ConfigurableResult()
 	}
 }
@@ -1,6 +1,8 @@
 package dev.kkorolyov.sqlob.request
 
+import dev.kkorolyov.sqlob.Dialect
 import dev.kkorolyov.sqlob.Stub
+import dev.kkorolyov.sqlob.column.handler.factory.ColumnHandlerFactory
 import dev.kkorolyov.sqlob.result.ConfigurableResult
 import dev.kkorolyov.sqlob.result.Result
 import dev.kkorolyov.sqlob.statement.DeleteStatementBuilder
@@ -10,6 +12,7 @@ import java.sql.PreparedStatement
 
 import static dev.kkorolyov.simplespecs.SpecUtilities.randInt
 import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+import static dev.kkorolyov.simplespecs.SpecUtilities.setField
 
 class DeleteRequestSpec extends BaseRequestSpec<DeleteRequest<?>> {
 	Where where = Where.eq(randString(), randString()) // Yay for non-initialized fields at this point
@@ -28,6 +31,38 @@ class DeleteRequestSpec extends BaseRequestSpec<DeleteRequest<?>> {
 		1 * request.deleteBuilder(context) >> statementBuilder
 		1 * statementBuilder.build() >> statement
 		1 * statement.executeUpdate() >> deleted
+		1 * context.release(statement)
 		result == new ConfigurableResult().size(deleted)
 	}
+
+	def "deletes IDs exceeding parameter limit in a statement per chunk"() {
+		setField("COLUMN_HANDLERS", ColumnHandlerFactory, ORIGINAL_COLUMN_HANDLERS)  // Match real columns
+
+		int maxParameters = Dialect.SQLITE.maxParameters
+		List<UUID> ids = (0..maxParameters * 2).collect { UUID.randomUUID() }
+		List<List<UUID>> chunks = ids.collate(maxParameters)
+		PreparedStatement statement = Mock()
+
+		context.getDialect() >> Dialect.SQLITE
+
+		when:
+		Result<?> result = new DeleteRequest(Stub.BasicStub, ids).execute(context)
+
+		then:
+		chunks.size() * context.generateStatement({ it.count("?") <= maxParameters }) >> statement
+		chunks.size() * statement.executeUpdate() >>> chunks*.size()
+		chunks.size() * context.release(statement)
+		1 * context.invalidate(Stub.BasicStub, ids)
+		result.size() == ids.size()
+	}
+	def "rejects no IDs"() {
+		setField("COLUMN_HANDLERS", ColumnHandlerFactory, ORIGINAL_COLUMN_HANDLERS)  // Match real columns
+
+		when:
+		new DeleteRequest(Stub.BasicStub, [])
+
+		then:
+		thrown NoSuchElementException
+		0 * context._
+	}
 }
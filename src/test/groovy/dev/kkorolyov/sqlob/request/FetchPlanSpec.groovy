@@ -0,0 +1,46 @@
+package dev.kkorolyov.sqlob.request
+
+import dev.kkorolyov.sqlob.request.FetchPlan.Mode
+
+import spock.lang.Specification
+
+class FetchPlanSpec extends Specification {
+	def "defaults to plan mode within depth"() {
+		FetchPlan plan = FetchPlan.of(Mode.EAGER).depth(2)
+
+		expect:
+		plan.getMode("a") == Mode.EAGER
+		plan.descend("a").getMode("b") == Mode.EAGER
+		plan.descend("a").descend("b").getMode("c") == Mode.LAZY
+	}
+
+	def "overrides mode by field path"() {
+		FetchPlan plan = FetchPlan.DEFAULT
+				.depth(1)
+				.field("a", Mode.LAZY)
+				.field("b.c", Mode.EAGER)
+
+		expect:
+		plan.getMode("a") == Mode.LAZY
+		plan.getMode("b") == Mode.BATCH
+		plan.descend("b").getMode("c") == Mode.EAGER
+		plan.descend("b").getMode("d") == Mode.LAZY
+		plan.descend("a").getMode("c") == Mode.LAZY
+	}
+
+	def "descends to equal plans for equal paths"() {
+		FetchPlan plan = FetchPlan.DEFAULT.field("a.b", Mode.LAZY)
+
+		expect:
+		plan.descend("a") == FetchPlan.DEFAULT.field("b", Mode.LAZY)
+		plan.descend("c") == FetchPlan.DEFAULT
+	}
+
+	def "rejects negative depth"() {
+		when:
+		FetchPlan.DEFAULT.depth(-1)
+
+		then:
+		thrown IllegalArgumentException
+	}
+}
@@ -1,10 +1,21 @@
 package dev.kkorolyov.sqlob.request
 
+import dev.kkorolyov.sqlob.BatchPolicy
+import dev.kkorolyov.sqlob.Dialect
+import dev.kkorolyov.sqlob.Dialect.Upsert
+import dev.kkorolyov.sqlob.IdentityMap
 import dev.kkorolyov.sqlob.Stub
+import dev.kkorolyov.sqlob.column.handler.factory.ColumnHandlerFactory
 import dev.kkorolyov.sqlob.result.ConfigurableRecord
 import dev.kkorolyov.sqlob.result.Record
+import dev.kkorolyov.sqlob.result.Result
+import dev.kkorolyov.sqlob.statement.InsertStatementBuilder
+import dev.kkorolyov.sqlob.util.Where
+
+import java.sql.PreparedStatement
 
 import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+import static dev.kkorolyov.simplespecs.SpecUtilities.setField
 
 class InsertRequestSpec extends BaseRequestSpec<InsertRequest<?>> {
 	Collection<Record<?, ?>> records = (0..5).collect {
@@ -18,4 +29,125 @@ class InsertRequestSpec extends BaseRequestSpec<InsertRequest<?>> {
 
 		// TODO
 	}
+
+	def "upserts records without selecting existing records if dialect has upsert syntax"() {
+		InsertStatementBuilder statementBuilder = Mock()
+		PreparedStatement statement = Mock()
+		int size = 0
+
+		context.getDialect() >> Dialect.SQLITE
+		request.batchPolicy(new BatchPolicy(records.size(), Long.MAX_VALUE))
+
+		when:
+		Result<?> result = request.execute(context)
+
+		then:
+		1 * request.insertBuilder(Upsert.ON_CONFLICT, context) >> statementBuilder
+		records.size() * statementBuilder.batch(_ as Object[]) >> { size++; statementBuilder }
+		_ * statementBuilder.size() >> { size }
+		_ * statementBuilder.estimateBytes() >> 0
+		1 * statementBuilder.buildMultiRow(_) >> [statement]
+		1 * statement.executeBatch() >> ([records.size()] as int[])
+		1 * statementBuilder.clear() >> { size = 0; statementBuilder }
+		0 * request.select(*_)
+		result.records as Set == records as Set
+		result.batchCounts == [records.size()]
+	}
+	def "selects existing records if dialect has no upsert syntax"() {
+		InsertStatementBuilder statementBuilder = Mock()
+		PreparedStatement statement = Mock()
+		SelectRequest<?> select = Mock()
+		Result<?> selected = Mock()
+		int size = 0
+
+		setField("COLUMN_HANDLERS", ColumnHandlerFactory, ORIGINAL_COLUMN_HANDLERS)  // Match against real columns
+		context.getDialect() >> Dialect.of(randString())
+		request.batchPolicy(new BatchPolicy(records.size(), Long.MAX_VALUE))
+		select.executeThrowing(context) >> selected
+		selected.getKeys() >> []
+
+		when:
+		Result<?> result = request.execute(context)
+
+		then:
+		1 * request.select(Stub.BasicStub, _ as Where) >> select
+		1 * request.select(Stub.BasicStub, _ as Iterable) >> select
+		1 * request.insertBuilder(Upsert.NONE, context) >> statementBuilder
+		records.size() * statementBuilder.batch(_ as Object[]) >> { size++; statementBuilder }
+		_ * statementBuilder.size() >> { size }
+		_ * statementBuilder.estimateBytes() >> 0
+		1 * statementBuilder.build() >> statement
+		1 * statement.executeBatch() >> ([1] * records.size() as int[])
+		1 * statementBuilder.clear() >> { size = 0; statementBuilder }
+		result.records as Set == records as Set
+	}
+	def "tracks and invalidates written records"() {
+		InsertStatementBuilder statementBuilder = Mock()
+		PreparedStatement statement = Mock()
+		IdentityMap identities = new IdentityMap()
+		int size = 0
+
+		context.getDialect() >> Dialect.SQLITE
+		context.getIdentityMap() >> identities
+		request.insertBuilder(Upsert.ON_CONFLICT, context) >> statementBuilder
+		request.batchPolicy(new BatchPolicy(records.size(), Long.MAX_VALUE))
+		statementBuilder.batch(_ as Object[]) >> { size++; statementBuilder }
+		statementBuilder.size() >> { size }
+		statementBuilder.buildMultiRow(_) >> [statement]
+		statementBuilder.clear() >> { size = 0; statementBuilder }
+		statement.executeBatch() >> ([records.size()] as int[])
+
+		when:
+		request.execute(context)
+
+		then:
+		1 * context.invalidate(Stub.BasicStub, { it as Set == records*.key as Set })
+		records.every { identities.getKey(it.object) == it.key }
+	}
+
+	def "flushes batches when batch policy is full"() {
+		InsertStatementBuilder statementBuilder = Mock()
+		PreparedStatement statement = Mock()
+		int size = 0
+
+		context.getDialect() >> Dialect.SQLITE
+		request.batchPolicy(new BatchPolicy(4, Long.MAX_VALUE))
+
+		when:
+		Result<?> result = request.insert(records, statementBuilder, context)
+
+		then:
+		6 * statementBuilder.batch(_ as Object[]) >> { size++; statementBuilder }
+		_ * statementBuilder.size() >> { size }
+		_ * statementBuilder.estimateBytes() >> 0
+		2 * statementBuilder.buildMultiRow(_) >> [statement]
+		2 * statement.executeBatch() >>> [[4] as int[], [2] as int[]]
+		2 * statementBuilder.clear() >> { size = 0; statementBuilder }
+		2 * context.release(statement)
+		result.batchCounts == [4, 2]
+		result.records.size() == records.size()
+	}
+
+	def "matches existing records by content in chunks"() {
+		Collection<Record<UUID, ?>> manyRecords = (0..<1200).collect {
+			new ConfigurableRecord<>(UUID.randomUUID(), Stub.BasicStub.random())
+		}
+		setField("COLUMN_HANDLERS", ColumnHandlerFactory, ORIGINAL_COLUMN_HANDLERS)  // Match against real columns
+		int chunkSize = Math.min(Dialect.SQLITE.maxParameters.intdiv(request.matchedParameters), InsertRequest.MAX_MATCHED_RECORDS)
+		int chunks = Math.ceil(manyRecords.size() / chunkSize)
+		UUID existing = UUID.randomUUID()
+		SelectRequest<?> select = Mock()
+		Result<?> selected = Mock()
+
+		context.getDialect() >> Dialect.SQLITE
+		select.executeThrowing(context) >> selected
+		selected.getKeys() >> [existing]
+
+		when:
+		Collection<UUID> ids = request.selectExistingIds(manyRecords, context)
+
+		then:
+		chunks * request.select(Stub.BasicStub, _ as Where) >> select
+		ids == [existing] as Set
+	}
 }
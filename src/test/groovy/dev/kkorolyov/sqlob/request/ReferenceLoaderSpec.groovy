@@ -0,0 +1,104 @@
+package dev.kkorolyov.sqlob.request
+
+import dev.kkorolyov.sqlob.Stub.BasicStub
+import dev.kkorolyov.sqlob.Stub.SmartStub
+import dev.kkorolyov.sqlob.column.ReferenceColumn
+import dev.kkorolyov.sqlob.request.FetchPlan.Mode
+import dev.kkorolyov.sqlob.result.ConfigurableRecord
+import dev.kkorolyov.sqlob.result.ConfigurableResult
+
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+class ReferenceLoaderSpec extends Specification {
+	ReferenceColumn column = Mock {
+		getField() >> SmartStub.getDeclaredField("stub")
+		getReferencedType() >> BasicStub
+	}
+	List<List> requested = []
+	BasicStub referenced = BasicStub.random()
+	BasicStub otherReferenced = BasicStub.random()
+	UUID key = UUID.randomUUID()
+	UUID otherKey = UUID.randomUUID()
+
+	Supplier<?> lazyLoader = Mock()
+
+	ReferenceLoader.Selector select = { type, keys, plan ->
+		requested << [type, keys.toList(), plan]
+		new ConfigurableResult()
+				.add(new ConfigurableRecord(key, referenced))
+				.add(new ConfigurableRecord(otherKey, otherReferenced))
+	}
+
+	ReferenceLoader loader(FetchPlan plan) {
+		new ReferenceLoader(plan, select, { type, id -> lazyLoader })
+	}
+
+	def "batches references to same type in single request"() {
+		ReferenceLoader loader = loader(FetchPlan.DEFAULT)
+		UUID missingKey = UUID.randomUUID()
+		List<SmartStub> instances = (0..3).collect { new SmartStub(null) }
+
+		when:
+		loader.defer(column, instances[0], key)
+		loader.defer(column, instances[1], otherKey)
+		loader.defer(column, instances[2], key)
+		loader.defer(column, instances[3], missingKey)
+
+		then:
+		requested.empty
+		0 * column.setLoaded(*_)
+
+		when:
+		loader.load()
+
+		then:
+		requested == [[BasicStub, [key, otherKey, missingKey], FetchPlan.DEFAULT]]
+		1 * column.setLoaded(instances[0], key, referenced)
+		1 * column.setLoaded(instances[1], otherKey, otherReferenced)
+		1 * column.setLoaded(instances[2], key, referenced)
+		1 * column.setLoaded(instances[3], missingKey, null)
+	}
+
+	def "loads eager references immediately"() {
+		ReferenceLoader loader = loader(FetchPlan.of(Mode.EAGER))
+		SmartStub instance = new SmartStub(null)
+
+		when:
+		loader.defer(column, instance, key)
+
+		then:
+		requested == [[BasicStub, [key], FetchPlan.of(Mode.EAGER)]]
+		1 * column.setLoaded(instance, key, referenced)
+	}
+
+	def "leaves lazy references unloaded"() {
+		ReferenceLoader loader = loader(plan)
+		SmartStub instance = new SmartStub(null)
+
+		when:
+		loader.defer(column, instance, key)
+		loader.load()
+
+		then:
+		requested.empty
+		1 * column.setLazy(instance, key, lazyLoader)
+		0 * lazyLoader.get()
+
+		where:
+		plan << [
+				FetchPlan.of(Mode.LAZY),
+				FetchPlan.DEFAULT.depth(0),
+				FetchPlan.DEFAULT.field("stub", Mode.LAZY)
+		]
+	}
+
+	def "loads nothing if no references deferred"() {
+		when:
+		loader(FetchPlan.DEFAULT).load()
+
+		then:
+		requested.empty
+	}
+}
@@ -1,14 +1,22 @@
 package dev.kkorolyov.sqlob.request
 
+import dev.kkorolyov.sqlob.Dialect
+import dev.kkorolyov.sqlob.IdentityMap
+import dev.kkorolyov.sqlob.Session
 import dev.kkorolyov.sqlob.Stub
+import dev.kkorolyov.sqlob.column.handler.factory.ColumnHandlerFactory
+import dev.kkorolyov.sqlob.result.Record
 import dev.kkorolyov.sqlob.result.Result
 import dev.kkorolyov.sqlob.statement.SelectStatementBuilder
 import dev.kkorolyov.sqlob.util.Where
 
 import java.sql.PreparedStatement
 import java.sql.ResultSet
+import java.util.stream.Collectors
+import java.util.stream.Stream
 
 import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+import static dev.kkorolyov.simplespecs.SpecUtilities.setField
 
 class SelectRequestSpec extends BaseRequestSpec<SelectRequest<?>> {
 	Where where = Where.eq(randString(), randString())
@@ -31,14 +39,188 @@ class SelectRequestSpec extends BaseRequestSpec<SelectRequest<?>> {
 		1 * statementBuilder.build() >> statement
 		1 * statement.executeQuery() >> rs
 		2 * rs.next() >> true >> false
-		columns.each {
-			1 * it.set(_, rs, context) >> { record, rs1, context ->
+		columns.eachWithIndex { column, i ->
+			1 * column.set(_, rs, i + 1, context) >> { record, rs1, index, context ->
 				record.key = key
 				record.object = object
 				record
 			}
 		}
+		1 * rs.close()
+		1 * context.release(statement)
 		result.key.orElse(null) == key
 		result.object.orElse(null) == object
 	}
+
+	def "selects IDs exceeding parameter limit in a statement per chunk"() {
+		setField("COLUMN_HANDLERS", ColumnHandlerFactory, ORIGINAL_COLUMN_HANDLERS)  // Select real columns
+
+		int maxParameters = Dialect.SQLITE.maxParameters
+		List<UUID> ids = (0..maxParameters * 2).collect { UUID.randomUUID() }
+		List<List<UUID>> chunks = ids.collate(maxParameters)
+		PreparedStatement statement = Mock()
+		ResultSet rs = Mock()
+
+		context.getDialect() >> Dialect.SQLITE
+
+		when:
+		Result<?> result = new SelectRequest(Stub.BasicStub, ids).execute(context)
+
+		then:
+		chunks.size() * context.generateStatement({ it.count("?") <= maxParameters }) >> statement
+		chunks.size() * statement.executeQuery() >> rs
+		chunks.size() * 2 * rs.next() >>> [true, false] * chunks.size()
+		chunks.size() * rs.getString(1) >>> chunks*.first()*.toString()  // A row per chunk
+		chunks.size() * context.release(statement)
+		result.keys as Set == chunks*.first() as Set
+	}
+	def "selects nothing for no IDs"() {
+		setField("COLUMN_HANDLERS", ColumnHandlerFactory, ORIGINAL_COLUMN_HANDLERS)  // Select real columns
+
+		context.getDialect() >> Dialect.SQLITE
+
+		when:
+		Result<?> result = new SelectRequest(Stub.BasicStub, []).execute(context)
+
+		then:
+		0 * context.generateStatement(_)
+		result.size() == 0
+	}
+
+	def "resolves selected objects through identity map"() {
+		SelectStatementBuilder statementBuilder = Mock()
+		PreparedStatement statement = Mock()
+		ResultSet rs = Mock()
+
+		IdentityMap identities = new IdentityMap()
+		UUID trackedKey = UUID.randomUUID()
+		UUID untrackedKey = UUID.randomUUID()
+		Object tracked = Stub.BasicStub.random()
+		Object untracked = Stub.BasicStub.random()
+		identities.put(trackedKey, tracked)
+
+		context.getIdentityMap() >> identities
+		request.selectBuilder(context) >> statementBuilder
+		statementBuilder.build() >> statement
+		statement.executeQuery() >> rs
+		rs.next() >>> [true, true, false]
+		List<List> rows = [[trackedKey, Stub.BasicStub.random()], [untrackedKey, untracked]]
+		_.set(_, rs, 1, context) >> { record, rs1, index, context1 ->
+			def (key, object) = rows.remove(0)
+			record.key = key
+			record.object = object
+			record
+		}
+
+		when:
+		Result<?> result = request.execute(context)
+
+		then:
+		result.records.collectEntries { [(it.key): it.object] } == [(trackedKey): tracked, (untrackedKey): untracked]
+		identities.get(Stub.BasicStub, untrackedKey).is(untracked)
+	}
+
+	def "rejects loading lazy reference after its session is closed"() {
+		Session session = Mock()
+		context.getSession() >> Optional.of(session)
+		session.getGeneration() >>> [0, 1]
+
+		when:
+		SelectRequest.lazyLoader(Stub.BasicStub, UUID.randomUUID(), context).get()
+
+		then:
+		thrown IllegalStateException
+		0 * session.execute(_)
+	}
+
+	def "selects tuples of raw column values"() {
+		SelectStatementBuilder statementBuilder = Mock()
+		PreparedStatement statement = Mock()
+		ResultSet rs = Mock()
+
+		request.selectBuilder(context) >> statementBuilder
+		statementBuilder.build() >> statement
+		statement.executeQuery() >> rs
+		rs.next() >>> [true, true, false]
+		_.get(rs, _, context) >> { rs1, int index, context1 -> index }
+
+		when:
+		List<Object[]> tuples = request.tuples(context)
+
+		then:
+		0 * _.set(*_)
+		tuples*.toList() == [(1..columns.size()).toList()] * 2
+		1 * context.release(statement)
+	}
+
+	def "streams selected records lazily"() {
+		SelectStatementBuilder statementBuilder = Mock()
+		PreparedStatement statement = Mock()
+		ResultSet rs = Mock()
+
+		UUID key = UUID.randomUUID()
+		Object object = Mock()
+
+		context.getDialect() >> Dialect.POSTGRESQL
+		request.selectBuilder(context) >> statementBuilder
+		statementBuilder.build() >> statement
+		statement.executeQuery() >> rs
+		_.set(_, rs, _, context) >> { record, rs1, index, context1 ->
+			record.key = key
+			record.object = object
+			record
+		}
+
+		when:
+		Stream<Record<UUID, ?>> stream = request.stream(context)
+
+		then:
+		1 * statement.setFetchSize(Dialect.POSTGRESQL.fetchSize)
+		0 * rs.next()
+		0 * context.release(_)
+
+		when:
+		List<Record<UUID, ?>> records = stream.collect(Collectors.toList())
+		stream.close()
+
+		then:
+		3 * rs.next() >>> [true, true, false]
+		records*.key == [key, key]
+		records*.object == [object, object]
+		1 * rs.close()
+		1 * context.release(statement)
+	}
+	def "resolves streamed objects through identity map without tracking them"() {
+		SelectStatementBuilder statementBuilder = Mock()
+		PreparedStatement statement = Mock()
+		ResultSet rs = Mock()
+
+		IdentityMap identities = new IdentityMap()
+		UUID trackedKey = UUID.randomUUID()
+		Object tracked = Stub.BasicStub.random()
+		identities.put(trackedKey, tracked)
+		List<List> rows = [[trackedKey, Stub.BasicStub.random()]] + (0..<100).collect { [UUID.randomUUID(), Stub.BasicStub.random()] }
+
+		context.getDialect() >> Dialect.POSTGRESQL
+		context.getIdentityMap() >> identities
+		request.selectBuilder(context) >> statementBuilder
+		statementBuilder.build() >> statement
+		statement.executeQuery() >> rs
+		rs.next() >>> [true] * rows.size() + [false]
+		_.set(_, rs, 1, context) >> { record, rs1, index, context1 ->
+			def (key, object) = rows.remove(0)
+			record.key = key
+			record.object = object
+			record
+		}
+
+		when:
+		List<Record<UUID, ?>> records
+		request.stream(context).withCloseable { records = it.collect(Collectors.toList()) }
+
+		then:
+		records.size() == 101
+		records[0].object.is(tracked)
+		identities.size() == 1
+	}
 }
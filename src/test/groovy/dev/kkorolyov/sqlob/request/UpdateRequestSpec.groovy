@@ -0,0 +1,44 @@
+package dev.kkorolyov.sqlob.request
+
+import dev.kkorolyov.sqlob.Stub
+import dev.kkorolyov.sqlob.result.ConfigurableResult
+import dev.kkorolyov.sqlob.result.Result
+import dev.kkorolyov.sqlob.statement.UpdateStatementBuilder
+import dev.kkorolyov.sqlob.util.Where
+
+import java.sql.PreparedStatement
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.randInt
+import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+
+class UpdateRequestSpec extends BaseRequestSpec<UpdateRequest<?>> {
+	Where where = Where.eq(randString(), randString())
+	Map<String, Object> assignments = [(randString()): randString()]
+
+	UpdateRequest<?> request = Spy(UpdateRequest, constructorArgs: [Stub.BasicStub, randString(), assignments, where, columns])
+
+	def "executes single update statement"() {
+		UpdateStatementBuilder statementBuilder = Mock()
+		PreparedStatement statement = Mock()
+		int updated = randInt()
+
+		when:
+		Result<?> result = request.execute(context)
+
+		then:
+		1 * request.updateBuilder(context) >> statementBuilder
+		1 * statementBuilder.buildSingle() >> statement
+		1 * statement.executeUpdate() >> updated
+		0 * statement.executeBatch()
+		1 * context.release(statement)
+		result == new ConfigurableResult().size(updated)
+	}
+
+	def "rejects empty assignments"() {
+		when:
+		new UpdateRequest<>(Stub.BasicStub, randString(), [:], where, columns)
+
+		then:
+		thrown IllegalArgumentException
+	}
+}
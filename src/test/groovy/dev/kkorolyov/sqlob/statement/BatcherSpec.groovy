@@ -0,0 +1,102 @@
+package dev.kkorolyov.sqlob.statement
+
+import spock.lang.Specification
+
+import java.sql.PreparedStatement
+
+class BatcherSpec extends Specification {
+	Batcher<String, Object> batcher = new Batcher<>(["a", "b", "c"])
+
+	def "orders batch values by key"() {
+		when:
+		batcher.batch([c: "c", a: 1])
+		batcher.batch([1L, null, "b"] as Object[])
+
+		then:
+		batcher.size() == 2
+		batcher.get(0) == [1, null, "c"]
+		batcher.get(1) == [1L, null, "b"]
+		batcher.get(0, 2) == "c"
+	}
+	def "ignores unknown keys"() {
+		when:
+		batcher.batch([a: 1, d: 4])
+
+		then:
+		batcher.get(0) == [1, null, null]
+	}
+	def "rejects batch of wrong length"() {
+		when:
+		batcher.batch([1, 2] as Object[])
+
+		then:
+		thrown IllegalArgumentException
+	}
+
+	def "retains values of mixed types"() {
+		when:
+		values.each { batcher.batch([a: it]) }
+
+		then:
+		(0..<values.size()).collect { batcher.get(it, 0) } == values
+
+		where:
+		values << [
+				[1, 2, null, 3],
+				[1L, null, 2L],
+				[1.5d, 2.5d],
+				[true, null, false],
+				[1, 2L, "3", null, 4.5d],
+				(0..<100).toList()
+		]
+	}
+
+	def "estimates size of batched values"() {
+		when:
+		batcher.batch([a: 1, b: "four", c: null])
+		batcher.batch([a: 2, b: UUID.randomUUID(), c: true])
+
+		then:
+		batcher.estimateBytes() == 4 + 8 + 4 + 16 + 1
+	}
+
+	def "clears batches"() {
+		batcher.batch([a: 1, b: "b"])
+		batcher.batch([a: 2, b: "c"])
+
+		when:
+		batcher.clear()
+		batcher.batch([c: true])
+
+		then:
+		batcher.size() == 1
+		batcher.estimateBytes() == 1
+		batcher.get(0) == [null, null, true]
+	}
+
+	def "binds primitive values with primitive setters"() {
+		PreparedStatement statement = Mock()
+		batcher.batch([a: 1, b: 2L, c: "c"])
+		batcher.batch([a: 3, c: null])
+
+		when:
+		int next = batcher.bind(statement, 0, 1)
+		batcher.bind(statement, 1, next)
+
+		then:
+		next == 4
+		1 * statement.setInt(1, 1)
+		1 * statement.setLong(2, 2L)
+		1 * statement.setString(3, "c")
+		1 * statement.setInt(4, 3)
+		1 * statement.setObject(5, null)
+		1 * statement.setObject(6, null)
+	}
+	def "rejects binding out-of-bounds batch"() {
+		when:
+		batcher.bind(Mock(PreparedStatement), 0, 1)
+
+		then:
+		thrown IndexOutOfBoundsException
+	}
+}
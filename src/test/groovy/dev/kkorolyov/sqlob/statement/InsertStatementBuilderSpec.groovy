@@ -0,0 +1,130 @@
+package dev.kkorolyov.sqlob.statement
+
+import dev.kkorolyov.sqlob.Dialect.Upsert
+
+import spock.lang.Specification
+
+import java.sql.PreparedStatement
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+
+class InsertStatementBuilderSpec extends Specification {
+	String table = randString()
+	List<String> columns = ["a", "b"]
+
+	PreparedStatement oneRow = Mock()
+	PreparedStatement twoRows = Mock()
+	PreparedStatement threeRows = Mock()
+	Map<String, PreparedStatement> statements = [
+			(sql(1)): oneRow,
+			(sql(2)): twoRows,
+			(sql(3)): threeRows
+	]
+	List<String> prepared = []
+
+	InsertStatementBuilder builder = new InsertStatementBuilder({prepared << it; statements[it]}, table, columns)
+
+	def "builds single-row statement batched per row"() {
+		3.times {builder.batch([a: it, b: "$it".toString()])}
+
+		when:
+		PreparedStatement statement = builder.build()
+
+		then:
+		3 * oneRow.addBatch()
+		statement == oneRow
+		prepared == [sql(1)]
+	}
+
+	def "builds multi-row statements in chunks"() {
+		5.times {builder.batch([a: it, b: "$it".toString()])}
+
+		when:
+		List<PreparedStatement> result = builder.buildMultiRow(2)
+
+		then:
+		2 * twoRows.addBatch()
+		1 * oneRow.addBatch()
+		result == [twoRows, oneRow]
+	}
+	def "binds multi-row values in row order"() {
+		2.times {builder.batch([a: it, b: "$it".toString()])}
+
+		when:
+		builder.buildMultiRow(2)
+
+		then:
+		1 * twoRows.setInt(1, 0)
+		1 * twoRows.setString(2, "0")
+		1 * twoRows.setInt(3, 1)
+		1 * twoRows.setString(4, "1")
+		1 * twoRows.addBatch()
+	}
+	def "builds single multi-row statement if all rows fit"() {
+		3.times {builder.batch([a: it, b: "$it".toString()])}
+
+		when:
+		List<PreparedStatement> result = builder.buildMultiRow(10)
+
+		then:
+		result == [threeRows]
+		prepared == [sql(3)]
+	}
+
+	def "builds upsert statement"() {
+		List<String> prepared = []
+		InsertStatementBuilder builder = new InsertStatementBuilder({prepared << it; oneRow}, table, columns, upsert, "a")
+		builder.batch([a: 0, b: "0"])
+
+		when:
+		builder.build()
+
+		then:
+		prepared == [expected.replace("TABLE", table)]
+
+		where:
+		upsert << [Upsert.ON_CONFLICT, Upsert.ON_DUPLICATE_KEY, Upsert.REPLACE]
+		expected << [
+				"INSERT INTO TABLE (a,b) VALUES (?,?) ON CONFLICT(a) DO UPDATE SET b=excluded.b",
+				"INSERT INTO TABLE (a,b) VALUES (?,?) ON DUPLICATE KEY UPDATE b=VALUES(b)",
+				"INSERT OR REPLACE INTO TABLE (a,b) VALUES (?,?)"
+		]
+	}
+	def "builds key-only upsert statement"() {
+		List<String> prepared = []
+		InsertStatementBuilder builder = new InsertStatementBuilder({prepared << it; oneRow}, table, ["a"], upsert, "a")
+		builder.batch([a: 0])
+
+		when:
+		builder.build()
+
+		then:
+		prepared == [expected.replace("TABLE", table)]
+
+		where:
+		upsert << [Upsert.ON_CONFLICT, Upsert.ON_DUPLICATE_KEY]
+		expected << [
+				"INSERT INTO TABLE (a) VALUES (?) ON CONFLICT(a) DO NOTHING",
+				"INSERT INTO TABLE (a) VALUES (?) ON DUPLICATE KEY UPDATE a=a"
+		]
+	}
+	def "rejects upsert key not in columns"() {
+		when:
+		new InsertStatementBuilder({oneRow}, table, columns, Upsert.ON_CONFLICT, "c")
+
+		then:
+		thrown IllegalArgumentException
+	}
+
+	def "rejects non-positive max rows"() {
+		when:
+		builder.buildMultiRow(0)
+
+		then:
+		thrown IllegalArgumentException
+	}
+
+	private String sql(int rows) {
+		"INSERT INTO $table (a,b) VALUES ${(["(?,?)"] * rows).join(",")}".toString()
+	}
+}
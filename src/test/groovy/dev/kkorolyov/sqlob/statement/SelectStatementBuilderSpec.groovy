@@ -0,0 +1,67 @@
+package dev.kkorolyov.sqlob.statement
+
+import dev.kkorolyov.sqlob.Dialect.Limit
+import dev.kkorolyov.sqlob.util.Order
+import dev.kkorolyov.sqlob.util.Where
+
+import spock.lang.Specification
+
+import java.sql.PreparedStatement
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+
+class SelectStatementBuilderSpec extends Specification {
+	String table = randString()
+	List<String> columns = ["a", "b"]
+
+	PreparedStatement statement = Mock()
+	List<String> prepared = []
+
+	SelectStatementBuilder builder = new SelectStatementBuilder({prepared << it; statement}, table, columns, Where.eq("a", 1))
+
+	def "builds unordered select"() {
+		when:
+		builder.build()
+
+		then:
+		prepared == ["SELECT a,b FROM $table WHERE a = ?".toString()]
+		1 * statement.setInt(1, 1)
+	}
+
+	def "builds ordered and limited select"() {
+		when:
+		builder.orderBy(orders)
+				.limit(limit, syntax)
+				.build()
+
+		then:
+		prepared == ["SELECT a,b FROM $table WHERE a = ?$suffix".toString()]
+
+		where:
+		orders                           | limit | syntax            | suffix
+		[Order.asc("b")]                 | 0     | Limit.LIMIT       | " ORDER BY b ASC"
+		[Order.desc("b"), Order.id()]    | 0     | Limit.LIMIT       | " ORDER BY b DESC,id ASC"
+		[Order.id()]                     | 10    | Limit.LIMIT       | " ORDER BY id ASC LIMIT 10"
+		[Order.id()]                     | 10    | Limit.FETCH_FIRST | " ORDER BY id ASC FETCH FIRST 10 ROWS ONLY"
+		[]                               | 5     | Limit.LIMIT       | " LIMIT 5"
+	}
+
+	def "builds grouped select"() {
+		when:
+		new SelectStatementBuilder({prepared << it; statement}, table, ["a", "COUNT(*)", "MAX(b)"], Where.eq("a", 1))
+				.groupBy(["a"])
+				.orderBy([Order.asc("a")])
+				.build()
+
+		then:
+		prepared == ["SELECT a,COUNT(*),MAX(b) FROM $table WHERE a = ? GROUP BY a ORDER BY a ASC".toString()]
+	}
+
+	def "rejects negative limit"() {
+		when:
+		builder.limit(-1, Limit.LIMIT)
+
+		then:
+		thrown IllegalArgumentException
+	}
+}
@@ -0,0 +1,65 @@
+package dev.kkorolyov.sqlob.statement
+
+import dev.kkorolyov.sqlob.util.Where
+
+import spock.lang.Specification
+
+import java.sql.PreparedStatement
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+
+class SqlCacheSpec extends Specification {
+	String table = randString()
+	List<String> columns = (0..3).collect {randString()}
+
+	def "generates SQL once per shape"() {
+		int generated = 0
+
+		when:
+		String sql = SqlCache.get([table, columns], {generated++; "$table ${columns.join(',')}".toString()})
+		String sql1 = SqlCache.get([table, new ArrayList<>(columns)], {generated++; "$table ${columns.join(',')}".toString()})
+
+		then:
+		generated == 1
+		sql.is(sql1)
+	}
+
+	def "stays within maximum size"() {
+		when:
+		(SqlCache.MAX_SIZE + 10).times {
+			SqlCache.get([table, it], {randString()})
+		}
+
+		then:
+		SqlCache.size() <= SqlCache.MAX_SIZE
+	}
+
+	def "builds identical select SQL instance for same shape"() {
+		List<String> sqls = []
+		PreparedStatement statement = Mock()
+
+		when:
+		2.times {
+			new SelectStatementBuilder({sqls << it; statement}, table, columns, Where.eq("a", 1).and(Where.eq("b", 2)))
+					.build()
+		}
+
+		then:
+		sqls[0] == "SELECT ${columns.join(',')} FROM $table WHERE a = ? AND (b = ?)".toString()
+		sqls[0].is(sqls[1])
+	}
+	def "builds identical select SQL instance for same where shape with different values"() {
+		List<String> sqls = []
+		PreparedStatement statement = Mock()
+
+		when:
+		[1, 2].each {
+			new SelectStatementBuilder({sqls << it; statement}, table, columns, Where.eq("a", it).and(Where.in("b", [it, it + 1])))
+					.build()
+		}
+
+		then:
+		sqls[0] == "SELECT ${columns.join(',')} FROM $table WHERE a = ? AND (b IN (?,?))".toString()
+		sqls[0].is(sqls[1])
+	}
+}
@@ -0,0 +1,59 @@
+package dev.kkorolyov.sqlob.type
+
+import dev.kkorolyov.simplefuncs.function.ThrowingBiFunction
+import dev.kkorolyov.sqlob.type.BaseSqlobType.Delegate
+
+import spock.lang.Specification
+
+import java.sql.DatabaseMetaData
+import java.sql.ResultSet
+import java.sql.ResultSetMetaData
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.randInt
+import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+
+class SqlobTypeSpec extends Specification {
+	int column = randInt()
+	String label = randString()
+	String value = randString()
+
+	ResultSet rs = Mock()
+	ResultSetMetaData rsMetaData = Mock()
+
+	def setup() {
+		rs.getMetaData() >> rsMetaData
+		rsMetaData.getColumnLabel(column) >> label
+		rs.getString(label) >> value
+	}
+
+	def "gets by column label if not getting by index"() {
+		SqlobType<String> sqlobType = new SqlobType<String>() {
+			@Override
+			Collection<Class<String>> getTypes() {
+				return [String]
+			}
+			@Override
+			String getSqlType(DatabaseMetaData metaData) {
+				return "TEXT"
+			}
+			@Override
+			Object get(DatabaseMetaData metaData, String value) {
+				return value
+			}
+			@Override
+			String get(DatabaseMetaData metaData, ResultSet rs, String column) {
+				return rs.getString(column)
+			}
+		}
+
+		expect:
+		sqlobType.get(null, rs, column) == value
+	}
+
+	def "delegate extracts by column label through name-based extractor"() {
+		Delegate<String> delegate = new Delegate<>("TEXT", { ResultSet rs, String column -> rs.getString(column) } as ThrowingBiFunction<ResultSet, String, String, Exception>, String)
+
+		expect:
+		delegate.get(null, rs, column) == value
+	}
+}
@@ -0,0 +1,58 @@
+package dev.kkorolyov.sqlob.type.factory
+
+import dev.kkorolyov.simplefiles.Providers
+import dev.kkorolyov.sqlob.type.SqlobType
+
+import spock.lang.Specification
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.getField
+import static dev.kkorolyov.simplespecs.SpecUtilities.setField
+
+class SqlobTypeFactorySpec extends Specification {
+	static final Providers<SqlobType> ORIGINAL_SQLOB_TYPES = getField("SQLOB_TYPES", SqlobTypeFactory)
+
+	SqlobType<?> sqlobType = Mock()
+
+	def cleanupSpec() {
+		setField("SQLOB_TYPES", SqlobTypeFactory, ORIGINAL_SQLOB_TYPES)
+	}
+
+	def setup() {
+		setField("SQLOB_TYPES", SqlobTypeFactory, Providers.fromInstances(SqlobType, [sqlobType] as Set))
+	}
+
+	def "resolves sqlob type once per type"() {
+		when:
+		def first = SqlobTypeFactory.get(String)
+		def second = SqlobTypeFactory.get(String)
+
+		then:
+		1 * sqlobType.getTypes() >> [String]
+		first == sqlobType
+		second == sqlobType
+	}
+	def "resolves assignable types"() {
+		sqlobType.getTypes() >> [CharSequence]
+
+		expect:
+		SqlobTypeFactory.poll(String).orElse(null) == sqlobType
+	}
+	def "caches absent resolutions"() {
+		when:
+		SqlobTypeFactory.poll(Integer)
+		SqlobTypeFactory.poll(Integer)
+
+		then:
+		1 * sqlobType.getTypes() >> [String]
+	}
+
+	def "fails to get unaccepted type"() {
+		sqlobType.getTypes() >> [String]
+
+		when:
+		SqlobTypeFactory.get(Integer)
+
+		then:
+		thrown NoSuchElementException
+	}
+}
@@ -0,0 +1,46 @@
+package dev.kkorolyov.sqlob.util
+
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.lang.reflect.Field
+
+class FieldAccessorPerf extends Specification {
+	@Shared int warmup = 100000
+	@Shared int tests = 10000000
+
+	@Shared Field f = Stub.getDeclaredField("value")
+	@Shared FieldAccessor accessor = new FieldAccessor(f)
+	@Shared Stub instance = new Stub()
+
+	def "get"() {
+		expect:
+		time("reflection get") { int i -> ReflectionHelper.getValue(instance, f) }
+		time("accessor get") { int i -> accessor.get(instance) }
+	}
+	def "set"() {
+		expect:
+		time("reflection set") { int i -> ReflectionHelper.setValue(instance, f, i) }
+		time("accessor set") { int i -> accessor.set(instance, i) }
+	}
+	def "instantiate"() {
+		expect:
+		time("reflection instantiate") { int i -> Stub.getDeclaredConstructor().newInstance() }
+		time("instantiator instantiate") { int i -> Instantiator.get(Stub).newInstance() }
+	}
+
+	private boolean time(String name, Closure<?> action) {
+		(0..<warmup).each { int i -> action.call(i) }
+
+		long start = System.nanoTime()
+		for (int i = 0; i < tests; i++) action.call(i)
+		long ms = (System.nanoTime() - start) / 1000000 as long
+
+		println(ms + "ms to ${name} ${tests} times")
+		return true
+	}
+
+	private static class Stub {
+		private Integer value
+	}
+}
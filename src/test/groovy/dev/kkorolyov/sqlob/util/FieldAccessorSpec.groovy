@@ -0,0 +1,89 @@
+package dev.kkorolyov.sqlob.util
+
+import spock.lang.Specification
+
+import static dev.kkorolyov.simplespecs.SpecUtilities.randString
+
+class FieldAccessorSpec extends Specification {
+	Stub instance = new Stub()
+	FieldAccessor accessor = new FieldAccessor(Stub.getDeclaredField("value"))
+
+	def "gets field value"() {
+		expect:
+		accessor.get(instance) == instance.value
+	}
+	def "sets field value"() {
+		String value = randString()
+
+		when:
+		accessor.set(instance, value)
+
+		then:
+		instance.value == value
+	}
+
+	def "sets primitive field value without boxing"() {
+		FieldAccessor accessor = new FieldAccessor(Stub.getDeclaredField("count"))
+		int value = new Random().nextInt()
+
+		when:
+		accessor.setInt(instance, value)
+
+		then:
+		instance.count == value
+	}
+
+	def "fails to get field value of non-declaring instance"() {
+		when:
+		accessor.get(randString())
+
+		then:
+		thrown IllegalArgumentException
+	}
+	def "fails to set field value of incompatible type"() {
+		when:
+		accessor.set(instance, 1)
+
+		then:
+		thrown IllegalArgumentException
+	}
+
+	def "fails to set primitive field value of different primitive type"() {
+		FieldAccessor accessor = new FieldAccessor(Stub.getDeclaredField("count"))
+
+		when:
+		accessor.setLong(instance, 1L)
+
+		then:
+		thrown IllegalArgumentException
+	}
+	def "fails to set non-primitive field value with primitive setter"() {
+		when:
+		accessor.setInt(instance, 1)
+
+		then:
+		thrown IllegalArgumentException
+	}
+
+	def "instantiates class with private no-arg constructor"() {
+		expect:
+		Instantiator.get(Stub).newInstance() instanceof Stub
+	}
+	def "fails to instantiate class without no-arg constructor"() {
+		when:
+		Instantiator.get(NoArgless)
+
+		then:
+		thrown IllegalArgumentException
+	}
+
+	private static class Stub {
+		private String value = randString()
+		private int count
+
+		private Stub() {}
+	}
+	private static class NoArgless {
+		NoArgless(String value) {}
+	}
+}
@@ -2,6 +2,7 @@ package dev.kkorolyov.sqlob.util
 
 import spock.lang.Shared
 import spock.lang.Specification
+import spock.lang.Unroll
 
 import static dev.kkorolyov.simplespecs.SpecUtilities.randString
 
@@ -13,25 +14,161 @@ class WhereSpec extends Specification {
 	Where where = new Where(attribute, operator, value)
 
 	def "appends other where with delimiter"() {
-		Where original = new Where(attribute, operator, value)
 		Where other = new Where(randString(), randString(), Mock(Object))
 
 		when:
-		where."$method"(other)
+		Where result = where."$method"(other)
 
 		then:
-		where.getSql() == "${original.getSql()} $delimiter (${other.getSql()})"
+		result.getSql() == "${where.getSql()} $delimiter (${other.getSql()})"
 
 		where:
 		method << ["and", "or"]
 		delimiter << ["AND", "OR"]
 	}
+	def "does not modify operands when appending"() {
+		Where other = new Where(randString(), randString(), Mock(Object))
+		String sql = where.getSql()
+		String otherSql = other.getSql()
+
+		when:
+		where.and(other).or(other)
+
+		then:
+		where.getSql() == sql
+		other.getSql() == otherSql
+	}
+	def "parenthesizes chains of differing delimiters"() {
+		Where a = Where.eq("a", 1)
+		Where b = Where.eq("b", 2)
+		Where c = Where.eq("c", 3)
+
+		expect:
+		a.or(b).and(c).getSql() == "(a = ? OR (b = ?)) AND (c = ?)"
+		a.and(b).and(c).getSql() == "a = ? AND (b = ?) AND (c = ?)"
+		a.and(b).or(c).and(a).getSql() == "((a = ? AND (b = ?)) OR (c = ?)) AND (a = ?)"
+	}
+	def "renders long alternating chains"() {
+		Where where = (0..<10000).inject(Where.eq("a", -1)) { where, i -> i % 2 == 0 ? where.and(Where.eq("a", i)) : where.or(Where.eq("a", i)) }
+
+		expect:
+		where.getSql().startsWith("(" * 9999 + "a = ? AND (a = ?)) OR (a = ?))")
+		where.getSql().count("(") == where.getSql().count(")")
+	}
+	def "renders long chains"() {
+		Where where = (0..<10000).inject(Where.eq("a", -1)) { where, i -> where.or(Where.eq("a", i)) }
+		List<Object> results = []
+
+		when:
+		where.forEach { index, value -> results.add(value) }
+
+		then:
+		where.getSql().count("?") == 10001
+		results == (-1..<10000).toList()
+	}
+
+	def "maps attribute names into SQL"() {
+		Where where = Where.eq("a", 1).and(Where.in("b", [2, 3]))
+
+		when:
+		Where mapped = where.map({ it.toUpperCase() }, { name, value -> value * 10 })
+		List<Object> results = []
+		mapped.forEach { index, value -> results.add(value) }
+
+		then:
+		mapped.getSql() == "A = ? AND (B IN (?,?))"
+		results == [10, 20, 30]
+		where.getSql() == "a = ? AND (b IN (?,?))"
+	}
+
+	def "normalizes where"() {
+		expect:
+		criteria.normalize().getSql() == sql
+		criteria.normalize().toString() == string
+
+		where:
+		criteria << [
+				Where.eq("a", 1).or(Where.eq("b", 2).or(Where.eq("c", 3))),
+				Where.eq("a", 1).and(Where.eq("b", 2)).and(Where.eq("a", 1)),
+				Where.eq("a", 1).or(Where.eq("a", 2)).or(Where.eq("b", 3)).or(Where.in("a", [2, 4])),
+				Where.eq("a", 1).or(Where.eq("a", 1)),
+				Where.eq("a", 1).and(Where.eq("b", 2)).or(Where.eq("a", 1).and(Where.eq("b", 3))),
+				Where.eq("a", 1).or(Where.eq("a", 1).and(Where.eq("b", 2))),
+				Where.isNull("a").or(Where.isNull("a")).or(Where.eq("a", 1))
+		]
+		sql << [
+				"a = ? OR (b = ?) OR (c = ?)",
+				"a = ? AND (b = ?)",
+				"a IN (?,?,?) OR (b = ?)",
+				"a = ?",
+				"a = ? AND (b IN (?,?))",
+				"a = ?",
+				"a IS ? OR (a = ?)"
+		]
+		string << [
+				"a = 1 OR (b = 2) OR (c = 3)",
+				"a = 1 AND (b = 2)",
+				"a IN (1,2,4) OR (b = 3)",
+				"a = 1",
+				"a = 1 AND (b IN (2,3))",
+				"a = 1",
+				"a IS null OR (a = 1)"
+		]
+	}
+	def "normalizes long chains"() {
+		Where where = (0..<10000).inject(Where.eqId(UUID.randomUUID())) { where, i -> where.or(Where.eqId(UUID.randomUUID())) }
+
+		expect:
+		where.normalize().getSql().count("?") == 10001
+		!where.normalize().getSql().contains("OR")
+	}
+
+	def "builds keyset criteria after last seen values"() {
+		expect:
+		Where.after([Order.asc("a"), Order.desc("b"), Order.id()], [1, 2, 3]).toString() ==
+				"a > 1 OR (a = 1 AND (b < 2)) OR (a = 1 AND (b = 2) AND (id > 3))"
+	}
+	def "rejects keyset criteria with mismatched values"() {
+		when:
+		Where.after([Order.asc("a")], values)
+
+		then:
+		thrown IllegalArgumentException
+
+		where:
+		values << [[], [1, 2]]
+	}
+
+	def "equals where with same criteria"() {
+		expect:
+		Where.eq("a", 1).or(Where.eq("b", 2)) == Where.eq("a", 1).or(Where.eq("b", 2))
+		Where.eq("a", 1).or(Where.eq("b", 2)).hashCode() == Where.eq("a", 1).or(Where.eq("b", 2)).hashCode()
+		Where.eq("a", 1).or(Where.eq("b", 2)) != Where.eq("a", 1).or(Where.eq("b", 3))
+		Where.eq("a", 1).or(Where.eq("b", 2)) != Where.eq("a", 1).and(Where.eq("b", 2))
+	}
+
+	def "has same shape with different values"() {
+		expect:
+		Where.eq("a", 1).or(Where.in("b", [1, 2])).shape == Where.eq("a", 3).or(Where.in("b", [4, 5])).shape
+	}
+	@Unroll
+	def "has different shape with different #difference"() {
+		expect:
+		first.shape != second.shape
+
+		where:
+		difference         | first                             | second
+		"attribute"        | Where.eq("a", 1)                  | Where.eq("b", 1)
+		"operator"         | Where.eq("a", 1)                  | Where.neq("a", 1)
+		"number of values" | Where.in("a", [1, 2])             | Where.in("a", [1, 2, 3])
+		"joiner"           | Where.eq("a", 1).and("b", "=", 1) | Where.eq("a", 1).or("b", "=", 1)
+	}
 
 	def "consumes attribute values in order"() {
 		List<String> values = (0..4).collect { randString() }
 		Where where = values.inject(new Where(randString(), randString(), randString())) { where, value ->
 			where.and(attribute, operator, value)
-			where.and(randString(), operator, randString())
+					.and(randString(), operator, randString())
 		}
 		List<String> results = []
 
@@ -42,6 +179,34 @@ class WhereSpec extends Specification {
 		values == results
 	}
 
+	def "formats IN with wildcard per value"() {
+		List<String> values = (0..2).collect { randString() }
+
+		expect:
+		Where.in(attribute, values).getSql() == "$attribute IN (?,?,?)"
+	}
+	def "binds IN values in order"() {
+		List<String> values = (0..2).collect { randString() }
+		List<Object> results = []
+
+		when:
+		Where.in(attribute, values).forEach { index, value -> results.add(value) }
+
+		then:
+		results == values
+	}
+	def "matches nothing for empty IN"() {
+		Where where = Where.in(attribute, [])
+		List<Object> results = []
+
+		when:
+		where.forEach { index, value -> results.add(value) }
+
+		then:
+		where.getSql() == "1 = 0"
+		results.isEmpty()
+	}
+
 	def "formats SQL string with wildcard"() {
 		expect:
 		where.getSql() == "$attribute $operator ?"